@@ -0,0 +1,51 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.benchmark;
+
+import cn.xusc.trace.core.record.InfoRecorder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 黑洞信息记录器
+ *
+ * <p>
+ * 只累计写出信息的长度，不产生任何IO，用于隔离记录管道自身的开销
+ * </p>
+ *
+ * @author WangCai
+ * @since 2.6
+ */
+public class BlackholeInfoRecorder implements InfoRecorder {
+
+    /**
+     * 写出信息长度累加器
+     */
+    private final LongAdder LENGTH = new LongAdder();
+
+    @Override
+    public void record(String writeInfo) {
+        LENGTH.add(writeInfo.length());
+    }
+
+    /**
+     * 获取已写出信息的总长度
+     *
+     * @return 总长度
+     */
+    public long length() {
+        return LENGTH.sum();
+    }
+}
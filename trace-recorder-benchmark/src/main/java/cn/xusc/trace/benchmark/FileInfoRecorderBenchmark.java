@@ -0,0 +1,129 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.benchmark;
+
+import cn.xusc.trace.core.record.BatchInfoRecorder;
+import cn.xusc.trace.core.record.FileInfoRecorder;
+import cn.xusc.trace.core.record.RollingFileInfoRecorder;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 文件信息记录器基准测试
+ *
+ * <p>
+ * 按批写出后刷新，与异步处理器批次末尾刷新的行为一致
+ * </p>
+ *
+ * @author WangCai
+ * @since 2.6
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FileInfoRecorderBenchmark {
+
+    /**
+     * 批次大小
+     */
+    private static final int BATCH_SIZE = 64;
+
+    /**
+     * 写出信息
+     */
+    private static final String WRITE_INFO = String.format(
+        "cn.xusc.trace.benchmark.FileInfoRecorderBenchmark.record()-42 benchmark 42%n"
+    );
+
+    /**
+     * 记录器类型
+     */
+    @Param({ "file", "rolling" })
+    public String recorderType;
+
+    /**
+     * 临时目录
+     */
+    private File directory;
+
+    /**
+     * 测量的记录器
+     */
+    private BatchInfoRecorder recorder;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("trace-recorder-benchmark").toFile();
+        switch (recorderType) {
+            case "file":
+                recorder = new FileInfoRecorder(new File(directory, "benchmark.log"));
+                break;
+            case "rolling":
+                recorder =
+                    RollingFileInfoRecorder
+                        .builder()
+                        .directory(directory.getPath())
+                        .fileName("benchmark")
+                        .maxFileSize(64 << 20)
+                        .maxHistory(2)
+                        .build();
+                break;
+            default:
+                throw new IllegalArgumentException(recorderType);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        ((Closeable) recorder).close();
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void record() {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            recorder.record(WRITE_INFO);
+        }
+        recorder.flush();
+    }
+}
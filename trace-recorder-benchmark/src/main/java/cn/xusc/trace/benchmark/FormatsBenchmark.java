@@ -0,0 +1,73 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.benchmark;
+
+import cn.xusc.trace.common.util.Formats;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 格式化工具基准测试
+ *
+ * @author WangCai
+ * @since 2.6
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FormatsBenchmark {
+
+    /**
+     * 整型参数
+     */
+    private int number = 42;
+
+    /**
+     * 字符串参数
+     */
+    private String text = "value";
+
+    @Benchmark
+    public String formatNoArgs() {
+        return Formats.format("benchmark without placeholder");
+    }
+
+    @Benchmark
+    public String formatOneArg() {
+        return Formats.format("benchmark {}", number);
+    }
+
+    @Benchmark
+    public String formatThreeArgs() {
+        return Formats.format("benchmark {} - {} - {}", number, text, number);
+    }
+
+    @Benchmark
+    public boolean isMoreArgs() {
+        return Formats.isMoreArgs("benchmark {}", number, false);
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.benchmark;
+
+import cn.xusc.trace.core.TraceRecorder;
+import cn.xusc.trace.core.config.TraceRecorderConfig;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 隐藏记录基准测试
+ *
+ * <p>
+ * 隐藏记录在记录线程上直接返回，各方法的耗时应与{@link #baseline()}接近，配合{@code -prof gc}确认没有分配
+ * </p>
+ *
+ * @author WangCai
+ * @since 2.6
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HiddenRecordBenchmark {
+
+    /**
+     * 启用异步记录
+     */
+    @Param({ "false", "true" })
+    public boolean enableAsync;
+
+    /**
+     * 启用堆栈信息
+     */
+    @Param({ "true", "false" })
+    public boolean enableStack;
+
+    /**
+     * 跟踪记录仪
+     */
+    private TraceRecorder recorder;
+
+    /**
+     * 隐藏所有的跟踪记录仪
+     */
+    private TraceRecorder hideAllRecorder;
+
+    /**
+     * 参数
+     */
+    private Integer value = 1;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        recorder = generateTraceRecorder();
+        hideAllRecorder = generateTraceRecorder();
+        hideAllRecorder.hideAll();
+    }
+
+    /**
+     * 生成跟踪记录仪，记录器替换为{@link BlackholeInfoRecorder}
+     *
+     * @return 跟踪记录仪
+     */
+    private TraceRecorder generateTraceRecorder() {
+        TraceRecorder traceRecorder = new TraceRecorder(
+            TraceRecorderConfig.builder().enableAsync(enableAsync).taskHandlerSize(1).build()
+        );
+        traceRecorder.getInfoRecorders().forEach(traceRecorder::removeInfoRecorder);
+        traceRecorder.addInfoRecorder(new BlackholeInfoRecorder());
+        if (enableStack) {
+            traceRecorder.enableStackInfo();
+        } else {
+            traceRecorder.disableStackInfo();
+        }
+        return traceRecorder;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        recorder.shutdown();
+        hideAllRecorder.shutdown();
+    }
+
+    @Benchmark
+    public void baseline() {
+        // nop
+    }
+
+    @Benchmark
+    public void nolog() {
+        recorder.nolog("benchmark");
+    }
+
+    @Benchmark
+    public void nologWithArgs() {
+        recorder.nolog("benchmark {}", value);
+    }
+
+    /**
+     * 末尾参数推断隐藏
+     *
+     * <p>调用方构造的可变参数数组在非隐藏分支上会逃逸，无法被标量替换，剩余的分配来自该数组</p>
+     */
+    @Benchmark
+    public void logTrailingFalse() {
+        recorder.log("benchmark {}", value, false);
+    }
+
+    @Benchmark
+    public void logHideAll() {
+        hideAllRecorder.log("benchmark {}", value);
+    }
+}
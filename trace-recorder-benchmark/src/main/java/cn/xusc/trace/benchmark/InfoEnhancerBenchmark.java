@@ -0,0 +1,152 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.benchmark;
+
+import cn.xusc.trace.core.EnhanceInfo;
+import cn.xusc.trace.core.enhance.InfoEnhancer;
+import cn.xusc.trace.core.enhance.LineInfoEnhancer;
+import cn.xusc.trace.core.enhance.ShortClassNameInfoEnhancer;
+import cn.xusc.trace.core.enhance.StackInfoEnhancer;
+import cn.xusc.trace.core.enhance.ThreadInfoEnhancer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 内置信息增强器基准测试
+ *
+ * <p>
+ * 按处理器准备增强信息的方式填充临时值，分别测量每个内置增强器的增强与写出，以及完整的内置增强器链
+ * </p>
+ *
+ * @author WangCai
+ * @since 2.6
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InfoEnhancerBenchmark {
+
+    /**
+     * 调用者堆栈元素
+     */
+    private static final StackTraceElement CALLER = new StackTraceElement(
+        "cn.xusc.trace.benchmark.InfoEnhancerBenchmark",
+        "enhance",
+        "InfoEnhancerBenchmark.java",
+        42
+    );
+
+    /**
+     * 行信息增强器
+     */
+    private final InfoEnhancer LINE = new LineInfoEnhancer();
+
+    /**
+     * 堆栈信息增强器
+     */
+    private final InfoEnhancer STACK = new StackInfoEnhancer();
+
+    /**
+     * 短类名信息增强器
+     */
+    private final InfoEnhancer SHORT_CLASS_NAME = new ShortClassNameInfoEnhancer();
+
+    /**
+     * 线程信息增强器
+     */
+    private final InfoEnhancer THREAD = new ThreadInfoEnhancer();
+
+    /**
+     * 内置增强器链，顺序与跟踪记录仪一致
+     */
+    private final List<InfoEnhancer> ENHANCERS = List.of(LINE, STACK, SHORT_CLASS_NAME, THREAD);
+
+    @Benchmark
+    public String lineInfoEnhancer() {
+        return enhance(LINE);
+    }
+
+    @Benchmark
+    public String stackInfoEnhancer() {
+        return enhance(STACK);
+    }
+
+    @Benchmark
+    public String shortClassNameInfoEnhancer() {
+        return enhance(SHORT_CLASS_NAME);
+    }
+
+    @Benchmark
+    public String threadInfoEnhancer() {
+        return enhance(THREAD);
+    }
+
+    @Benchmark
+    public String enhancerChain() {
+        EnhanceInfo eInfo = enhanceInfo();
+        for (InfoEnhancer enhancer : ENHANCERS) {
+            enhancer.enhance(eInfo);
+        }
+        for (InfoEnhancer enhancer : ENHANCERS) {
+            enhancer.setWriteInfo(eInfo);
+        }
+        return eInfo.getWriteInfo();
+    }
+
+    /**
+     * 单个增强器增强并写出
+     *
+     * @param enhancer 信息增强器
+     * @return 写出信息
+     */
+    private String enhance(InfoEnhancer enhancer) {
+        EnhanceInfo eInfo = enhanceInfo();
+        enhancer.setWriteInfo(enhancer.enhance(eInfo));
+        return eInfo.getWriteInfo();
+    }
+
+    /**
+     * 生成与处理器一致的增强信息
+     *
+     * @return 增强信息
+     */
+    private EnhanceInfo enhanceInfo() {
+        EnhanceInfo enhanceInfo = new EnhanceInfo("benchmark {}", 42);
+        enhanceInfo.setEnableStack(true);
+        enhanceInfo.setEnableShortClassName(true);
+        enhanceInfo.setEnableThreadName(true);
+        enhanceInfo.setCaller(CALLER);
+        /*
+          预先填充调用者信息，使单个增强器的测量不依赖堆栈信息增强器
+         */
+        enhanceInfo.setClassName(CALLER.getClassName());
+        enhanceInfo.setMethodName(CALLER.getMethodName());
+        enhanceInfo.setLineNumber(CALLER.getLineNumber());
+        return enhanceInfo;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.benchmark;
+
+import cn.xusc.trace.common.util.StackTraces;
+import cn.xusc.trace.core.constant.Temporary;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 堆栈跟踪工具基准测试
+ *
+ * <p>
+ * 对比基于异常的完整堆栈填充与基于{@link StackWalker}的惰性游走
+ * </p>
+ *
+ * @author WangCai
+ * @since 2.6
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StackTracesBenchmark {
+
+    @Benchmark
+    public Optional<StackTraceElement> currentFirstStackTraceElement() {
+        return StackTraces.currentFirstStackTraceElement(Temporary.IGNORE_STACK_CLASS_NAMES);
+    }
+
+    @Benchmark
+    public Optional<StackTraceElement> currentFirstStackTraceElementByException() {
+        return StackTraces.currentFirstStackTraceElement(new Exception(), Temporary.IGNORE_STACK_CLASS_NAMES);
+    }
+
+    @Benchmark
+    public Optional<StackTraceElement> callerStackTraceElement() {
+        return StackTraces.callerStackTraceElement(Temporary.IGNORE_STACK_CLASS_NAMES);
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.benchmark;
+
+import cn.xusc.trace.core.TraceRecorder;
+import cn.xusc.trace.core.config.TraceRecorderConfig;
+import cn.xusc.trace.core.constant.AsyncWaitStrategy;
+import cn.xusc.trace.core.record.InfoRecorder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 跟踪记录仪记录基准测试
+ *
+ * <p>
+ * 覆盖同步、异步、分片异步处理器在不同线程数下的完整记录管道（过滤、增强、记录），
+ * 记录器替换为{@link BlackholeInfoRecorder}以排除IO的干扰
+ * </p>
+ *
+ * <p>
+ * 异步基准方法额外覆盖等待策略、缓冲大小、分片数量的组合，生产者数量由各方法的线程数决定
+ * </p>
+ *
+ * @author WangCai
+ * @since 2.6
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TraceRecorderBenchmark {
+
+    @Benchmark
+    @Threads(1)
+    public void log1Thread(RecorderState state) {
+        state.recorder.log("benchmark {} - {}", 1, "value");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void log4Threads(RecorderState state) {
+        state.recorder.log("benchmark {} - {}", 4, "value");
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void log16Threads(RecorderState state) {
+        state.recorder.log("benchmark {} - {}", 16, "value");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void logWithoutArgs(RecorderState state) {
+        state.recorder.log("benchmark");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void nolog(RecorderState state) {
+        state.recorder.nolog("benchmark {} - {}", 1, "value");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void asyncLog1Thread(AsyncState state) {
+        state.recorder.log("benchmark {} - {}", 1, "value");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void asyncLog4Threads(AsyncState state) {
+        state.recorder.log("benchmark {} - {}", 4, "value");
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void asyncLog16Threads(AsyncState state) {
+        state.recorder.log("benchmark {} - {}", 16, "value");
+    }
+
+    /**
+     * 生成记录到{@link BlackholeInfoRecorder}的跟踪记录仪
+     *
+     * @param config 跟踪记录仪配置
+     * @return 跟踪记录仪
+     */
+    private static TraceRecorder generateBlackholeTraceRecorder(TraceRecorderConfig config) {
+        TraceRecorder recorder = new TraceRecorder(config);
+        List<InfoRecorder> infoRecorders = new ArrayList<>();
+        for (InfoRecorder infoRecorder : recorder.getInfoRecorders()) {
+            infoRecorders.add(infoRecorder);
+        }
+        for (InfoRecorder infoRecorder : infoRecorders) {
+            recorder.removeInfoRecorder(infoRecorder);
+        }
+        recorder.addInfoRecorder(new BlackholeInfoRecorder());
+        return recorder;
+    }
+
+    /**
+     * 记录状态
+     */
+    @State(Scope.Benchmark)
+    public static class RecorderState {
+
+        /**
+         * 启用异步记录
+         */
+        @Param({ "false", "true" })
+        public boolean enableAsync;
+
+        /**
+         * 启用堆栈信息
+         */
+        @Param({ "true", "false" })
+        public boolean enableStack;
+
+        /**
+         * 跟踪记录仪
+         */
+        private TraceRecorder recorder;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            recorder =
+                generateBlackholeTraceRecorder(
+                    TraceRecorderConfig.builder().enableAsync(enableAsync).taskHandlerSize(1).build()
+                );
+            if (enableStack) {
+                recorder.enableStackInfo();
+            } else {
+                recorder.disableStackInfo();
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            recorder.shutdown();
+        }
+    }
+
+    /**
+     * 异步记录状态
+     *
+     * <p>等待策略、缓冲大小和分片数量只对异步记录有意义，单独作为状态只在异步基准方法中展开，禁用堆栈信息以突出环缓冲区的开销</p>
+     */
+    @State(Scope.Benchmark)
+    public static class AsyncState {
+
+        /**
+         * 异步等待策略
+         */
+        @Param({ "BLOCKING", "SLEEPING", "YIELDING", "BUSY_SPIN", "PHASED_BACKOFF" })
+        public AsyncWaitStrategy waitStrategy;
+
+        /**
+         * 异步缓冲大小
+         */
+        @Param({ "32", "8192" })
+        public int bufferSize;
+
+        /**
+         * 异步环缓冲区分片数量
+         */
+        @Param({ "1", "4" })
+        public int stripeSize;
+
+        /**
+         * 跟踪记录仪
+         */
+        private TraceRecorder recorder;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            recorder =
+                generateBlackholeTraceRecorder(
+                    TraceRecorderConfig
+                        .builder()
+                        .enableAsync(true)
+                        .taskHandlerSize(1)
+                        .bufferSize(bufferSize)
+                        .waitStrategy(waitStrategy)
+                        .stripeSize(stripeSize)
+                        .build()
+                );
+            recorder.disableStackInfo();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            recorder.shutdown();
+        }
+    }
+}
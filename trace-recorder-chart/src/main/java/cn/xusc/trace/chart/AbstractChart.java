@@ -82,6 +82,12 @@ public abstract class AbstractChart implements Chart {
         initCharProcessSteps(CHART_FLOW);
         log.debug("init chart processSteps successful!");
 
+        ChartDataRepository.INSTANCE.configure(
+            CHART_CONFIG.getChartDataCapacity(),
+            CHART_CONFIG.getChartDataOverflowPolicy()
+        );
+        log.debug("configure chart data repository successful!");
+
         this.CHART_DATA_PROCESSOR = initChartDataProcessor(this);
         this.CHART_DATA_PROCESSOR.setDaemon(true);
         this.CHART_DATA_PROCESSOR.start();
@@ -15,6 +15,7 @@
  */
 package cn.xusc.trace.chart;
 
+import cn.xusc.trace.chart.constant.ChartDataOverflowPolicy;
 import cn.xusc.trace.chart.constant.ChartRefreshStrategy;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
@@ -35,4 +36,20 @@ public abstract class AbstractChartConfig {
      */
     @Builder.Default
     private ChartRefreshStrategy chartRefreshStrategy = ChartRefreshStrategy.TIMELY;
+
+    /**
+     * 图表数据存储库容量
+     *
+     * @since 2.6
+     */
+    @Builder.Default
+    private int chartDataCapacity = 1024;
+
+    /**
+     * 图表数据溢出策略
+     *
+     * @since 2.6
+     */
+    @Builder.Default
+    private ChartDataOverflowPolicy chartDataOverflowPolicy = ChartDataOverflowPolicy.DROP_OLDEST;
 }
@@ -15,12 +15,17 @@
  */
 package cn.xusc.trace.chart;
 
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import cn.xusc.trace.chart.constant.ChartDataOverflowPolicy;
+import cn.xusc.trace.common.util.concurrent.LossyQueue;
+import java.util.Objects;
 
 /**
  * 图表数据存储库
  *
+ * <p>
+ * 记录线程与图表数据处理者之间的有损交接，存储库已满时按溢出策略丢弃图表数据，从不阻塞记录线程
+ * </p>
+ *
  * @author WangCai
  * @since 2.5
  */
@@ -31,20 +36,37 @@ enum ChartDataRepository {
     INSTANCE;
 
     /**
-     * 标准图表数据队列
+     * 标准图表数据队列，图表数据处理者启动前可按图表配置重新配置
      */
-    private final BlockingQueue<ChartData> STANDARD_CHART_DATA_QUEUE = new ArrayBlockingQueue<>(1024);
+    private volatile LossyQueue<ChartData> standardChartDataQueue = new LossyQueue<>(1024, true);
+
+    /**
+     * 按图表配置配置存储库
+     *
+     * <p>应在图表数据处理者启动前配置，已存储的图表数据被丢弃</p>
+     *
+     * @param capacity 容量
+     * @param overflowPolicy 溢出策略
+     * @throws NullPointerException if {@code overflowPolicy} is null.
+     * @since 2.6
+     */
+    void configure(int capacity, ChartDataOverflowPolicy overflowPolicy) {
+        Objects.requireNonNull(overflowPolicy);
+
+        standardChartDataQueue = new LossyQueue<>(capacity, overflowPolicy == ChartDataOverflowPolicy.DROP_OLDEST);
+    }
 
     /**
      * 填充图表数据到队列
      *
+     * <p>从不阻塞，存储库已满时按溢出策略丢弃</p>
+     *
      * @param chartData 图表数据
-     * @return 填充详情
-     * @throws InterruptedException if some property of the specified element prevents it from being added to this queue.
+     * @return 当前图表数据是否已填充
+     * @throws NullPointerException if {@code chartData} is null.
      */
-    public boolean put(ChartData chartData) throws InterruptedException {
-        STANDARD_CHART_DATA_QUEUE.put(chartData);
-        return true;
+    public boolean put(ChartData chartData) {
+        return standardChartDataQueue.offer(chartData);
     }
 
     /**
@@ -54,6 +76,16 @@ enum ChartDataRepository {
      * @throws InterruptedException if interrupted while waiting.
      */
     public ChartData take() throws InterruptedException {
-        return STANDARD_CHART_DATA_QUEUE.take();
+        return standardChartDataQueue.take();
+    }
+
+    /**
+     * 获取丢弃的图表数据数
+     *
+     * @return 丢弃数
+     * @since 2.6
+     */
+    public long droppedCount() {
+        return standardChartDataQueue.droppedCount();
     }
 }
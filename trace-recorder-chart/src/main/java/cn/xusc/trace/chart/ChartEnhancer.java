@@ -27,6 +27,7 @@ import cn.xusc.trace.common.util.StackTraces;
 import cn.xusc.trace.common.util.Systems;
 import cn.xusc.trace.common.util.reflect.Class;
 import cn.xusc.trace.core.EnhanceInfo;
+import cn.xusc.trace.core.StackSnapshot;
 import cn.xusc.trace.core.enhance.AbstractStatisticsInfoEnhancer;
 import cn.xusc.trace.core.util.TraceRecorders;
 import cn.xusc.trace.core.util.spi.TraceRecorderLoader;
@@ -116,11 +117,12 @@ public class ChartEnhancer extends AbstractStatisticsInfoEnhancer {
         }
 
         /*
-        堆栈信息获取
+        堆栈信息获取，优先复用处理器在记录线程上捕获的堆栈快照
          */
-        StackTraceElement[] stackTraceElements = StackTraces
-            .currentStackTraceElement(Temporary.IGNORE_STACK_CLASS_NAMES)
-            .get();
+        StackSnapshot stackSnapshot = eInfo.getStackSnapshot();
+        StackTraceElement[] stackTraceElements = Objects.nonNull(stackSnapshot) && stackSnapshot.size() > 0
+            ? stackSnapshot.toArray()
+            : StackTraces.currentStackTraceElement(Temporary.IGNORE_STACK_CLASS_NAMES).get();
         StackTraceElement currentStackTraceElement = stackTraceElements[0];
 
         /*
@@ -137,16 +139,10 @@ public class ChartEnhancer extends AbstractStatisticsInfoEnhancer {
         log.trace("generate standard chart data: {}", standardChartData.basicChartData());
 
         /*
-        标准图表数据填充到存储库
+        标准图表数据填充到存储库，存储库已满时按溢出策略丢弃，不阻塞记录线程
          */
-        for (;;) {
-            try {
-                ChartDataRepository.INSTANCE.put(standardChartData);
-                log.trace("put standard chart data to repository");
-                break;
-            } catch (InterruptedException e) {
-                // nop
-            }
+        if (ChartDataRepository.INSTANCE.put(standardChartData)) {
+            log.trace("put standard chart data to repository");
         }
 
         if (!alreadyShowChart && Objects.equals(STRATEGY, ChartRefreshStrategy.TIMELY)) {
@@ -159,6 +155,17 @@ public class ChartEnhancer extends AbstractStatisticsInfoEnhancer {
         return eInfo;
     }
 
+    /**
+     * 需要完整调用栈描绘图表，闲置时不需要
+     *
+     * @return {@inheritDoc}
+     * @since 2.6
+     */
+    @Override
+    public int stackDepth() {
+        return Objects.equals(STRATEGY, ChartRefreshStrategy.IDLE) ? 0 : Integer.MAX_VALUE;
+    }
+
     /**
      * 图表显示，并等待图表显示完
      *
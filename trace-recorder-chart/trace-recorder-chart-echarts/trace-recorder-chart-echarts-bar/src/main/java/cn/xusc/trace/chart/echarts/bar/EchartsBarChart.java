@@ -16,6 +16,7 @@
 package cn.xusc.trace.chart.echarts.bar;
 
 import cn.xusc.trace.chart.*;
+import cn.xusc.trace.chart.constant.ChartDataOverflowPolicy;
 import cn.xusc.trace.chart.constant.ChartRefreshStrategy;
 import cn.xusc.trace.chart.constant.Temporary;
 import cn.xusc.trace.chart.echarts.bar.config.EchartsBarChartConfig;
@@ -104,16 +105,30 @@ public class EchartsBarChart extends AbstractChart {
             .builder()
             .chartRefreshStrategy(
                 ChartRefreshStrategy.valueOf(
-                    (String) environment
-                        .get(EchartsBarChartConfig.CONFIG_CLASSNAME.concat(".").concat("chartRefreshStrategy"))
-                        .orElse("TIMELY")
+                    environment.getString(EchartsBarChartConfig.CONFIG_CLASSNAME, "chartRefreshStrategy", "TIMELY")
+                )
+            )
+            .chartDataCapacity(
+                Integer.parseInt(
+                    environment.getString(EchartsBarChartConfig.CONFIG_CLASSNAME, "chartDataCapacity", "1024")
+                )
+            )
+            .chartDataOverflowPolicy(
+                ChartDataOverflowPolicy.valueOf(
+                    environment.getString(
+                        EchartsBarChartConfig.CONFIG_CLASSNAME,
+                        "chartDataOverflowPolicy",
+                        "DROP_OLDEST"
+                    )
                 )
             )
             .generatePath(
                 Path.of(
-                    (String) environment
-                        .get(EchartsBarChartConfig.CONFIG_CLASSNAME.concat(".").concat("generatePath"))
-                        .orElse(Systems.getClassPaths(classPath -> Files.isDirectory(Paths.get(classPath)))[0])
+                    environment.getString(
+                        EchartsBarChartConfig.CONFIG_CLASSNAME,
+                        "generatePath",
+                        Systems.getClassPaths(classPath -> Files.isDirectory(Paths.get(classPath)))[0]
+                    )
                 )
             )
             .homePath(Temporary.TEMPLATE_PATH.resolve("echarts/bar"))
@@ -135,13 +150,11 @@ public class EchartsBarChart extends AbstractChart {
             .builder()
             .beautifyInterval(
                 Boolean.valueOf(
-                    (String) environment
-                        .get(
-                            EchartsBarChartConfig.BarAttribute.ATTRIBUTE_CONFIG_CLASSNAME
-                                .concat(".")
-                                .concat("beautifyInterval")
-                        )
-                        .orElse("true")
+                    environment.getString(
+                        EchartsBarChartConfig.BarAttribute.ATTRIBUTE_CONFIG_CLASSNAME,
+                        "beautifyInterval",
+                        "true"
+                    )
                 )
             )
             .build();
@@ -16,6 +16,7 @@
 package cn.xusc.trace.chart.echarts.relation;
 
 import cn.xusc.trace.chart.*;
+import cn.xusc.trace.chart.constant.ChartDataOverflowPolicy;
 import cn.xusc.trace.chart.constant.ChartRefreshStrategy;
 import cn.xusc.trace.chart.constant.Temporary;
 import cn.xusc.trace.chart.echarts.relation.config.EchartsRelationChartConfig;
@@ -111,16 +112,30 @@ public class EchartsRelationChart extends AbstractChart {
             .builder()
             .chartRefreshStrategy(
                 ChartRefreshStrategy.valueOf(
-                    (String) environment
-                        .get(EchartsRelationChartConfig.CONFIG_CLASSNAME.concat(".").concat("chartRefreshStrategy"))
-                        .orElse("TIMELY")
+                    environment.getString(EchartsRelationChartConfig.CONFIG_CLASSNAME, "chartRefreshStrategy", "TIMELY")
+                )
+            )
+            .chartDataCapacity(
+                Integer.parseInt(
+                    environment.getString(EchartsRelationChartConfig.CONFIG_CLASSNAME, "chartDataCapacity", "1024")
+                )
+            )
+            .chartDataOverflowPolicy(
+                ChartDataOverflowPolicy.valueOf(
+                    environment.getString(
+                        EchartsRelationChartConfig.CONFIG_CLASSNAME,
+                        "chartDataOverflowPolicy",
+                        "DROP_OLDEST"
+                    )
                 )
             )
             .generatePath(
                 Path.of(
-                    (String) environment
-                        .get(EchartsRelationChartConfig.CONFIG_CLASSNAME.concat(".").concat("generatePath"))
-                        .orElse(Systems.getClassPaths(classPath -> Files.isDirectory(Paths.get(classPath)))[0])
+                    environment.getString(
+                        EchartsRelationChartConfig.CONFIG_CLASSNAME,
+                        "generatePath",
+                        Systems.getClassPaths(classPath -> Files.isDirectory(Paths.get(classPath)))[0]
+                    )
                 )
             )
             .homePath(Temporary.TEMPLATE_PATH.resolve("echarts/relation"))
@@ -143,49 +158,39 @@ public class EchartsRelationChart extends AbstractChart {
         return EchartsRelationChartConfig.RelationAttribute
             .builder()
             .symbolSize(
-                (String) environment
-                    .get(
-                        EchartsRelationChartConfig.RelationAttribute.ATTRIBUTE_CONFIG_CLASSNAME
-                            .concat(".")
-                            .concat("symbolSize")
-                    )
-                    .orElse("20")
+                environment.getString(
+                    EchartsRelationChartConfig.RelationAttribute.ATTRIBUTE_CONFIG_CLASSNAME,
+                    "symbolSize",
+                    "20"
+                )
             )
             .maxXAxis(
-                (String) environment
-                    .get(
-                        EchartsRelationChartConfig.RelationAttribute.ATTRIBUTE_CONFIG_CLASSNAME
-                            .concat(".")
-                            .concat("maxXAxis")
-                    )
-                    .orElse("100")
+                environment.getString(
+                    EchartsRelationChartConfig.RelationAttribute.ATTRIBUTE_CONFIG_CLASSNAME,
+                    "maxXAxis",
+                    "100"
+                )
             )
             .offsetXAxis(
-                (String) environment
-                    .get(
-                        EchartsRelationChartConfig.RelationAttribute.ATTRIBUTE_CONFIG_CLASSNAME
-                            .concat(".")
-                            .concat("offsetXAxis")
-                    )
-                    .orElse("4")
+                environment.getString(
+                    EchartsRelationChartConfig.RelationAttribute.ATTRIBUTE_CONFIG_CLASSNAME,
+                    "offsetXAxis",
+                    "4"
+                )
             )
             .offsetYAxis(
-                (String) environment
-                    .get(
-                        EchartsRelationChartConfig.RelationAttribute.ATTRIBUTE_CONFIG_CLASSNAME
-                            .concat(".")
-                            .concat("offsetYAxis")
-                    )
-                    .orElse("2")
+                environment.getString(
+                    EchartsRelationChartConfig.RelationAttribute.ATTRIBUTE_CONFIG_CLASSNAME,
+                    "offsetYAxis",
+                    "2"
+                )
             )
             .minYAxis(
-                (String) environment
-                    .get(
-                        EchartsRelationChartConfig.RelationAttribute.ATTRIBUTE_CONFIG_CLASSNAME
-                            .concat(".")
-                            .concat("minYAxis")
-                    )
-                    .orElse("100")
+                environment.getString(
+                    EchartsRelationChartConfig.RelationAttribute.ATTRIBUTE_CONFIG_CLASSNAME,
+                    "minYAxis",
+                    "100"
+                )
             )
             .build();
     }
@@ -22,7 +22,6 @@ import cn.xusc.trace.chart.echarts.relation.mapping.EchartsRelation;
 import cn.xusc.trace.common.util.Formats;
 import cn.xusc.trace.common.util.Spaces;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Echarts关系图数据图表处理步骤
@@ -32,6 +31,31 @@ import java.util.stream.Collectors;
  */
 public class EchartsRelationDataChartProcessStep implements ChartProcessStep {
 
+    /**
+     * 类名对应的分类索引
+     */
+    private final Map<String, Integer> CATEGORY_INDEXES = new HashMap<>();
+
+    /**
+     * 已生成的分类
+     */
+    private final List<EchartsRelation.EchartsRelationCategory> CATEGORIES = new ArrayList<>();
+
+    /**
+     * 已生成的节点
+     */
+    private final List<EchartsRelation.EchartsRelationNode> NODES = new ArrayList<>();
+
+    /**
+     * 已生成的连接
+     */
+    private final List<EchartsRelation.EchartsRelationLink> LINKS = new ArrayList<>();
+
+    /**
+     * 上次渲染的最新图表数据
+     */
+    private EchartsRelationChartData lastChartData;
+
     /**
      * 基础构造
      */
@@ -41,30 +65,31 @@ public class EchartsRelationDataChartProcessStep implements ChartProcessStep {
     public <T> void run(AbstractChartConfig config, ValuePipeline<T> valuePipeline) throws Exception {
         EchartsRelationChartData relationChartData = (EchartsRelationChartData) valuePipeline.getValue();
 
-        Deque<EchartsRelationChartData> tempChartsData = new LinkedList<>();
-        do {
-            tempChartsData.addFirst(relationChartData);
-        } while (Objects.nonNull(relationChartData = (EchartsRelationChartData) relationChartData.nextChartData()));
+        /*
+        增量渲染：仅追加上次渲染之后新到的图表数据
+         */
+        Deque<EchartsRelationChartData> newChartsData = new ArrayDeque<>();
+        for (
+            EchartsRelationChartData chartData = relationChartData;
+            Objects.nonNull(chartData) && chartData != lastChartData;
+            chartData = (EchartsRelationChartData) chartData.nextChartData()
+        ) {
+            newChartsData.addFirst(chartData);
+        }
+        if (Objects.nonNull(relationChartData)) {
+            lastChartData = relationChartData;
+            /*
+            断开已渲染的历史数据，使其可被回收
+             */
+            relationChartData.setNextChartData(null);
+        }
 
-        int id = 0, offset = -1;
-        String className;
+        int id = NODES.size();
         Spaces.CoordinateAxis coordinateAxis;
-        List<String> classNames = new ArrayList<>();
-        List<EchartsRelation.EchartsRelationNode> relationNodes = new ArrayList<>();
-        List<EchartsRelation.EchartsRelationLink> relationLinks = new ArrayList<>();
-        for (EchartsRelationChartData chartData : tempChartsData) {
-            className = chartData.className();
+        for (EchartsRelationChartData chartData : newChartsData) {
             coordinateAxis = chartData.getCoordinateAxis();
-            if ((offset = classNames.indexOf(className)) < 0) {
-                classNames.add(className);
-            }
 
-            /*
-            偏移推断：如果最后节点段索引不存在，必定是添加到最后
-             */
-            offset = offset == -1 ? classNames.size() - 1 : offset;
-
-            relationNodes.add(
+            NODES.add(
                 EchartsRelation.EchartsRelationNode
                     .builder()
                     .id(String.valueOf(id))
@@ -80,11 +105,11 @@ public class EchartsRelationDataChartProcessStep implements ChartProcessStep {
                     .x(coordinateAxis.getX())
                     .y(coordinateAxis.getY())
                     .value(chartData.info())
-                    .category(offset)
+                    .category(categoryIndex(chartData.className()))
                     .build()
             );
 
-            relationLinks.add(
+            LINKS.add(
                 EchartsRelation.EchartsRelationLink
                     .builder()
                     .source(String.valueOf(id))
@@ -95,21 +120,34 @@ public class EchartsRelationDataChartProcessStep implements ChartProcessStep {
         }
         EchartsRelation relation = EchartsRelation
             .builder()
-            .nodes(relationNodes)
-            .links(relationLinks)
-            .categories(
-                classNames
-                    .stream()
-                    .map(categoriesClassName ->
-                        EchartsRelation.EchartsRelationCategory.builder().name(categoriesClassName).build()
-                    )
-                    .collect(Collectors.toList())
-            )
+            .nodes(NODES)
+            .links(LINKS)
+            .categories(CATEGORIES)
             .build();
 
         valuePipeline.setValue((T) relation);
     }
 
+    /**
+     * 获取类名对应的分类索引
+     *
+     * <p>
+     * 新类名追加为新分类
+     * </p>
+     *
+     * @param className 类名
+     * @return 分类索引
+     */
+    private int categoryIndex(String className) {
+        return CATEGORY_INDEXES.computeIfAbsent(
+            className,
+            newClassName -> {
+                CATEGORIES.add(EchartsRelation.EchartsRelationCategory.builder().name(newClassName).build());
+                return CATEGORIES.size() - 1;
+            }
+        );
+    }
+
     /**
      * 生成关系图节点名称
      *
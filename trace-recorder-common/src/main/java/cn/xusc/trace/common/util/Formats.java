@@ -15,7 +15,12 @@
  */
 package cn.xusc.trace.common.util;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 import lombok.experimental.UtilityClass;
 
 /**
@@ -41,6 +46,45 @@ public class Formats {
      */
     private final char ESCAPE = '\\';
 
+    /**
+     * 模板缓存最大数量
+     *
+     * @since 2.6
+     */
+    private final int MAX_TEMPLATES = 1 << 11;
+
+    /**
+     * 模板缓存
+     *
+     * @since 2.6
+     */
+    private final Map<String, Template> TEMPLATES = new ConcurrentHashMap<>();
+
+    /**
+     * 模板缓存时钟
+     *
+     * <p>
+     * 按缓存顺序环形记录已缓存的格式消息，缓存已满时由{@link #clockHand}扫描淘汰未被再次访问的模板
+     * </p>
+     *
+     * @since 2.6
+     */
+    private final String[] CLOCK = new String[MAX_TEMPLATES];
+
+    /**
+     * 模板缓存锁
+     *
+     * @since 2.6
+     */
+    private final ReentrantLock CLOCK_LOCK = new ReentrantLock();
+
+    /**
+     * 时钟指针
+     *
+     * @since 2.6
+     */
+    private int clockHand;
+
     /**
      * 格式化消息
      *
@@ -56,7 +100,7 @@ public class Formats {
      * 格式化消息
      *
      * <p>
-     * 尽可能格式化消息，如果参数列表数量多于格式分隔符，则丢弃
+     * 尽可能格式化消息，如果参数列表数量多于格式分隔符，则丢弃；少于格式分隔符时，剩余的分隔符原样保留
      * </p>
      *
      * @param messagePattern 格式消息
@@ -69,34 +113,7 @@ public class Formats {
         Objects.requireNonNull(messagePattern);
         Objects.requireNonNull(argArray);
 
-        int mLength = messagePattern.length();
-        if (mLength < SEPARATOR.length()) {
-            /*
-              小于分隔符长度的格式消息直接返回
-             */
-            return messagePattern;
-        }
-
-        StringBuilder sb = new StringBuilder(mLength + 50);
-        int start = 0, end, index = 0;
-        while ((end = messagePattern.indexOf(SEPARATOR, start)) > -1) {
-            if (end > 0 && Objects.equals(messagePattern.charAt(end - 1), ESCAPE)) {
-                sb.append(messagePattern, start, start = end + 2);
-                continue;
-            }
-
-            sb.append(messagePattern, start, end);
-            sb.append(argArray[index++]);
-            start = end + 2;
-            if (index == argArray.length) {
-                /*
-                  参数列表已经填充完了
-                 */
-                break;
-            }
-        }
-
-        return start == 0 ? messagePattern : sb.append(messagePattern, start, mLength).toString();
+        return compile(messagePattern).format(messagePattern, argArray);
     }
 
     /**
@@ -113,38 +130,179 @@ public class Formats {
         Objects.requireNonNull(messagePattern);
         Objects.requireNonNull(argArray);
 
-        int mLength = messagePattern.length();
-        if (mLength < SEPARATOR.length()) {
-            /*
-               小于分隔符长度的格式消息，存在两种情况
-                情况一：
-                    存在参数组
-                情况二:
-                    不存在参数组
-             */
-            if (argArray.length > 0) {
-                return true;
+        return argArray.length > placeholderCount(messagePattern);
+    }
+
+    /**
+     * 获取格式消息的占位符数量
+     *
+     * <p>与{@link #isMoreArgs(String, Object...)}等价的判断可直接比较参数数量，不需要传递参数列表</p>
+     *
+     * @param messagePattern 格式消息
+     * @return 占位符数量
+     * @throws NullPointerException if {@code messagePattern} is null.
+     * @since 2.6
+     */
+    public int placeholderCount(String messagePattern) {
+        Objects.requireNonNull(messagePattern);
+
+        return compile(messagePattern).SEGMENTS.length - 1;
+    }
+
+    /**
+     * 格式消息是否已缓存编译模板
+     *
+     * @param messagePattern 格式消息
+     * @return 是否已缓存
+     * @since 2.6
+     */
+    public boolean isCached(String messagePattern) {
+        Objects.requireNonNull(messagePattern);
+
+        return TEMPLATES.containsKey(messagePattern);
+    }
+
+    /**
+     * 编译格式消息
+     *
+     * <p>
+     * 优先从{@link #TEMPLATES}获取已编译的模板并标记为已访问，未命中时编译并缓存，缓存已满时按时钟算法淘汰未被再次访问的模板，
+     * 动态拼接的格式消息只会相互淘汰，反复使用的格式消息始终能留在缓存中
+     * </p>
+     *
+     * @param messagePattern 格式消息
+     * @return 模板
+     * @since 2.6
+     */
+    private Template compile(String messagePattern) {
+        Template template = TEMPLATES.get(messagePattern);
+        if (Objects.nonNull(template)) {
+            if (!template.referenced) {
+                template.referenced = true;
             }
-            return false;
+            return template;
         }
+        template = new Template(messagePattern);
+        // 缓存竞争时只编译不缓存，不阻塞格式化
+        if (CLOCK_LOCK.tryLock()) {
+            try {
+                caching(messagePattern, template);
+            } finally {
+                CLOCK_LOCK.unlock();
+            }
+        }
+        return template;
+    }
 
-        int start = 0, end, aryArrayCount = argArray.length;
-        while ((end = messagePattern.indexOf(SEPARATOR, start)) > -1) {
-            if (end > 0 && Objects.equals(messagePattern.charAt(end - 1), ESCAPE)) {
-                start = end + 2;
-                continue;
+    /**
+     * 缓存模板
+     *
+     * <p>
+     * 时钟指针跳过并清除已访问模板的访问标记，淘汰遇到的第一个未访问模板
+     * </p>
+     *
+     * @param messagePattern 格式消息
+     * @param template       模板
+     * @since 2.6
+     */
+    private void caching(String messagePattern, Template template) {
+        if (TEMPLATES.containsKey(messagePattern)) {
+            return;
+        }
+        while (true) {
+            String slot = CLOCK[clockHand];
+            if (Objects.isNull(slot)) {
+                break;
+            }
+            Template cached = TEMPLATES.get(slot);
+            if (!cached.referenced) {
+                TEMPLATES.remove(slot);
+                break;
             }
+            cached.referenced = false;
+            clockHand = (clockHand + 1) % MAX_TEMPLATES;
+        }
+        CLOCK[clockHand] = messagePattern;
+        clockHand = (clockHand + 1) % MAX_TEMPLATES;
+        TEMPLATES.put(messagePattern, template);
+    }
+
+    /**
+     * 模板
+     *
+     * <p>
+     * 格式消息按未转义的分隔符切分为字面量片段，转义的分隔符连同转义符保留在字面量中，{@code n}个分隔符对应{@code n + 1}个片段
+     * </p>
+     *
+     * @since 2.6
+     */
+    private static class Template {
+
+        /**
+         * 字面量片段
+         */
+        private final String[] SEGMENTS;
+
+        /**
+         * 字面量总长度
+         */
+        private final int LITERAL_LENGTH;
 
-            aryArrayCount--;
-            if (aryArrayCount < 0) {
-                /*
-                  还需填充占位，但参数列表已经填充完了
-                 */
-                return false;
+        /**
+         * 缓存后是否被再次访问
+         */
+        private volatile boolean referenced;
+
+        /**
+         * 编译格式消息
+         *
+         * @param messagePattern 格式消息
+         */
+        private Template(String messagePattern) {
+            List<String> segments = new ArrayList<>();
+            int start = 0, from = 0, end;
+            while ((end = messagePattern.indexOf(SEPARATOR, from)) > -1) {
+                from = end + SEPARATOR.length();
+                if (end > 0 && messagePattern.charAt(end - 1) == ESCAPE) {
+                    continue;
+                }
+                segments.add(messagePattern.substring(start, end));
+                start = from;
             }
-            start = end + 2;
+            segments.add(messagePattern.substring(start));
+
+            this.SEGMENTS = segments.toArray(new String[0]);
+            this.LITERAL_LENGTH = messagePattern.length() - (SEGMENTS.length - 1) * SEPARATOR.length();
         }
 
-        return aryArrayCount == 0 ? false : true;
+        /**
+         * 格式化
+         *
+         * <p>先取参数的字符串形式，再用精确容量的构建器一次拼接</p>
+         *
+         * @param messagePattern 格式消息
+         * @param argArray       参数列表
+         * @return 格式化消息
+         */
+        private String format(String messagePattern, Object[] argArray) {
+            int placeholderCount = SEGMENTS.length - 1;
+            int argCount = Math.min(placeholderCount, argArray.length);
+            if (argCount == 0) {
+                return messagePattern;
+            }
+
+            String[] argStrs = new String[argCount];
+            int capacity = LITERAL_LENGTH + (placeholderCount - argCount) * SEPARATOR.length();
+            for (int i = 0; i < argCount; i++) {
+                argStrs[i] = String.valueOf(argArray[i]);
+                capacity += argStrs[i].length();
+            }
+
+            StringBuilder sb = new StringBuilder(capacity).append(SEGMENTS[0]);
+            for (int i = 1; i < SEGMENTS.length; i++) {
+                sb.append(i <= argCount ? argStrs[i - 1] : SEPARATOR).append(SEGMENTS[i]);
+            }
+            return sb.toString();
+        }
     }
 }
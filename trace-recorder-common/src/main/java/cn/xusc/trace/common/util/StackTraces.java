@@ -36,6 +36,61 @@ import lombok.experimental.UtilityClass;
 @UtilityClass
 public class StackTraces {
 
+    /**
+     * 堆栈游走器
+     *
+     * @since 2.6
+     */
+    private final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    /**
+     * 获取当前调用者的可选堆栈元素
+     *
+     * <p>
+     * 通过{@link StackWalker}惰性游走堆栈，只游走到第一个不在忽略堆栈类名集中的栈帧为止，不会填充完整的异常堆栈
+     * </p>
+     *
+     * @param ignoreStackClassNames 忽略堆栈类名集
+     * @return 当前调用者的可选堆栈元素
+     * @throws NullPointerException  if {@code ignoreStackClassNames} is null.
+     * @since 2.6
+     */
+    public Optional<StackTraceElement> callerStackTraceElement(String... ignoreStackClassNames) {
+        Objects.requireNonNull(ignoreStackClassNames);
+
+        return STACK_WALKER.walk(stackFrames ->
+            stackFrames
+                .filter(stackFrame -> !isIgnoreStackClassName(stackFrame.getClassName(), ignoreStackClassNames))
+                .findFirst()
+                .map(StackWalker.StackFrame::toStackTraceElement)
+        );
+    }
+
+    /**
+     * 获取当前调用者起始的堆栈元素
+     *
+     * <p>
+     * 通过{@link StackWalker}惰性游走堆栈，跳过栈顶连续的忽略堆栈类名栈帧，从首个调用者栈帧开始最多保留{@code depth}个
+     * </p>
+     *
+     * @param depth 最大深度
+     * @param ignoreStackClassNames 忽略堆栈类名集
+     * @return 当前调用者起始的堆栈元素
+     * @throws NullPointerException  if {@code ignoreStackClassNames} is null.
+     * @since 2.6
+     */
+    public StackTraceElement[] callerStackTraceElements(int depth, String... ignoreStackClassNames) {
+        Objects.requireNonNull(ignoreStackClassNames);
+
+        return STACK_WALKER.walk(stackFrames ->
+            stackFrames
+                .dropWhile(stackFrame -> isIgnoreStackClassName(stackFrame.getClassName(), ignoreStackClassNames))
+                .limit(Math.max(depth, 0))
+                .map(StackWalker.StackFrame::toStackTraceElement)
+                .toArray(StackTraceElement[]::new)
+        );
+    }
+
     /**
      * 获取当前忽略堆栈类名的可选堆栈元素
      *
@@ -176,4 +231,28 @@ public class StackTraces {
         System.arraycopy(stackTraceElements, srcPosition, currentStackTraceElements, 0, newLength);
         return Optional.of(currentStackTraceElements);
     }
+
+    /**
+     * 是否为忽略的堆栈类名
+     *
+     * <p>
+     * 当前工具类自身的栈帧总是被忽略
+     * </p>
+     *
+     * @param className 类名
+     * @param ignoreStackClassNames 忽略堆栈类名集
+     * @return 忽略详情
+     * @since 2.6
+     */
+    private boolean isIgnoreStackClassName(String className, String[] ignoreStackClassNames) {
+        if (Objects.equals(className, StackTraces.class.getName())) {
+            return true;
+        }
+        for (String ignoreStackClassName : ignoreStackClassNames) {
+            if (Objects.equals(className, ignoreStackClassName)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -96,6 +97,38 @@ public final class Disruptors {
         return doGenerate(bufferSize, threadFactory, isMultipleProducer, waitStrategy);
     }
 
+    /**
+     * 生成指定事件工厂的Disruptor
+     *
+     * <p>
+     * 事件由{@code eventFactory}预分配到环缓冲区中，生产者可原地填充事件，避免每次提供都产生新的对象
+     * </p>
+     *
+     * @param eventFactory       事件工厂
+     * @param bufferSize         缓冲大小
+     * @param threadFactory      线程工厂
+     * @param isMultipleProducer 是否多个生产者
+     * @param waitStrategy       等待策略
+     * @param <E>                事件类型
+     * @return {@link Disruptor}
+     * @throws TraceException       if {@code bufferSize} is less 1
+     * @throws NullPointerException if {@code eventFactory} is null
+     * @throws NullPointerException if {@code threadFactory} is null
+     * @throws NullPointerException if {@code waitStrategy} is null
+     * @since 2.6
+     */
+    public static <E> Disruptor<E> generate(
+        EventFactory<E> eventFactory,
+        int bufferSize,
+        ThreadFactory threadFactory,
+        boolean isMultipleProducer,
+        WaitStrategy waitStrategy
+    ) {
+        Objects.requireNonNull(eventFactory);
+
+        return doGenerate(eventFactory, bufferSize, threadFactory, isMultipleProducer, waitStrategy);
+    }
+
     /**
      * 真正生成Disruptor
      *
@@ -113,6 +146,31 @@ public final class Disruptors {
         ThreadFactory threadFactory,
         boolean isMultipleProducer,
         WaitStrategy waitStrategy
+    ) {
+        return doGenerate(new GeneralEventFactory(), bufferSize, threadFactory, isMultipleProducer, waitStrategy);
+    }
+
+    /**
+     * 真正生成指定事件工厂的Disruptor
+     *
+     * @param eventFactory       事件工厂
+     * @param bufferSize         缓冲大小
+     * @param threadFactory      线程工厂
+     * @param isMultipleProducer 是否多个生产者
+     * @param waitStrategy       等待策略
+     * @param <E>                事件类型
+     * @return {@link Disruptor}
+     * @throws TraceException       if {@code bufferSize} is less 1
+     * @throws NullPointerException if {@code threadFactory} is null
+     * @throws NullPointerException if {@code waitStrategy} is null
+     * @since 2.6
+     */
+    private static <E> Disruptor<E> doGenerate(
+        EventFactory<E> eventFactory,
+        int bufferSize,
+        ThreadFactory threadFactory,
+        boolean isMultipleProducer,
+        WaitStrategy waitStrategy
     ) {
         if (bufferSize < 1) {
             throw new TraceException("bufferSize < 1");
@@ -120,8 +178,8 @@ public final class Disruptors {
         Objects.requireNonNull(threadFactory);
         Objects.requireNonNull(waitStrategy);
 
-        return new Disruptor(
-            new GeneralEventFactory(),
+        return new Disruptor<>(
+            eventFactory,
             bufferSize,
             threadFactory,
             isMultipleProducer ? ProducerType.MULTI : ProducerType.SINGLE,
@@ -129,6 +187,65 @@ public final class Disruptors {
         );
     }
 
+    /**
+     * 等待已发布的事件全部消费后停止Disruptor
+     *
+     * <p>
+     * {@link Disruptor#shutdown()}只等待已运行的消费者，消费者线程尚未启动时会直接停止并丢弃已发布的事件，
+     * 这里改为等待环缓冲区全部门控序号追上游标
+     * </p>
+     *
+     * @param disruptor 需要停止的Disruptor
+     * @throws NullPointerException if {@code disruptor} is null
+     * @since 2.6
+     */
+    public static void shutdown(Disruptor<?> disruptor) {
+        Objects.requireNonNull(disruptor);
+
+        awaitConsumed(disruptor.getRingBuffer(), -1);
+        disruptor.halt();
+    }
+
+    /**
+     * 在超时时间内等待已发布的事件全部消费后停止Disruptor
+     *
+     * @param disruptor 需要停止的Disruptor
+     * @param timeout   超时时间
+     * @param timeUnit  超时时间单位
+     * @throws TimeoutException     if not all published events consumed in time
+     * @throws NullPointerException if {@code disruptor} is null
+     * @throws NullPointerException if {@code timeUnit} is null
+     * @see #shutdown(Disruptor)
+     * @since 2.6
+     */
+    public static void shutdown(Disruptor<?> disruptor, long timeout, TimeUnit timeUnit) throws TimeoutException {
+        Objects.requireNonNull(disruptor);
+        Objects.requireNonNull(timeUnit);
+
+        if (!awaitConsumed(disruptor.getRingBuffer(), Math.max(timeUnit.toNanos(timeout), 0))) {
+            throw TimeoutException.INSTANCE;
+        }
+        disruptor.halt();
+    }
+
+    /**
+     * 等待环缓冲区全部门控序号追上游标
+     *
+     * @param ringBuffer   环缓冲区
+     * @param timeoutNanos 超时纳秒数，小于0时一直等待
+     * @return 是否在超时时间内全部消费
+     */
+    private static boolean awaitConsumed(RingBuffer<?> ringBuffer, long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (ringBuffer.getMinimumGatingSequence() < ringBuffer.getCursor()) {
+            if (timeoutNanos >= 0 && System.nanoTime() - deadline > 0) {
+                return false;
+            }
+            Thread.yield();
+        }
+        return true;
+    }
+
     /**
      * 生成一个通用生产者
      *
@@ -189,6 +306,22 @@ public final class Disruptors {
             return this;
         }
 
+        /**
+         * 尝试提供一个提供者
+         *
+         * <p>环缓冲区已满时不阻塞，直接返回false</p>
+         *
+         * @param supplier 提供者
+         * @return 是否提供成功
+         * @throws NullPointerException if {@code supplier} is null
+         * @since 2.6
+         */
+        public boolean tryProvide(Supplier<T> supplier) {
+            Objects.requireNonNull(supplier);
+
+            return RING_BUFFER.tryPublishEvent((event, sequence, supplier1) -> event.set(supplier1.get()), supplier);
+        }
+
         /**
          * 提供{@code count}数量的相同提供者
          *
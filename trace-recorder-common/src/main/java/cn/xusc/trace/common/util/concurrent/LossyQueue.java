@@ -0,0 +1,276 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.common.util.concurrent;
+
+import cn.xusc.trace.common.exception.TraceException;
+import cn.xusc.trace.common.util.Formats;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 有损队列
+ *
+ * <p>
+ * 有界无锁的多生产者队列，生产者从不阻塞：队列已满时按策略丢弃当前元素或最旧的元素，并累计丢弃数。
+ * 适合可视化等允许丢失数据、但不能反压生产线程的场景
+ * </p>
+ *
+ * <p>
+ * 每个槽位带有序号，生产者和消费者通过CAS推进各自的位置，槽位序号标识槽位是否可写或可读；
+ * {@link #take()}只支持单个消费线程，空闲时挂起，由生产者唤醒
+ * </p>
+ *
+ * @param <E> 元素类型
+ * @author WangCai
+ * @since 2.6
+ */
+public final class LossyQueue<E> {
+
+    /**
+     * 槽位掩码
+     */
+    private final int MASK;
+
+    /**
+     * 元素槽位
+     */
+    private final AtomicReferenceArray<E> ELEMENTS;
+
+    /**
+     * 槽位序号
+     */
+    private final AtomicLongArray SEQUENCES;
+
+    /**
+     * 生产位置
+     */
+    private final AtomicLong TAIL = new AtomicLong();
+
+    /**
+     * 消费位置
+     */
+    private final AtomicLong HEAD = new AtomicLong();
+
+    /**
+     * 已满时是否丢弃最旧的元素
+     */
+    private final boolean DROP_OLDEST;
+
+    /**
+     * 丢弃数
+     */
+    private final LongAdder DROPPED = new LongAdder();
+
+    /**
+     * 挂起等待的消费线程
+     */
+    private final AtomicReference<Thread> WAITER = new AtomicReference<>();
+
+    /**
+     * 基础构造
+     *
+     * @param capacity 容量，向上取整为2的幂
+     * @param dropOldest 已满时是否丢弃最旧的元素，否则丢弃当前元素
+     * @throws TraceException if {@code capacity} is less 1 or greater 2^30
+     */
+    public LossyQueue(int capacity, boolean dropOldest) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new TraceException(Formats.format("capacity [ {} ] must to between 1 and 2^30", capacity));
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.MASK = size - 1;
+        this.ELEMENTS = new AtomicReferenceArray<>(size);
+        this.SEQUENCES = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            SEQUENCES.set(i, i);
+        }
+        this.DROP_OLDEST = dropOldest;
+    }
+
+    /**
+     * 放入元素
+     *
+     * <p>从不阻塞，已满时按策略丢弃</p>
+     *
+     * @param element 元素
+     * @return 当前元素是否已放入
+     * @throws NullPointerException if {@code element} is null
+     */
+    public boolean offer(E element) {
+        Objects.requireNonNull(element);
+
+        while (!tryOffer(element)) {
+            if (!DROP_OLDEST) {
+                DROPPED.increment();
+                return false;
+            }
+            /*
+              腾出最旧的槽位，被消费线程抢先取走时直接重试
+             */
+            if (Objects.nonNull(poll())) {
+                DROPPED.increment();
+            }
+        }
+        signal();
+        return true;
+    }
+
+    /**
+     * 取出元素
+     *
+     * @return 元素，队列为空时为null
+     */
+    public E poll() {
+        long head = HEAD.get();
+        for (;;) {
+            int index = (int) head & MASK;
+            long diff = SEQUENCES.get(index) - (head + 1);
+            if (diff == 0) {
+                if (HEAD.compareAndSet(head, head + 1)) {
+                    E element = ELEMENTS.get(index);
+                    ELEMENTS.set(index, null);
+                    SEQUENCES.set(index, head + MASK + 1);
+                    return element;
+                }
+                head = HEAD.get();
+            } else if (diff < 0) {
+                return null;
+            } else {
+                head = HEAD.get();
+            }
+        }
+    }
+
+    /**
+     * 取出元素，队列为空时挂起等待
+     *
+     * @return 元素
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public E take() throws InterruptedException {
+        Thread current = Thread.currentThread();
+        for (;;) {
+            E element = poll();
+            if (Objects.nonNull(element)) {
+                return element;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            /*
+              登记后再检查一次，避免生产者在登记前放入的元素错过唤醒
+             */
+            WAITER.set(current);
+            element = poll();
+            if (Objects.nonNull(element)) {
+                WAITER.compareAndSet(current, null);
+                return element;
+            }
+            LockSupport.park(this);
+            WAITER.compareAndSet(current, null);
+        }
+    }
+
+    /**
+     * 获取近似元素数
+     *
+     * @return 近似元素数
+     */
+    public int size() {
+        long size = TAIL.get() - HEAD.get();
+        return (int) Math.max(0, Math.min(size, MASK + 1));
+    }
+
+    /**
+     * 获取容量
+     *
+     * @return 容量
+     */
+    public int capacity() {
+        return MASK + 1;
+    }
+
+    /**
+     * 获取丢弃数
+     *
+     * @return 丢弃数
+     */
+    public long droppedCount() {
+        return DROPPED.sum();
+    }
+
+    /**
+     * 尝试放入元素
+     *
+     * @param element 元素
+     * @return 是否放入，队列已满时为false
+     */
+    private boolean tryOffer(E element) {
+        long tail = TAIL.get();
+        for (;;) {
+            int index = (int) tail & MASK;
+            long diff = SEQUENCES.get(index) - tail;
+            if (diff == 0) {
+                if (TAIL.compareAndSet(tail, tail + 1)) {
+                    ELEMENTS.set(index, element);
+                    SEQUENCES.set(index, tail + 1);
+                    return true;
+                }
+                tail = TAIL.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                tail = TAIL.get();
+            }
+        }
+    }
+
+    /**
+     * 唤醒挂起等待的消费线程
+     */
+    private void signal() {
+        Thread waiter = WAITER.get();
+        if (Objects.nonNull(waiter) && WAITER.compareAndSet(waiter, null)) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    /**
+     * 有损队列详情
+     *
+     * @return 详情
+     */
+    @Override
+    public String toString() {
+        return (
+            "LossyQueue{" +
+            "capacity=" +
+            capacity() +
+            ", size=" +
+            size() +
+            ", dropOldest=" +
+            DROP_OLDEST +
+            ", dropped=" +
+            droppedCount() +
+            '}'
+        );
+    }
+}
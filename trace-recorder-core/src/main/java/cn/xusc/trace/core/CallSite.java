@@ -0,0 +1,221 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.core;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 调用点
+ *
+ * <p>
+ * 同一调用点的调用者堆栈元素首次出现时生成并驻留，之后的记录直接引用同一实例。
+ * 调用点预先计算短类名和布局前缀，避免每条记录重复截取类名和拼接前缀；
+ * 驻留的调用点拥有从0开始的连续编号，可用作二进制输出的字典编码
+ * </p>
+ *
+ * @author WangCai
+ * @since 2.6
+ */
+public final class CallSite {
+
+    /**
+     * 最大驻留的调用点数，超出后新的调用点不再驻留
+     */
+    private static final int MAX_CALL_SITES = 1 << 14;
+
+    /**
+     * 驻留的调用点
+     */
+    private static final Map<StackTraceElement, CallSite> CALL_SITES = new ConcurrentHashMap<>();
+
+    /**
+     * 调用点编号生成器
+     */
+    private static final AtomicInteger ID_GENERATOR = new AtomicInteger();
+
+    /**
+     * 编号，未驻留时为-1
+     */
+    private final int ID;
+
+    /**
+     * 类名
+     */
+    private final String CLASS_NAME;
+
+    /**
+     * 短类名
+     */
+    private final String SHORT_CLASS_NAME;
+
+    /**
+     * 方法名
+     */
+    private final String METHOD_NAME;
+
+    /**
+     * 行号
+     */
+    private final int LINE_NUMBER;
+
+    /**
+     * 布局前缀
+     */
+    private final String PREFIX;
+
+    /**
+     * 短类名布局前缀
+     */
+    private final String SHORT_PREFIX;
+
+    /**
+     * 基础构造
+     *
+     * @param id 编号
+     * @param element 调用者堆栈元素
+     */
+    private CallSite(int id, StackTraceElement element) {
+        this.ID = id;
+        this.CLASS_NAME = element.getClassName();
+        int pointIndex = CLASS_NAME.lastIndexOf('.');
+        this.SHORT_CLASS_NAME = pointIndex > -1 ? CLASS_NAME.substring(pointIndex + 1) : CLASS_NAME;
+        this.METHOD_NAME = element.getMethodName();
+        this.LINE_NUMBER = element.getLineNumber();
+        this.PREFIX = prefix(CLASS_NAME);
+        this.SHORT_PREFIX = pointIndex > -1 ? prefix(SHORT_CLASS_NAME) : PREFIX;
+    }
+
+    /**
+     * 获取调用者堆栈元素对应的调用点
+     *
+     * @param element 调用者堆栈元素
+     * @return 调用点
+     * @throws NullPointerException if {@code element} is null.
+     */
+    public static CallSite of(StackTraceElement element) {
+        Objects.requireNonNull(element);
+
+        CallSite callSite = CALL_SITES.get(element);
+        if (Objects.nonNull(callSite)) {
+            return callSite;
+        }
+        if (CALL_SITES.size() >= MAX_CALL_SITES) {
+            return new CallSite(-1, element);
+        }
+        return CALL_SITES.computeIfAbsent(element, key -> new CallSite(ID_GENERATOR.getAndIncrement(), key));
+    }
+
+    /**
+     * 获取编号
+     *
+     * @return 编号，未驻留时为-1
+     */
+    public int getId() {
+        return ID;
+    }
+
+    /**
+     * 获取类名
+     *
+     * @return 类名
+     */
+    public String getClassName() {
+        return CLASS_NAME;
+    }
+
+    /**
+     * 获取短类名
+     *
+     * @return 短类名
+     */
+    public String getShortClassName() {
+        return SHORT_CLASS_NAME;
+    }
+
+    /**
+     * 获取方法名
+     *
+     * @return 方法名
+     */
+    public String getMethodName() {
+        return METHOD_NAME;
+    }
+
+    /**
+     * 获取行号
+     *
+     * @return 行号
+     */
+    public int getLineNumber() {
+        return LINE_NUMBER;
+    }
+
+    /**
+     * 获取布局前缀
+     *
+     * <p>形如{@code className.methodName()[lineNumber] - }</p>
+     *
+     * @return 布局前缀
+     */
+    public String getPrefix() {
+        return PREFIX;
+    }
+
+    /**
+     * 获取短类名布局前缀
+     *
+     * @return 短类名布局前缀
+     */
+    public String getShortPrefix() {
+        return SHORT_PREFIX;
+    }
+
+    /**
+     * 生成布局前缀
+     *
+     * @param className 类名
+     * @return 布局前缀
+     */
+    private String prefix(String className) {
+        return className + '.' + METHOD_NAME + "()[" + LINE_NUMBER + "] - ";
+    }
+
+    /**
+     * 调用点详情
+     *
+     * @return 详情
+     */
+    @Override
+    public String toString() {
+        return (
+            "CallSite{" +
+            "ID=" +
+            ID +
+            ", CLASS_NAME='" +
+            CLASS_NAME +
+            '\'' +
+            ", METHOD_NAME='" +
+            METHOD_NAME +
+            '\'' +
+            ", LINE_NUMBER=" +
+            LINE_NUMBER +
+            '}'
+        );
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.core;
+
+import cn.xusc.trace.common.exception.TraceException;
+import cn.xusc.trace.common.util.Formats;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 增强属性
+ *
+ * <p>
+ * 增强信息上的类型化属性键，按名称注册一次并分配固定的槽位，
+ * 增强信息以槽位下标直接存取属性值，不需要对名称做哈希，也不需要转换类型
+ * </p>
+ *
+ * <p>
+ * 属性键应作为常量持有，例如:
+ * {@code static final EnhanceAttribute<String> TRACE_ID = EnhanceAttribute.of("traceId", String.class);}
+ * </p>
+ *
+ * @param <T> 属性值类型
+ * @author WangCai
+ * @since 2.6
+ */
+public final class EnhanceAttribute<T> {
+
+    /**
+     * 已注册的属性
+     */
+    private static final Map<String, EnhanceAttribute<?>> ATTRIBUTES = new ConcurrentHashMap<>();
+
+    /**
+     * 槽位生成器
+     */
+    private static final AtomicInteger INDEX_GENERATOR = new AtomicInteger();
+
+    /**
+     * 属性名
+     */
+    private final String NAME;
+
+    /**
+     * 属性值类型
+     */
+    private final Class<T> TYPE;
+
+    /**
+     * 槽位
+     */
+    private final int INDEX;
+
+    /**
+     * 基础构造
+     *
+     * @param name 属性名
+     * @param type 属性值类型
+     * @param index 槽位
+     */
+    private EnhanceAttribute(String name, Class<T> type, int index) {
+        this.NAME = name;
+        this.TYPE = type;
+        this.INDEX = index;
+    }
+
+    /**
+     * 获取属性
+     *
+     * <p>未注册时注册并分配槽位，已注册时返回同一实例</p>
+     *
+     * @param name 属性名
+     * @param type 属性值类型
+     * @param <T> 属性值类型
+     * @return 属性
+     * @throws NullPointerException if {@code name} or {@code type} is null.
+     * @throws TraceException if {@code type} is primitive or {@code name} already registered with other type.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> EnhanceAttribute<T> of(String name, Class<T> type) {
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(type);
+        if (type.isPrimitive()) {
+            throw new TraceException(Formats.format("attribute [ {} ] type must to not primitive", name));
+        }
+
+        EnhanceAttribute<?> attribute = ATTRIBUTES.computeIfAbsent(
+            name,
+            key -> new EnhanceAttribute<>(key, type, INDEX_GENERATOR.getAndIncrement())
+        );
+        if (attribute.TYPE != type) {
+            throw new TraceException(
+                Formats.format("attribute [ {} ] already registered with type [ {} ]", name, attribute.TYPE.getName())
+            );
+        }
+        return (EnhanceAttribute<T>) attribute;
+    }
+
+    /**
+     * 查找已注册的属性
+     *
+     * @param name 属性名
+     * @return 属性，未注册时为null
+     * @throws NullPointerException if {@code name} is null.
+     */
+    public static EnhanceAttribute<?> find(String name) {
+        Objects.requireNonNull(name);
+
+        return ATTRIBUTES.get(name);
+    }
+
+    /**
+     * 获取已注册的属性数
+     *
+     * @return 属性数
+     */
+    static int size() {
+        return INDEX_GENERATOR.get();
+    }
+
+    /**
+     * 获取属性名
+     *
+     * @return 属性名
+     */
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * 获取属性值类型
+     *
+     * @return 属性值类型
+     */
+    public Class<T> getType() {
+        return TYPE;
+    }
+
+    /**
+     * 获取槽位
+     *
+     * @return 槽位
+     */
+    public int getIndex() {
+        return INDEX;
+    }
+
+    /**
+     * 转换属性值
+     *
+     * @param value 属性值
+     * @return 属性值
+     * @throws ClassCastException if {@code value} is not of the attribute type.
+     */
+    T cast(Object value) {
+        return TYPE.cast(value);
+    }
+
+    /**
+     * 增强属性详情
+     *
+     * @return 详情
+     */
+    @Override
+    public String toString() {
+        return "EnhanceAttribute{" + "NAME='" + NAME + '\'' + ", TYPE=" + TYPE.getName() + ", INDEX=" + INDEX + '}';
+    }
+}
@@ -15,15 +15,32 @@
  */
 package cn.xusc.trace.core;
 
-import cn.xusc.trace.common.util.Maps;
+import cn.xusc.trace.common.util.Formats;
+import cn.xusc.trace.common.util.Symbols;
+import cn.xusc.trace.core.constant.Temporary;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.Objects;
 
 /**
  * 增强信息
  *
+ * <p>
+ * 信息可以以消息模板和参数列表的形式延迟格式化，首次{@link #getInfo()}时才格式化并缓存结果，
+ * 被过滤、被增强器丢弃或只交给模板信息记录器的信息不会产生格式化开销
+ * </p>
+ *
+ * <p>
+ * 内置增强器通过布局方法（{@link #layoutLineSeparator()}、{@link #layoutCaller()}、{@link #layoutThreadName(String)}）
+ * 只登记要输出的字段，首次{@link #getWriteInfo()}时用线程共享的构建器一次拼接出写出信息
+ * </p>
+ *
+ * <p>
+ * 启用标志和调用者为基本字段，扩展值以{@link EnhanceAttribute}的固定槽位存放，消费线程通过{@link #reset(String, Object...)}复用实例
+ * </p>
+ *
  * @author WangCai
  * @since 1.0
  */
@@ -31,6 +48,20 @@ public class EnhanceInfo implements Serializable, Cloneable {
 
     private static final long serialVersionUID = -2646424027034058288L;
 
+    /**
+     * 布局构建器最大保留容量
+     *
+     * @since 2.6
+     */
+    private static final int MAX_LAYOUT_BUILDER_CAPACITY = 1 << 13;
+
+    /**
+     * 线程共享的布局构建器
+     *
+     * @since 2.6
+     */
+    private static final ThreadLocal<StringBuilder> LAYOUT_BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
     /**
      * 记录的类名
      */
@@ -47,14 +78,100 @@ public class EnhanceInfo implements Serializable, Cloneable {
      * 记录的信息
      */
     private String info;
+    /**
+     * 消息模板
+     *
+     * @since 2.6
+     */
+    private String template;
+    /**
+     * 参数列表
+     *
+     * @since 2.6
+     */
+    private transient Object[] argArray;
+    /**
+     * 是否已格式化
+     *
+     * @since 2.6
+     */
+    private boolean formatted;
     /**
      * 最终记录的信息
      */
     private String writeInfo;
     /**
-     * 临时存储的值
+     * 布局是否追加行分隔符
+     *
+     * @since 2.6
+     */
+    private boolean layoutLineSeparator;
+    /**
+     * 布局是否包含调用者
+     *
+     * @since 2.6
+     */
+    private boolean layoutCaller;
+    /**
+     * 布局的线程名
+     *
+     * @since 2.6
+     */
+    private String layoutThreadName;
+    /**
+     * 是否有待拼接的布局
+     *
+     * @since 2.6
+     */
+    private boolean layoutPending;
+
+    /**
+     * 调用点
+     *
+     * @since 2.6
+     */
+    private transient CallSite callSite;
+
+    /**
+     * 堆栈快照
+     *
+     * @since 2.6
+     */
+    private transient StackSnapshot stackSnapshot;
+    /**
+     * 是否启用堆栈
+     *
+     * @since 2.6
+     */
+    private boolean enableStack;
+
+    /**
+     * 是否启用短类名
+     *
+     * @since 2.6
+     */
+    private boolean enableShortClassName;
+
+    /**
+     * 是否启用线程名
+     *
+     * @since 2.6
+     */
+    private boolean enableThreadName;
+
+    /**
+     * 调用者堆栈元素
+     *
+     * @since 2.6
      */
-    private final Map<String, Object> temporaryValue = new HashMap<>();
+    private StackTraceElement caller;
+
+    /**
+     * 增强属性值，按{@link EnhanceAttribute}的槽位存放，首次设置时分配
+     *
+     * @since 2.6
+     */
+    private transient Object[] attributes;
 
     /**
      * 包含消息的构造
@@ -63,6 +180,25 @@ public class EnhanceInfo implements Serializable, Cloneable {
      */
     public EnhanceInfo(String info) {
         this.info = info;
+        this.template = info;
+        this.formatted = true;
+    }
+
+    /**
+     * 包含消息模板和参数列表的构造
+     *
+     * <p>参数列表为空时等同于{@link #EnhanceInfo(String)}，否则延迟到首次获取信息时格式化</p>
+     *
+     * @param template 消息模板
+     * @param argArray 参数列表
+     * @since 2.6
+     */
+    public EnhanceInfo(String template, Object... argArray) {
+        this(template);
+        if (Objects.nonNull(argArray) && argArray.length > 0) {
+            this.argArray = argArray;
+            this.formatted = false;
+        }
     }
 
     /**
@@ -119,40 +255,340 @@ public class EnhanceInfo implements Serializable, Cloneable {
         this.lineNumber = lineNumber;
     }
 
+    /**
+     * 获取调用点
+     *
+     * @return 调用点，未设置时为null
+     * @since 2.6
+     */
+    public CallSite getCallSite() {
+        return callSite;
+    }
+
+    /**
+     * 获取堆栈快照
+     *
+     * @return 堆栈快照，流水线中没有需要堆栈快照的增强器时为null
+     * @since 2.6
+     */
+    public StackSnapshot getStackSnapshot() {
+        return stackSnapshot;
+    }
+
+    /**
+     * 设置堆栈快照
+     *
+     * @param stackSnapshot 堆栈快照
+     * @since 2.6
+     */
+    public void setStackSnapshot(StackSnapshot stackSnapshot) {
+        this.stackSnapshot = stackSnapshot;
+    }
+
+    /**
+     * 设置调用点
+     *
+     * <p>同时以调用点的类名、方法名和行号填充记录的调用者信息</p>
+     *
+     * @param callSite 调用点
+     * @throws NullPointerException if {@code callSite} is null.
+     * @since 2.6
+     */
+    public void setCallSite(CallSite callSite) {
+        Objects.requireNonNull(callSite);
+
+        this.callSite = callSite;
+        this.className = callSite.getClassName();
+        this.methodName = callSite.getMethodName();
+        this.lineNumber = callSite.getLineNumber();
+    }
+
     /**
      * 获取信息
      *
+     * <p>延迟格式化的信息在此格式化，结果缓存在增强信息上</p>
+     *
      * @return 信息
      */
     public String getInfo() {
+        if (!formatted) {
+            info = Formats.format(template, argArray);
+            formatted = true;
+        }
         return info;
     }
 
     /**
      * 设置消息
      *
+     * <p>设置后不再延迟格式化</p>
+     *
      * @param info 消息
      */
     public void setInfo(String info) {
         this.info = info;
+        this.formatted = true;
+    }
+
+    /**
+     * 获取消息模板
+     *
+     * @return 消息模板
+     * @since 2.6
+     */
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * 获取参数列表
+     *
+     * @return 参数列表，没有参数时为null
+     * @since 2.6
+     */
+    public Object[] getArgArray() {
+        return argArray;
+    }
+
+    /**
+     * 是否已格式化
+     *
+     * @return 是否已格式化
+     * @since 2.6
+     */
+    public boolean isFormatted() {
+        return formatted;
     }
 
     /**
      * 获取写消息
      *
+     * <p>有待拼接的布局时在此拼接并缓存</p>
+     *
      * @return 写消息
      */
     public String getWriteInfo() {
+        if (layoutPending) {
+            writeInfo = layout();
+            layoutPending = false;
+        }
         return writeInfo;
     }
 
     /**
      * 设置写消息
      *
+     * <p>直接设置的写消息覆盖已登记的布局</p>
+     *
      * @param writeInfo 写消息
      */
     public void setWriteInfo(String writeInfo) {
         this.writeInfo = writeInfo;
+        this.layoutLineSeparator = false;
+        this.layoutCaller = false;
+        this.layoutThreadName = null;
+        this.layoutPending = false;
+    }
+
+    /**
+     * 布局追加行分隔符
+     *
+     * @since 2.6
+     */
+    public void layoutLineSeparator() {
+        this.layoutLineSeparator = true;
+        this.layoutPending = true;
+    }
+
+    /**
+     * 布局包含调用者，格式为{@code className.methodName()[lineNumber] - }
+     *
+     * @since 2.6
+     */
+    public void layoutCaller() {
+        this.layoutCaller = true;
+        this.layoutPending = true;
+    }
+
+    /**
+     * 布局包含线程名，线程名之后总是跟随调用者
+     *
+     * @param threadName 线程名
+     * @since 2.6
+     */
+    public void layoutThreadName(String threadName) {
+        this.layoutThreadName = threadName;
+        this.layoutPending = true;
+    }
+
+    /**
+     * 拼接布局
+     *
+     * @return 写消息
+     * @since 2.6
+     */
+    private String layout() {
+        StringBuilder sb = LAYOUT_BUILDER.get();
+        sb.setLength(0);
+        if (Objects.nonNull(layoutThreadName)) {
+            sb.append(layoutThreadName).append(' ');
+        }
+        if (Objects.nonNull(layoutThreadName) || layoutCaller) {
+            String callerPrefix = callerPrefix();
+            if (Objects.nonNull(callerPrefix)) {
+                sb.append(callerPrefix);
+            } else {
+                sb.append(className).append('.').append(methodName).append("()[").append(lineNumber).append("] - ");
+            }
+        }
+        sb.append(getInfo());
+        if (layoutLineSeparator) {
+            sb.append(Symbols.lineSeparator());
+        }
+        String layoutInfo = sb.toString();
+        if (sb.capacity() > MAX_LAYOUT_BUILDER_CAPACITY) {
+            LAYOUT_BUILDER.remove();
+        }
+        return layoutInfo;
+    }
+
+    /**
+     * 获取调用者布局前缀
+     *
+     * <p>调用者信息仍为调用点的原值时直接使用调用点预先生成的前缀</p>
+     *
+     * @return 调用者布局前缀，调用者信息已被修改或未设置调用点时为null
+     * @since 2.6
+     */
+    private String callerPrefix() {
+        if (
+            Objects.isNull(callSite) ||
+            methodName != callSite.getMethodName() ||
+            lineNumber != callSite.getLineNumber()
+        ) {
+            return null;
+        }
+        if (className == callSite.getShortClassName()) {
+            return callSite.getShortPrefix();
+        }
+        return className == callSite.getClassName() ? callSite.getPrefix() : null;
+    }
+
+    /**
+     * 是否启用堆栈
+     *
+     * @return 是否启用堆栈
+     * @since 2.6
+     */
+    public boolean isEnableStack() {
+        return enableStack;
+    }
+
+    /**
+     * 设置是否启用堆栈
+     *
+     * @param enableStack 是否启用堆栈
+     * @since 2.6
+     */
+    public void setEnableStack(boolean enableStack) {
+        this.enableStack = enableStack;
+    }
+
+    /**
+     * 是否启用短类名
+     *
+     * @return 是否启用短类名
+     * @since 2.6
+     */
+    public boolean isEnableShortClassName() {
+        return enableShortClassName;
+    }
+
+    /**
+     * 设置是否启用短类名
+     *
+     * @param enableShortClassName 是否启用短类名
+     * @since 2.6
+     */
+    public void setEnableShortClassName(boolean enableShortClassName) {
+        this.enableShortClassName = enableShortClassName;
+    }
+
+    /**
+     * 是否启用线程名
+     *
+     * @return 是否启用线程名
+     * @since 2.6
+     */
+    public boolean isEnableThreadName() {
+        return enableThreadName;
+    }
+
+    /**
+     * 设置是否启用线程名
+     *
+     * @param enableThreadName 是否启用线程名
+     * @since 2.6
+     */
+    public void setEnableThreadName(boolean enableThreadName) {
+        this.enableThreadName = enableThreadName;
+    }
+
+    /**
+     * 获取调用者堆栈元素
+     *
+     * @return 调用者堆栈元素，未启用堆栈时为null
+     * @since 2.6
+     */
+    public StackTraceElement getCaller() {
+        return caller;
+    }
+
+    /**
+     * 设置调用者堆栈元素
+     *
+     * @param caller 调用者堆栈元素
+     * @since 2.6
+     */
+    public void setCaller(StackTraceElement caller) {
+        this.caller = caller;
+    }
+
+    /**
+     * 获取增强属性值
+     *
+     * @param attribute 增强属性
+     * @param <T> 属性值类型
+     * @return 属性值，未设置时为null
+     * @throws NullPointerException if {@code attribute} is null.
+     * @since 2.6
+     */
+    public <T> T getAttribute(EnhanceAttribute<T> attribute) {
+        int index = attribute.getIndex();
+        Object[] values = attributes;
+        return Objects.isNull(values) || index >= values.length ? null : attribute.cast(values[index]);
+    }
+
+    /**
+     * 设置增强属性值
+     *
+     * @param attribute 增强属性
+     * @param value 属性值
+     * @param <T> 属性值类型
+     * @throws NullPointerException if {@code attribute} is null.
+     * @since 2.6
+     */
+    public <T> void setAttribute(EnhanceAttribute<T> attribute, T value) {
+        int index = attribute.getIndex();
+        Object[] values = attributes;
+        if (Objects.isNull(values) || index >= values.length) {
+            if (Objects.isNull(value)) {
+                return;
+            }
+            int size = Math.max(index + 1, EnhanceAttribute.size());
+            attributes = values = Objects.isNull(values) ? new Object[size] : Arrays.copyOf(values, size);
+        }
+        values[index] = value;
     }
 
     /**
@@ -160,9 +596,24 @@ public class EnhanceInfo implements Serializable, Cloneable {
      *
      * @param key 键
      * @return 临时值
+     * @deprecated 2.6起核心标志为基本类型字段，其余值为类型化的增强属性，
+     * 请使用{@link #isEnableStack()}等方法或{@link #getAttribute(EnhanceAttribute)}
      */
+    @Deprecated
     public Object getTemporaryValue(String key) {
-        return temporaryValue.get(key);
+        switch (key) {
+            case Temporary.ENABLE_STACK:
+                return enableStack;
+            case Temporary.ENABLE_SHORT_CLASS_NAME:
+                return enableShortClassName;
+            case Temporary.ENABLE_THREAD_NAME:
+                return enableThreadName;
+            case Temporary.CALLER_STACK_TRACE_ELEMENT:
+                return caller;
+            default:
+                EnhanceAttribute<?> attribute = EnhanceAttribute.find(key);
+                return Objects.isNull(attribute) ? null : getAttribute(attribute);
+        }
     }
 
     /**
@@ -171,17 +622,90 @@ public class EnhanceInfo implements Serializable, Cloneable {
      * @param key   键
      * @param value 临时值
      * @throws NullPointerException if {@code key} is null
+     * @deprecated 2.6起核心标志为基本类型字段，其余值为类型化的增强属性，
+     * 请使用{@link #setEnableStack(boolean)}等方法或{@link #setAttribute(EnhanceAttribute, Object)}
      */
+    @Deprecated
     public void setTemporaryValue(String key, Object value) {
         Objects.requireNonNull(key);
-        this.temporaryValue.put(key, value);
+        switch (key) {
+            case Temporary.ENABLE_STACK:
+                this.enableStack = Boolean.TRUE.equals(value);
+                break;
+            case Temporary.ENABLE_SHORT_CLASS_NAME:
+                this.enableShortClassName = Boolean.TRUE.equals(value);
+                break;
+            case Temporary.ENABLE_THREAD_NAME:
+                this.enableThreadName = Boolean.TRUE.equals(value);
+                break;
+            case Temporary.CALLER_STACK_TRACE_ELEMENT:
+                this.caller = (StackTraceElement) value;
+                break;
+            default:
+                EnhanceAttribute<?> attribute = EnhanceAttribute.find(key);
+                if (Objects.isNull(attribute)) {
+                    attribute = EnhanceAttribute.of(key, Object.class);
+                }
+                setUncheckedAttribute(attribute, value);
+        }
+    }
+
+    /**
+     * 设置未知类型的增强属性值
+     *
+     * @param attribute 增强属性
+     * @param value 属性值
+     * @param <T> 属性值类型
+     * @throws ClassCastException if {@code value} is not of the attribute type.
+     */
+    private <T> void setUncheckedAttribute(EnhanceAttribute<T> attribute, Object value) {
+        setAttribute(attribute, attribute.cast(value));
+    }
+
+    /**
+     * 重置增强信息
+     *
+     * <p>
+     * 恢复到以消息模板和参数列表新构造时的状态，供消费线程复用同一实例，
+     * 复用的增强信息不应在增强之外被持有，需要保留时使用{@link #clone()}
+     * </p>
+     *
+     * @param template 消息模板
+     * @param argArray 参数列表
+     * @return 当前增强信息
+     * @since 2.6
+     */
+    public EnhanceInfo reset(String template, Object... argArray) {
+        this.className = null;
+        this.methodName = null;
+        this.lineNumber = 0;
+        this.info = template;
+        this.template = template;
+        boolean hasArgs = Objects.nonNull(argArray) && argArray.length > 0;
+        this.argArray = hasArgs ? argArray : null;
+        this.formatted = !hasArgs;
+        this.writeInfo = null;
+        this.layoutLineSeparator = false;
+        this.layoutCaller = false;
+        this.layoutThreadName = null;
+        this.layoutPending = false;
+        this.callSite = null;
+        this.stackSnapshot = null;
+        this.enableStack = false;
+        this.enableShortClassName = false;
+        this.enableThreadName = false;
+        this.caller = null;
+        if (Objects.nonNull(attributes)) {
+            Arrays.fill(attributes, null);
+        }
+        return this;
     }
 
     /**
      * 克隆增强信息
      *
      * <p>
-     * 保留一个增强信息主要的内容，因为其余数据是内部使用
+     * 保留一个增强信息主要的内容，因为其余数据是内部使用；不可变的调用点与堆栈快照直接共享
      * </p>
      *
      * @return 克隆后的增强信息
@@ -189,16 +713,31 @@ public class EnhanceInfo implements Serializable, Cloneable {
      */
     @Override
     public EnhanceInfo clone() {
-        EnhanceInfo enhanceInfo = new EnhanceInfo(info);
-        Maps.walkEnd(
-            temporaryValue,
-            (k, v) -> {
-                enhanceInfo.setTemporaryValue(k, v);
-            }
-        );
+        EnhanceInfo enhanceInfo = formatted ? new EnhanceInfo(info) : new EnhanceInfo(template, argArray);
+        enhanceInfo.enableStack = enableStack;
+        enhanceInfo.enableShortClassName = enableShortClassName;
+        enhanceInfo.enableThreadName = enableThreadName;
+        enhanceInfo.caller = caller;
+        enhanceInfo.callSite = callSite;
+        enhanceInfo.stackSnapshot = stackSnapshot;
+        if (Objects.nonNull(attributes)) {
+            enhanceInfo.attributes = attributes.clone();
+        }
         return enhanceInfo;
     }
 
+    /**
+     * 序列化前格式化信息，参数列表不参与序列化
+     *
+     * @param out 对象输出流
+     * @throws IOException if an I/O error occurs
+     * @since 2.6
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getInfo();
+        out.defaultWriteObject();
+    }
+
     /**
      * 增强信息详情
      *
@@ -217,13 +756,19 @@ public class EnhanceInfo implements Serializable, Cloneable {
             ", lineNumber=" +
             lineNumber +
             ", info='" +
-            info +
+            getInfo() +
             '\'' +
             ", writeInfo='" +
-            writeInfo +
+            getWriteInfo() +
             '\'' +
-            ", temporaryValue=" +
-            temporaryValue +
+            ", enableStack=" +
+            enableStack +
+            ", enableShortClassName=" +
+            enableShortClassName +
+            ", enableThreadName=" +
+            enableThreadName +
+            ", caller=" +
+            caller +
             '}'
         );
     }
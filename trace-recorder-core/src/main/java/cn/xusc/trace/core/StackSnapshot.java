@@ -0,0 +1,112 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.core;
+
+import cn.xusc.trace.common.util.StackTraces;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 堆栈快照
+ *
+ * <p>
+ * 由处理器在记录线程上按已注册组件所需的深度一次捕获，挂在{@link EnhanceInfo}上供增强器、图表和仪表盘组件共享，
+ * 不可变，需要修改帧数组的组件通过{@link #toArray()}获取副本
+ * </p>
+ *
+ * @author WangCai
+ * @since 2.6
+ */
+public final class StackSnapshot {
+
+    /**
+     * 堆栈帧，首个为调用者
+     */
+    private final StackTraceElement[] FRAMES;
+
+    /**
+     * 基础构造
+     *
+     * @param frames 堆栈帧
+     */
+    private StackSnapshot(StackTraceElement[] frames) {
+        this.FRAMES = frames;
+    }
+
+    /**
+     * 捕获当前线程的堆栈快照
+     *
+     * <p>跳过栈顶连续的忽略类帧，从首个调用者帧开始最多保留{@code depth}帧，忽略的类名集需包含当前类</p>
+     *
+     * @param depth 最大深度
+     * @param ignoreStackClassNames 忽略的类名集
+     * @return 堆栈快照
+     * @throws NullPointerException if {@code ignoreStackClassNames} is null.
+     */
+    public static StackSnapshot capture(int depth, String... ignoreStackClassNames) {
+        Objects.requireNonNull(ignoreStackClassNames);
+
+        return new StackSnapshot(StackTraces.callerStackTraceElements(depth, ignoreStackClassNames));
+    }
+
+    /**
+     * 获取调用者堆栈元素
+     *
+     * @return 调用者堆栈元素，快照为空时为null
+     */
+    public StackTraceElement caller() {
+        return FRAMES.length > 0 ? FRAMES[0] : null;
+    }
+
+    /**
+     * 获取指定位置的堆栈元素
+     *
+     * @param index 位置
+     * @return 堆栈元素
+     * @throws ArrayIndexOutOfBoundsException if {@code index} is out of range.
+     */
+    public StackTraceElement get(int index) {
+        return FRAMES[index];
+    }
+
+    /**
+     * 获取快照深度
+     *
+     * @return 快照深度
+     */
+    public int size() {
+        return FRAMES.length;
+    }
+
+    /**
+     * 获取堆栈帧副本
+     *
+     * @return 堆栈帧副本
+     */
+    public StackTraceElement[] toArray() {
+        return FRAMES.clone();
+    }
+
+    /**
+     * 堆栈快照详情
+     *
+     * @return 详情
+     */
+    @Override
+    public String toString() {
+        return "StackSnapshot{" + "FRAMES=" + Arrays.toString(FRAMES) + '}';
+    }
+}
@@ -28,8 +28,10 @@ import cn.xusc.trace.core.constant.Temporary;
 import cn.xusc.trace.core.enhance.*;
 import cn.xusc.trace.core.filter.InfoFilter;
 import cn.xusc.trace.core.handle.AsyncTraceHandler;
+import cn.xusc.trace.core.handle.StripedAsyncTraceHandler;
 import cn.xusc.trace.core.handle.SyncTraceHandler;
 import cn.xusc.trace.core.handle.TraceHandler;
+import cn.xusc.trace.core.handle.TracePipeline;
 import cn.xusc.trace.core.record.InfoRecorder;
 import cn.xusc.trace.core.util.TraceRecorderProperties;
 import cn.xusc.trace.core.util.TraceRecorders;
@@ -38,7 +40,9 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -61,17 +65,16 @@ import lombok.extern.slf4j.Slf4j;
 public class TraceRecorder {
 
     /**
-     * 信息过滤器链
-     */
-    private final List<InfoFilter> INFO_FILTERS = new FastList<>(InfoFilter.class);
-    /**
-     * 信息增强器链
-     */
-    private final List<InfoEnhancer> INFO_ENHANCERS = new FastList<>(InfoEnhancer.class, 8);
-    /**
-     * 信息记录器链
+     * 跟踪管道
+     *
+     * <p>
+     * 信息过滤器链、信息增强器链、信息记录器链的写时复制注册表。
+     * 添加、移除组件时基于当前管道编译新的管道并通过CAS原子替换，读取方无需同步即可得到稳定的组件快照
+     * </p>
+     *
+     * @since 2.6
      */
-    private final List<InfoRecorder> INFO_RECORDERS = new FastList<>(InfoRecorder.class);
+    private final AtomicReference<TracePipeline> PIPELINE = new AtomicReference<>(TracePipeline.EMPTY);
 
     /**
      * 跟踪记录仪名称
@@ -101,13 +104,6 @@ public class TraceRecorder {
      */
     private String baseLabel;
 
-    /**
-     * 脏的信息增强器链标识
-     *
-     * @since 2.4
-     */
-    private boolean dirtyInfoEnhancers;
-
     /**
      * 跟踪处理器
      *
@@ -304,14 +300,17 @@ public class TraceRecorder {
           异步
          */
         if (config.isEnableAsync()) {
-            TRACE_HANDLER = new AsyncTraceHandler(this, config.getTaskHandlerSize());
+            TRACE_HANDLER =
+                config.getStripeSize() > 1
+                    ? new StripedAsyncTraceHandler(this, config)
+                    : new AsyncTraceHandler(this, config);
             initBaseEnvironment();
             initAdditionPropertiesEnvironment(Optional.ofNullable(config.getAdditionProperties()));
             quickSpiComponentsRegister();
             registerConfigComponents(config);
             return;
         }
-        TRACE_HANDLER = new SyncTraceHandler(this);
+        TRACE_HANDLER = new SyncTraceHandler(this, config);
         initBaseEnvironment();
         initAdditionPropertiesEnvironment(Optional.ofNullable(config.getAdditionProperties()));
         quickSpiComponentsRegister();
@@ -345,27 +344,32 @@ public class TraceRecorder {
         );
 
         /* inner(内部) */
-        INFO_FILTERS.add(infoFilterLoader.find(Temporary.SPI_COMPONENT_PREFIX.concat("recordLabelInfoFilter")).get());
-        INFO_ENHANCERS.add(infoEnhancerLoader.find(Temporary.SPI_COMPONENT_PREFIX.concat("lineInfoEnhancer")).get());
-        INFO_ENHANCERS.add(infoEnhancerLoader.find(Temporary.SPI_COMPONENT_PREFIX.concat("stackInfoEnhancer")).get());
-        INFO_ENHANCERS.add(
-            infoEnhancerLoader.find(Temporary.SPI_COMPONENT_PREFIX.concat("shortClassNameInfoEnhancer")).get()
+        List<InfoFilter> infoFilters = List.of(
+            infoFilterLoader.find(Temporary.SPI_COMPONENT_PREFIX.concat("recordLabelInfoFilter")).get()
         );
-        INFO_ENHANCERS.add(infoEnhancerLoader.find(Temporary.SPI_COMPONENT_PREFIX.concat("threadInfoEnhancer")).get());
-        INFO_RECORDERS.add(infoRecorderLoader.find(Temporary.SPI_COMPONENT_PREFIX.concat("consoleInfoRecorder")).get());
+        List<InfoEnhancer> infoEnhancers = List.of(
+            infoEnhancerLoader.find(Temporary.SPI_COMPONENT_PREFIX.concat("lineInfoEnhancer")).get(),
+            infoEnhancerLoader.find(Temporary.SPI_COMPONENT_PREFIX.concat("stackInfoEnhancer")).get(),
+            infoEnhancerLoader.find(Temporary.SPI_COMPONENT_PREFIX.concat("shortClassNameInfoEnhancer")).get(),
+            infoEnhancerLoader.find(Temporary.SPI_COMPONENT_PREFIX.concat("threadInfoEnhancer")).get()
+        );
+        List<InfoRecorder> infoRecorders = List.of(
+            infoRecorderLoader.find(Temporary.SPI_COMPONENT_PREFIX.concat("consoleInfoRecorder")).get()
+        );
+        PIPELINE.set(TracePipeline.compile(infoFilters, infoEnhancers, infoRecorders));
         if (log.isInfoEnabled()) {
             log.info("inner spi components register:");
-            for (InfoFilter infoFilter : INFO_FILTERS) {
+            for (InfoFilter infoFilter : infoFilters) {
                 log.info("     register InfoFilter   component: {}", new Class<>(infoFilter).name());
             }
-            for (InfoEnhancer infoEnhancer : INFO_ENHANCERS) {
+            for (InfoEnhancer infoEnhancer : infoEnhancers) {
                 log.info("     register InfoEnhancer component: {}", new Class<>(infoEnhancer).name());
             }
-            for (InfoRecorder infoRecorder : INFO_RECORDERS) {
+            for (InfoRecorder infoRecorder : infoRecorders) {
                 log.info("     register InfoRecorder component: {}", new Class<>(infoRecorder).name());
             }
         }
-        List<?> innerComponents = Lists.merge(INFO_FILTERS, INFO_ENHANCERS, INFO_RECORDERS);
+        List<?> innerComponents = Lists.merge(infoFilters, infoEnhancers, infoRecorders);
 
         /* external(外部) */
         log.info("external spi components register:");
@@ -425,7 +429,7 @@ public class TraceRecorder {
             "enableAsync",
             () -> {
                 verifyClosed();
-                return TRACE_HANDLER instanceof AsyncTraceHandler;
+                return !(TRACE_HANDLER instanceof SyncTraceHandler);
             },
             "infoFilters",
             () -> Lists.classNames(getInfoFilters()),
@@ -522,14 +526,14 @@ public class TraceRecorder {
     public boolean addInfoFilter(InfoFilter filter) {
         verifyClosed();
         memoryPoint();
-        return INFO_FILTERS.add(filter);
+        return updatePipeline(pipeline -> pipeline.withInfoFilters(adding(pipeline.getInfoFilters(), filter)));
     }
 
     /**
      * 添加信息增强器
      *
      * <p>
-     * 通过脏的信息增强器链标识确保用户永远增强的是原信息
+     * 添加的信息增强器按{@link TraceOrder}排序后排在内设信息增强器之前，确保用户永远增强的是原信息
      * </p>
      *
      * @param enhancer 信息增强器
@@ -538,27 +542,25 @@ public class TraceRecorder {
     public boolean addInfoEnhancer(InfoEnhancer enhancer) {
         verifyClosed();
         memoryPoint();
-        /*
-          信息增强器变脏分两个阶段：
-          - 第一阶段（首次变脏）：
-               - 直接清空整个增强器链
-          - 第二阶段（交替性变脏）
-               - 清空尾部内设数量的增强器
-         */
-        if (!dirtyInfoEnhancers) {
-            List<?> list = (List<?>) memo.read(baseLabel);
-            list = Lists.statistic(list, component -> component instanceof InfoEnhancer);
-            int size = list.size();
-            if (size == INFO_ENHANCERS.size()) {
-                INFO_ENHANCERS.clear();
-            } else {
-                for (int i = 0; i < size; i++) {
-                    ((FastList) INFO_ENHANCERS).removeLast();
+        List<?> baseInfoEnhancers = Lists.statistic(
+            (List<Object>) memo.read(baseLabel),
+            component -> component instanceof InfoEnhancer
+        );
+        return updatePipeline(pipeline -> {
+            List<InfoEnhancer> addedInfoEnhancers = new ArrayList<>();
+            List<InfoEnhancer> innerInfoEnhancers = new ArrayList<>();
+            for (InfoEnhancer infoEnhancer : pipeline.getInfoEnhancers()) {
+                if (baseInfoEnhancers.contains(infoEnhancer)) {
+                    innerInfoEnhancers.add(infoEnhancer);
+                } else {
+                    addedInfoEnhancers.add(infoEnhancer);
                 }
             }
-            dirtyInfoEnhancers = true;
-        }
-        return INFO_ENHANCERS.add(enhancer);
+            addedInfoEnhancers.add(enhancer);
+            List<InfoEnhancer> infoEnhancers = orderInfoEnhancers(addedInfoEnhancers);
+            infoEnhancers.addAll(innerInfoEnhancers);
+            return pipeline.withInfoEnhancers(infoEnhancers);
+        });
     }
 
     /**
@@ -570,7 +572,7 @@ public class TraceRecorder {
     public boolean addInfoRecorder(InfoRecorder recorder) {
         verifyClosed();
         memoryPoint();
-        return INFO_RECORDERS.add(recorder);
+        return updatePipeline(pipeline -> pipeline.withInfoRecorders(adding(pipeline.getInfoRecorders(), recorder)));
     }
 
     /**
@@ -582,7 +584,11 @@ public class TraceRecorder {
      */
     public boolean removeInfoFilter(InfoFilter filter) {
         verifyClosed();
-        return INFO_FILTERS.remove(filter);
+        return updatePipeline(pipeline ->
+            pipeline.getInfoFilters().contains(filter)
+                ? pipeline.withInfoFilters(removing(pipeline.getInfoFilters(), filter))
+                : pipeline
+        );
     }
 
     /**
@@ -594,7 +600,11 @@ public class TraceRecorder {
      */
     public boolean removeInfoEnhancer(InfoEnhancer enhancer) {
         verifyClosed();
-        return INFO_ENHANCERS.remove(enhancer);
+        return updatePipeline(pipeline ->
+            pipeline.getInfoEnhancers().contains(enhancer)
+                ? pipeline.withInfoEnhancers(removing(pipeline.getInfoEnhancers(), enhancer))
+                : pipeline
+        );
     }
 
     /**
@@ -606,98 +616,71 @@ public class TraceRecorder {
      */
     public boolean removeInfoRecorder(InfoRecorder recorder) {
         verifyClosed();
-        return INFO_RECORDERS.remove(recorder);
+        return updatePipeline(pipeline ->
+            pipeline.getInfoRecorders().contains(recorder)
+                ? pipeline.withInfoRecorders(removing(pipeline.getInfoRecorders(), recorder))
+                : pipeline
+        );
     }
 
     /**
      * 获取信息过滤器集
      *
+     * <p>2.6起返回不可修改的快照，不受之后添加、移除的影响</p>
+     *
      * @return 信息过滤器集
      * @since 2.0
      */
     public List<InfoFilter> getInfoFilters() {
         verifyClosed();
-        return INFO_FILTERS;
+        return PIPELINE.get().getInfoFilters();
     }
 
     /**
      * 获取信息增强器集
      *
+     * <p>2.6起返回不可修改的快照，不受之后添加、移除的影响</p>
+     *
      * @return 信息增强器集
      * @since 2.0
      */
     public List<InfoEnhancer> getInfoEnhancers() {
         verifyClosed();
-        if (dirtyInfoEnhancers) {
-            if (INFO_ENHANCERS.size() > 1) {
-                /*
-                  脏序排列
-                */
-                Map<Integer, List<InfoEnhancer>> needOrderInfoEnhancers = new TreeMap();
-                List<InfoEnhancer> noOrderInfoEnhancers = new ArrayList<>();
-                Optional<Annotation<java.lang.Class<? extends java.lang.annotation.Annotation>>> traceOrderAnnotationOptional;
-                for (InfoEnhancer infoEnhancer : INFO_ENHANCERS) {
-                    if (
-                        (
-                            traceOrderAnnotationOptional =
-                                new Class<>(infoEnhancer).findAvailableAnnotation(TraceOrder.class)
-                        ).isEmpty()
-                    ) {
-                        noOrderInfoEnhancers.add(infoEnhancer);
-                        continue;
-                    }
-                    int value = (int) traceOrderAnnotationOptional.get().value();
-                    needOrderInfoEnhancers.compute(
-                        value,
-                        (key, oldValue) -> {
-                            if (Objects.isNull(oldValue)) {
-                                return new ArrayList<>(List.of(infoEnhancer));
-                            }
-                            return (List<InfoEnhancer>) Lists.merge(oldValue, List.of(infoEnhancer));
-                        }
-                    );
-                }
-                INFO_ENHANCERS.clear();
-                needOrderInfoEnhancers.values().forEach(infoEnhancers -> infoEnhancers.forEach(INFO_ENHANCERS::add));
-                noOrderInfoEnhancers.forEach(INFO_ENHANCERS::add);
-            }
-
-            /*
-              脏恢复
-             */
-            List<?> list = (List<?>) memo.read(baseLabel);
-            Lists
-                .statistic(list, component -> component instanceof InfoEnhancer)
-                .forEach(component -> INFO_ENHANCERS.add((InfoEnhancer) component));
-            dirtyInfoEnhancers = false;
-        }
-        return INFO_ENHANCERS;
+        return PIPELINE.get().getInfoEnhancers();
     }
 
     /**
      * 获取信息记录器集
      *
+     * <p>2.6起返回不可修改的快照，不受之后添加、移除的影响</p>
+     *
      * @return 信息记录器集
      * @since 2.0
      */
     public List<InfoRecorder> getInfoRecorders() {
         verifyClosed();
-        return INFO_RECORDERS;
+        return PIPELINE.get().getInfoRecorders();
     }
 
     /**
      * 记忆点
      *
+     * <p>只在首次添加组件时记录一次，记录后不再变化</p>
+     *
      * @since 2.2
      */
-    private void memoryPoint() {
+    private synchronized void memoryPoint() {
         if (Objects.nonNull(baseLabel)) {
             return;
         }
         if (Objects.isNull(memo)) {
             memo = new Memo();
         }
-        baseLabel = memo.storage(Lists.merge(getInfoFilters(), getInfoEnhancers(), getInfoRecorders()));
+        TracePipeline pipeline = PIPELINE.get();
+        baseLabel =
+            memo.storage(
+                Lists.merge(pipeline.getInfoFilters(), pipeline.getInfoEnhancers(), pipeline.getInfoRecorders())
+            );
     }
 
     /**
@@ -716,21 +699,124 @@ public class TraceRecorder {
             return true;
         }
         List<?> list = (List<?>) memo.read(baseLabel);
-        INFO_FILTERS.clear();
-        INFO_ENHANCERS.clear();
-        INFO_RECORDERS.clear();
+        List<InfoFilter> infoFilters = new ArrayList<>();
+        List<InfoEnhancer> infoEnhancers = new ArrayList<>();
+        List<InfoRecorder> infoRecorders = new ArrayList<>();
         for (Object component : list) {
             if (component instanceof InfoFilter) {
-                INFO_FILTERS.add((InfoFilter) component);
+                infoFilters.add((InfoFilter) component);
             } else if (component instanceof InfoEnhancer) {
-                INFO_ENHANCERS.add((InfoEnhancer) component);
+                infoEnhancers.add((InfoEnhancer) component);
             } else {
-                INFO_RECORDERS.add((InfoRecorder) component);
+                infoRecorders.add((InfoRecorder) component);
             }
         }
+        PIPELINE.set(TracePipeline.compile(infoFilters, infoEnhancers, infoRecorders));
+        return true;
+    }
+
+    /**
+     * 获取跟踪管道
+     *
+     * <p>
+     * 供处理器在每条记录上使用，只是一次volatile读取；不校验关闭状态，保证关闭时已提交的记录能够处理完
+     * </p>
+     *
+     * @return 跟踪管道
+     * @since 2.6
+     */
+    public TracePipeline getPipeline() {
+        return PIPELINE.get();
+    }
+
+    /**
+     * 更新跟踪管道
+     *
+     * <p>
+     * 基于当前管道生成新的管道并CAS替换，失败时基于最新的管道重试，保证并发添加、移除不会相互覆盖
+     * </p>
+     *
+     * @param updater 管道更新函数，返回当前管道表示没有变化
+     * @return 管道是否变化
+     * @since 2.6
+     */
+    private boolean updatePipeline(UnaryOperator<TracePipeline> updater) {
+        TracePipeline current;
+        TracePipeline next;
+        do {
+            current = PIPELINE.get();
+            next = updater.apply(current);
+            if (next == current) {
+                return false;
+            }
+        } while (!PIPELINE.compareAndSet(current, next));
         return true;
     }
 
+    /**
+     * 按{@link TraceOrder}排序信息增强器
+     *
+     * <p>有序的信息增强器按值升序排在前面，同值及无序的信息增强器保持添加顺序</p>
+     *
+     * @param infoEnhancers 信息增强器集
+     * @return 排序后的信息增强器集
+     * @since 2.6
+     */
+    private static List<InfoEnhancer> orderInfoEnhancers(List<InfoEnhancer> infoEnhancers) {
+        Map<Integer, List<InfoEnhancer>> needOrderInfoEnhancers = new TreeMap<>();
+        List<InfoEnhancer> noOrderInfoEnhancers = new ArrayList<>();
+        Optional<Annotation<java.lang.Class<? extends java.lang.annotation.Annotation>>> traceOrderAnnotationOptional;
+        for (InfoEnhancer infoEnhancer : infoEnhancers) {
+            if (
+                (
+                    traceOrderAnnotationOptional = new Class<>(infoEnhancer).findAvailableAnnotation(TraceOrder.class)
+                ).isEmpty()
+            ) {
+                noOrderInfoEnhancers.add(infoEnhancer);
+                continue;
+            }
+            int value = (int) traceOrderAnnotationOptional.get().value();
+            needOrderInfoEnhancers.computeIfAbsent(value, key -> new ArrayList<>()).add(infoEnhancer);
+        }
+        List<InfoEnhancer> orderedInfoEnhancers = new ArrayList<>(infoEnhancers.size());
+        for (List<InfoEnhancer> sameOrderInfoEnhancers : needOrderInfoEnhancers.values()) {
+            orderedInfoEnhancers.addAll(sameOrderInfoEnhancers);
+        }
+        orderedInfoEnhancers.addAll(noOrderInfoEnhancers);
+        return orderedInfoEnhancers;
+    }
+
+    /**
+     * 复制并添加组件
+     *
+     * @param components 组件快照
+     * @param component  添加的组件
+     * @param <T>        组件类型
+     * @return 新的组件集
+     * @since 2.6
+     */
+    private static <T> List<T> adding(List<T> components, T component) {
+        List<T> result = new ArrayList<>(components.size() + 1);
+        result.addAll(components);
+        result.add(component);
+        return result;
+    }
+
+    /**
+     * 复制并移除组件
+     *
+     * @param components 组件快照
+     * @param component  移除的组件
+     * @param <T>        组件类型
+     * @return 新的组件集
+     * @since 2.6
+     */
+    private static <T> List<T> removing(List<T> components, T component) {
+        List<T> result = new ArrayList<>(components);
+        result.remove(component);
+        return result;
+    }
+
     /**
      * 记录所有
      *
@@ -910,7 +996,11 @@ public class TraceRecorder {
      */
     public void log(String info) {
         verifyClosed();
-        log(info, Objects.requireNonNullElse(label, RecordLabel.NOW));
+        RecordLabel recordLabel = Objects.requireNonNullElse(label, RecordLabel.NOW);
+        if (hidden(recordLabel)) {
+            return;
+        }
+        log(info, recordLabel);
     }
 
     /**
@@ -926,11 +1016,14 @@ public class TraceRecorder {
      */
     public void log(String info, Object... argArray) {
         verifyClosed();
-        if (Objects.equals(RecordLabel.HIDE, deduceRecordLabel(info, argArray))) {
-            nolog(info, argArray);
+        /*
+          已指定记录标签时无需推断
+         */
+        RecordLabel recordLabel = Objects.isNull(label) ? deduceRecordLabel(info, argArray) : label;
+        if (hidden(recordLabel)) {
             return;
         }
-        log(info, Objects.requireNonNullElse(label, deduceRecordLabel(info, argArray)), argArray);
+        log(info, recordLabel, argArray);
     }
 
     /**
@@ -945,7 +1038,11 @@ public class TraceRecorder {
      */
     public void nolog(String info) {
         verifyClosed();
-        log(info, Objects.requireNonNullElse(label, RecordLabel.HIDE));
+        RecordLabel recordLabel = Objects.requireNonNullElse(label, RecordLabel.HIDE);
+        if (hidden(recordLabel)) {
+            return;
+        }
+        log(info, recordLabel);
     }
 
     /**
@@ -961,7 +1058,26 @@ public class TraceRecorder {
      */
     public void nolog(String info, Object... argArray) {
         verifyClosed();
-        log(info, Objects.requireNonNullElse(label, RecordLabel.HIDE), argArray);
+        RecordLabel recordLabel = Objects.requireNonNullElse(label, RecordLabel.HIDE);
+        if (hidden(recordLabel)) {
+            return;
+        }
+        log(info, recordLabel, argArray);
+    }
+
+    /**
+     * 是否为必然被过滤的隐藏记录
+     *
+     * <p>
+     * 在记录线程上提前判定，隐藏记录直接返回，不捕获堆栈、不进入处理器，异步模式下也不占用环缓冲区的任务槽
+     * </p>
+     *
+     * @param label 记录标签
+     * @return 是否隐藏
+     * @since 2.6
+     */
+    private boolean hidden(RecordLabel label) {
+        return label == RecordLabel.HIDE && PIPELINE.get().isHideDiscarded();
     }
 
     /**
@@ -982,6 +1098,11 @@ public class TraceRecorder {
     /**
      * 推断记录标签
      *
+     * <p>
+     * 先判断末尾参数是否为{@code false}，仅在满足时才检查参数是否多于占位符，参数列表不会逃逸出当前方法，
+     * 末尾参数只识别{@link Boolean}和{@link CharSequence}，不调用其他参数的{@code toString}
+     * </p>
+     *
      * @param info 格式信息
      * @param argArray 参数列表
      * @return 记录标签
@@ -992,25 +1113,43 @@ public class TraceRecorder {
             return RecordLabel.NOW;
         }
 
-        if (Formats.isMoreArgs(info, argArray)) {
-            String maybeBoolArgStr = Objects.toString(argArray[argArray.length - 1]);
-            if (Strings.equalsIgnoreCase("false", maybeBoolArgStr)) {
-                return RecordLabel.HIDE;
-            }
+        Object lastArg = argArray[argArray.length - 1];
+        boolean maybeFalse = lastArg instanceof Boolean
+            ? !(Boolean) lastArg
+            : lastArg instanceof CharSequence && Strings.equalsIgnoreCase("false", lastArg.toString());
+        if (maybeFalse && argArray.length > Formats.placeholderCount(info)) {
+            return RecordLabel.HIDE;
         }
 
         return RecordLabel.NOW;
     }
 
+    /**
+     * 获取处理器丢弃的记录数
+     *
+     * <p>仅异步处理器在环缓冲区溢出时按溢出策略丢弃记录，关闭后仍可获取</p>
+     *
+     * @return 丢弃的记录数
+     * @since 2.6
+     */
+    public long getDiscardedCount() {
+        return TRACE_HANDLER.getDiscardedCount();
+    }
+
     /**
      * 处理器关闭
      *
+     * <p>先等待处理器处理完已提交的任务再标记关闭，避免异步消费时组件访问被拒绝</p>
+     *
      * @since 2.1
      */
     public void shutdown() {
         verifyClosed();
-        closed = true;
-        TRACE_HANDLER.shutdown();
+        try {
+            TRACE_HANDLER.shutdown();
+        } finally {
+            closed = true;
+        }
     }
 
     /**
@@ -1023,8 +1162,11 @@ public class TraceRecorder {
      */
     public void shutdown(long timeout, TimeUnit timeUnit) throws TraceTimeoutException {
         verifyClosed();
-        closed = true;
-        TRACE_HANDLER.shutdown(timeout, timeUnit);
+        try {
+            TRACE_HANDLER.shutdown(timeout, timeUnit);
+        } finally {
+            closed = true;
+        }
     }
 
     /**
@@ -1049,11 +1191,11 @@ public class TraceRecorder {
         return (
             "TraceRecorder{" +
             "INFO_FILTERS=" +
-            Lists.classNames(INFO_FILTERS) +
+            Lists.classNames(PIPELINE.get().getInfoFilters()) +
             ", INFO_ENHANCERS=" +
-            Lists.classNames(INFO_ENHANCERS) +
+            Lists.classNames(PIPELINE.get().getInfoEnhancers()) +
             ", INFO_RECORDERS=" +
-            Lists.classNames(INFO_RECORDERS) +
+            Lists.classNames(PIPELINE.get().getInfoRecorders()) +
             ", TRACE_HANDLER=" +
             TRACE_HANDLER.getClass().getName() +
             ", LABEL=" +
@@ -15,13 +15,23 @@
  */
 package cn.xusc.trace.core;
 
+import cn.xusc.trace.common.exception.TraceException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
  * 跟踪记录仪环境
  *
+ * <p>
+ * 每个跟踪记录仪拥有独立的环境属性池，支持并发读写。
+ * 类型化的获取方法缓存最近一次的转换结果，值未变化时不再重复解析；
+ * 游走时使用属性池的不可变快照，快照仅在属性变化后的首次游走时重建
+ * </p>
+ *
  * @author WangCai
  * @since 2.5
  */
@@ -30,7 +40,27 @@ public final class TraceRecorderEnvironment {
     /**
      * 环境属性池
      */
-    private static final Map<String, Supplier<Object>> ENV = new HashMap<>();
+    private final Map<String, Supplier<Object>> ENV = new ConcurrentHashMap<>();
+
+    /**
+     * 类型化值缓存
+     */
+    private final Map<String, Converted> CONVERTED = new ConcurrentHashMap<>();
+
+    /**
+     * 作用域组合键缓存
+     */
+    private final Map<String, Map<String, String>> SCOPED_KEYS = new ConcurrentHashMap<>();
+
+    /**
+     * 属性池版本，每次设置属性时递增
+     */
+    private final AtomicLong VERSION = new AtomicLong();
+
+    /**
+     * 游走快照
+     */
+    private volatile Snapshot snapshot;
 
     /**
      * 基础构造
@@ -49,8 +79,7 @@ public final class TraceRecorderEnvironment {
         Objects.requireNonNull(key);
         Objects.requireNonNull(value);
 
-        ENV.put(key, () -> value);
-        return true;
+        return put(key, () -> value);
     }
 
     /**
@@ -66,6 +95,8 @@ public final class TraceRecorderEnvironment {
         Objects.requireNonNull(valueSupplier);
 
         ENV.put(key, valueSupplier);
+        CONVERTED.remove(key);
+        VERSION.incrementAndGet();
         return true;
     }
 
@@ -93,7 +124,7 @@ public final class TraceRecorderEnvironment {
     public boolean put(Map<String, Supplier<Object>> maps) {
         Objects.requireNonNull(maps);
 
-        ENV.putAll(maps);
+        maps.forEach(this::put);
         return true;
     }
 
@@ -107,11 +138,103 @@ public final class TraceRecorderEnvironment {
     public Optional<Object> get(String key) {
         Objects.requireNonNull(key);
 
-        Supplier<Object> supplier = ENV.get(key);
-        if (Objects.isNull(supplier)) {
-            return Optional.empty();
-        }
-        return Optional.ofNullable(supplier.get());
+        return Optional.ofNullable(raw(key));
+    }
+
+    /**
+     * 通过键获取字符串值
+     *
+     * @param key 键
+     * @param defaultValue 不存在时的默认值
+     * @return 字符串值
+     * @throws NullPointerException if {@code key} is null.
+     * @since 2.6
+     */
+    public String getString(String key, String defaultValue) {
+        Objects.requireNonNull(key);
+
+        Object value = raw(key);
+        return Objects.isNull(value) ? defaultValue : String.valueOf(value);
+    }
+
+    /**
+     * 通过作用域和名称获取字符串值
+     *
+     * <p>键为{@code scope.name}，组合键在首次获取后缓存，重复获取时不再拼接</p>
+     *
+     * @param scope 作用域，通常为配置类名
+     * @param name 名称
+     * @param defaultValue 不存在时的默认值
+     * @return 字符串值
+     * @throws NullPointerException if {@code scope} is null or {@code name} is null.
+     * @since 2.6
+     */
+    public String getString(String scope, String name, String defaultValue) {
+        return getString(key(scope, name), defaultValue);
+    }
+
+    /**
+     * 通过键获取整型值
+     *
+     * @param key 键
+     * @param defaultValue 不存在时的默认值
+     * @return 整型值
+     * @throws NullPointerException if {@code key} is null.
+     * @throws TraceException if the value is not an int.
+     * @since 2.6
+     */
+    public int getInt(String key, int defaultValue) {
+        Integer value = converted(key, Integer.class, Integer::valueOf);
+        return Objects.isNull(value) ? defaultValue : value;
+    }
+
+    /**
+     * 通过键获取长整型值
+     *
+     * @param key 键
+     * @param defaultValue 不存在时的默认值
+     * @return 长整型值
+     * @throws NullPointerException if {@code key} is null.
+     * @throws TraceException if the value is not a long.
+     * @since 2.6
+     */
+    public long getLong(String key, long defaultValue) {
+        Long value = converted(key, Long.class, Long::valueOf);
+        return Objects.isNull(value) ? defaultValue : value;
+    }
+
+    /**
+     * 通过键获取布尔值
+     *
+     * @param key 键
+     * @param defaultValue 不存在时的默认值
+     * @return 布尔值
+     * @throws NullPointerException if {@code key} is null.
+     * @since 2.6
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Boolean value = converted(key, Boolean.class, Boolean::valueOf);
+        return Objects.isNull(value) ? defaultValue : value;
+    }
+
+    /**
+     * 获取环境属性池的不可变快照
+     *
+     * <p>快照中的值在调用时求得</p>
+     *
+     * @return 环境属性快照
+     * @since 2.6
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Supplier<Object>> suppliers = suppliers();
+        Map<String, Object> values = new HashMap<>(suppliers.size() * 2);
+        suppliers.forEach((k, v) -> {
+            Object value = v.get();
+            if (Objects.nonNull(value)) {
+                values.put(k, value);
+            }
+        });
+        return Collections.unmodifiableMap(values);
     }
 
     /**
@@ -123,6 +246,144 @@ public final class TraceRecorderEnvironment {
     public void walk(BiConsumer<String, Object> walkElement) {
         Objects.requireNonNull(walkElement);
 
-        ENV.forEach((k, v) -> walkElement.accept(k, v.get()));
+        suppliers().forEach((k, v) -> walkElement.accept(k, v.get()));
+    }
+
+    /**
+     * 获取作用域和名称的组合键
+     *
+     * @param scope 作用域
+     * @param name 名称
+     * @return 组合键
+     * @throws NullPointerException if {@code scope} is null or {@code name} is null.
+     */
+    private String key(String scope, String name) {
+        Objects.requireNonNull(scope);
+        Objects.requireNonNull(name);
+
+        return SCOPED_KEYS
+            .computeIfAbsent(scope, k -> new ConcurrentHashMap<>())
+            .computeIfAbsent(name, k -> scope.concat(".").concat(name));
+    }
+
+    /**
+     * 获取原始值
+     *
+     * @param key 键
+     * @return 原始值，不存在时为null
+     */
+    private Object raw(String key) {
+        Supplier<Object> supplier = ENV.get(key);
+        return Objects.isNull(supplier) ? null : supplier.get();
+    }
+
+    /**
+     * 获取类型化值
+     *
+     * <p>原始值与缓存的原始值相同时直接返回缓存的转换结果</p>
+     *
+     * @param key 键
+     * @param type 值类型
+     * @param parser 字符串解析函数
+     * @param <T> 值类型
+     * @return 类型化值，不存在时为null
+     * @throws TraceException if the value can not be parsed.
+     */
+    private <T> T converted(String key, Class<T> type, Function<String, T> parser) {
+        Objects.requireNonNull(key);
+
+        Object value = raw(key);
+        if (Objects.isNull(value)) {
+            return null;
+        }
+        if (type.isInstance(value)) {
+            return type.cast(value);
+        }
+        Converted converted = CONVERTED.get(key);
+        if (Objects.nonNull(converted) && converted.RAW == value && type.isInstance(converted.VALUE)) {
+            return type.cast(converted.VALUE);
+        }
+        T result;
+        try {
+            result = parser.apply(String.valueOf(value).trim());
+        } catch (NumberFormatException e) {
+            throw new TraceException(
+                String.format("environment [ %s ] is not a %s: %s", key, type.getSimpleName(), value)
+            );
+        }
+        CONVERTED.put(key, new Converted(value, result));
+        return result;
+    }
+
+    /**
+     * 获取属性池的不可变快照
+     *
+     * @return 值提供者快照
+     */
+    private Map<String, Supplier<Object>> suppliers() {
+        /*
+          先读取版本再复制，复制期间的属性变化会使下一次获取重建快照
+         */
+        long version = VERSION.get();
+        Snapshot current = snapshot;
+        if (Objects.isNull(current) || current.VERSION != version) {
+            current = new Snapshot(version, Map.copyOf(ENV));
+            snapshot = current;
+        }
+        return current.SUPPLIERS;
+    }
+
+    /**
+     * 属性池快照
+     */
+    private static final class Snapshot {
+
+        /**
+         * 快照对应的属性池版本
+         */
+        private final long VERSION;
+
+        /**
+         * 值提供者快照
+         */
+        private final Map<String, Supplier<Object>> SUPPLIERS;
+
+        /**
+         * 基础构造
+         *
+         * @param version 属性池版本
+         * @param suppliers 值提供者快照
+         */
+        Snapshot(long version, Map<String, Supplier<Object>> suppliers) {
+            VERSION = version;
+            SUPPLIERS = suppliers;
+        }
+    }
+
+    /**
+     * 类型化值
+     */
+    private static final class Converted {
+
+        /**
+         * 原始值
+         */
+        private final Object RAW;
+
+        /**
+         * 转换值
+         */
+        private final Object VALUE;
+
+        /**
+         * 基础构造
+         *
+         * @param raw 原始值
+         * @param value 转换值
+         */
+        Converted(Object raw, Object value) {
+            RAW = raw;
+            VALUE = value;
+        }
     }
 }
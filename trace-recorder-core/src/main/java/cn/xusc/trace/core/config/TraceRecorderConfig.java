@@ -17,6 +17,8 @@ package cn.xusc.trace.core.config;
 
 import cn.xusc.trace.common.exception.TraceException;
 import cn.xusc.trace.common.util.Lists;
+import cn.xusc.trace.core.constant.AsyncOverflowPolicy;
+import cn.xusc.trace.core.constant.AsyncWaitStrategy;
 import cn.xusc.trace.core.enhance.InfoEnhancer;
 import cn.xusc.trace.core.filter.InfoFilter;
 import cn.xusc.trace.core.record.InfoRecorder;
@@ -106,6 +108,90 @@ public class TraceRecorderConfig {
      */
     private TraceRecorderProperties additionProperties;
 
+    /**
+     * 异步缓冲大小
+     *
+     * <p>必须是2的幂，为0时使用默认缓冲大小</p>
+     *
+     * @see cn.xusc.trace.core.handle.AsyncTraceHandler AsyncTraceHandler
+     * @since 2.6
+     */
+    private int bufferSize;
+
+    /**
+     * 异步等待策略
+     *
+     * <p>为null时使用{@link AsyncWaitStrategy#BLOCKING}</p>
+     *
+     * @see cn.xusc.trace.core.handle.AsyncTraceHandler AsyncTraceHandler
+     * @since 2.6
+     */
+    private AsyncWaitStrategy waitStrategy;
+
+    /**
+     * 启用单生产者
+     *
+     * <p>默认不启用，表示允许多个线程同时记录；只有确定仅有一个线程记录时才应该启用</p>
+     *
+     * <p>启用重复记录聚合时，过期检查线程也会向环缓冲区发布任务，该配置不生效</p>
+     *
+     * @see cn.xusc.trace.core.handle.AsyncTraceHandler AsyncTraceHandler
+     * @since 2.6
+     */
+    private boolean enableSingleProducer;
+
+    /**
+     * 异步溢出策略
+     *
+     * <p>为null时使用{@link AsyncOverflowPolicy#BLOCK}</p>
+     *
+     * @see cn.xusc.trace.core.handle.AsyncTraceHandler AsyncTraceHandler
+     * @since 2.6
+     */
+    private AsyncOverflowPolicy overflowPolicy;
+
+    /**
+     * 异步溢出采样率
+     *
+     * <p>取值范围[0, 1]，仅在{@link AsyncOverflowPolicy#SAMPLE}时生效，表示环缓冲区已满时保留记录的概率</p>
+     *
+     * @see cn.xusc.trace.core.handle.AsyncTraceHandler AsyncTraceHandler
+     * @since 2.6
+     */
+    private double sampleRate;
+
+    /**
+     * 异步环缓冲区分片数量
+     *
+     * <p>大于1时启用分片异步处理器，记录线程按线程标识选择环缓冲区，所有环缓冲区由唯一的提交者线程轮询处理；为0或1时使用单个环缓冲区</p>
+     *
+     * @see cn.xusc.trace.core.handle.StripedAsyncTraceHandler StripedAsyncTraceHandler
+     * @since 2.6
+     */
+    private int stripeSize;
+
+    /**
+     * 启用时间戳排序
+     *
+     * <p>仅在分片异步处理器下生效，所有分片的记录经合并阶段按记录时间戳全局有序地交给记录器</p>
+     *
+     * @see cn.xusc.trace.core.handle.StripedAsyncTraceHandler StripedAsyncTraceHandler
+     * @since 2.6
+     */
+    private boolean enableTimestampOrder;
+
+    /**
+     * 重复记录聚合窗口毫秒数
+     *
+     * <p>大于0时折叠同一线程、同一调用点连续相同的记录，每段重复以一条带重复次数和首末时间的汇总记录结束；为0时不聚合</p>
+     *
+     * <p>记录停止后由定时检查结束重复段，汇总记录最迟在超过聚合窗口后一个检查间隔（不超过100毫秒）内输出</p>
+     *
+     * @see cn.xusc.trace.core.handle.BaseTraceHandler BaseTraceHandler
+     * @since 2.6
+     */
+    private long repeatWindow;
+
     /**
      * 主构建器
      *
@@ -188,6 +274,89 @@ public class TraceRecorderConfig {
         this.additionProperties = additionProperties;
     }
 
+    /**
+     * 带异步参数的构建器
+     *
+     * @param infoFilters          信息过滤器集
+     * @param infoEnhancers        信息增强器集
+     * @param infoRecorders        信息记录器集
+     * @param enableStack          启用堆栈信息标识
+     * @param enableShortClassName 启用短类名标识
+     * @param enableThreadName     启用线程名
+     * @param enableRecordAll      启用记录所有
+     * @param enableAsync          启用异步记录
+     * @param taskHandlerSize      任务处理器数量
+     * @param additionProperties   附加属性
+     * @param bufferSize           异步缓冲大小
+     * @param waitStrategy         异步等待策略
+     * @param enableSingleProducer 启用单生产者
+     * @param overflowPolicy       异步溢出策略
+     * @param sampleRate           异步溢出采样率
+     * @param stripeSize           异步环缓冲区分片数量
+     * @param enableTimestampOrder 启用时间戳排序
+     * @param repeatWindow         重复记录聚合窗口毫秒数
+     * @throws TraceException if {@code taskHandlerSize} is less 1
+     * @throws TraceException if {@code bufferSize} is not a power of 2
+     * @throws TraceException if {@code sampleRate} is not in [0, 1]
+     * @throws TraceException if {@code stripeSize} is negative
+     * @throws TraceException if {@code repeatWindow} is negative
+     * @since 2.6
+     */
+    public TraceRecorderConfig(
+        List<InfoFilter> infoFilters,
+        List<InfoEnhancer> infoEnhancers,
+        List<InfoRecorder> infoRecorders,
+        boolean enableStack,
+        boolean enableShortClassName,
+        boolean enableThreadName,
+        boolean enableRecordAll,
+        boolean enableAsync,
+        int taskHandlerSize,
+        TraceRecorderProperties additionProperties,
+        int bufferSize,
+        AsyncWaitStrategy waitStrategy,
+        boolean enableSingleProducer,
+        AsyncOverflowPolicy overflowPolicy,
+        double sampleRate,
+        int stripeSize,
+        boolean enableTimestampOrder,
+        long repeatWindow
+    ) {
+        this(
+            infoFilters,
+            infoEnhancers,
+            infoRecorders,
+            enableStack,
+            enableShortClassName,
+            enableThreadName,
+            enableRecordAll,
+            enableAsync,
+            taskHandlerSize,
+            additionProperties
+        );
+        if (bufferSize < 0 || Integer.bitCount(bufferSize) > 1) {
+            throw new TraceException("bufferSize must be a power of 2");
+        }
+        if (!(sampleRate >= 0 && sampleRate <= 1)) {
+            throw new TraceException("sampleRate must be in [0, 1]");
+        }
+        if (stripeSize < 0) {
+            throw new TraceException("stripeSize can't be negative");
+        }
+        if (repeatWindow < 0) {
+            throw new TraceException("repeatWindow can't be negative");
+        }
+
+        this.bufferSize = bufferSize;
+        this.waitStrategy = Objects.isNull(waitStrategy) ? AsyncWaitStrategy.BLOCKING : waitStrategy;
+        this.enableSingleProducer = enableSingleProducer;
+        this.overflowPolicy = Objects.isNull(overflowPolicy) ? AsyncOverflowPolicy.BLOCK : overflowPolicy;
+        this.sampleRate = sampleRate;
+        this.stripeSize = stripeSize;
+        this.enableTimestampOrder = enableTimestampOrder;
+        this.repeatWindow = repeatWindow;
+    }
+
     /**
      * 跟踪记录仪配置详情
      *
@@ -217,6 +386,22 @@ public class TraceRecorderConfig {
             taskHandlerSize +
             ", additionProperties=" +
             additionProperties +
+            ", bufferSize=" +
+            bufferSize +
+            ", waitStrategy=" +
+            waitStrategy +
+            ", enableSingleProducer=" +
+            enableSingleProducer +
+            ", overflowPolicy=" +
+            overflowPolicy +
+            ", sampleRate=" +
+            sampleRate +
+            ", stripeSize=" +
+            stripeSize +
+            ", enableTimestampOrder=" +
+            enableTimestampOrder +
+            ", repeatWindow=" +
+            repeatWindow +
             '}'
         );
     }
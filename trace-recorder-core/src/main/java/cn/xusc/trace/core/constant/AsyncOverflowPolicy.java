@@ -0,0 +1,51 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.core.constant;
+
+/**
+ * 异步溢出策略
+ *
+ * <p>
+ * 异步处理器的环缓冲区已满时，记录线程的处理方式
+ * {@link #BLOCK}       阻塞等待空闲任务槽，不丢弃记录
+ * {@link #DROP_NEWEST} 丢弃当前记录，记录线程立即返回
+ * {@link #DROP_OLDEST} 丢弃环缓冲区中尚未消费的旧记录，保留当前记录
+ * {@link #SAMPLE}      按采样率保留当前记录，未被采样的记录被丢弃
+ * </p>
+ *
+ * @author WangCai
+ * @since 2.6
+ */
+public enum AsyncOverflowPolicy {
+    /**
+     * 阻塞
+     */
+    BLOCK,
+    /**
+     * 丢弃最新
+     */
+    DROP_NEWEST,
+    /**
+     * 丢弃最旧
+     *
+     * <p>消费者阻塞、环缓冲区始终无法腾出任务槽时退化为丢弃当前记录，每次溢出只丢失一条记录</p>
+     */
+    DROP_OLDEST,
+    /**
+     * 采样
+     */
+    SAMPLE,
+}
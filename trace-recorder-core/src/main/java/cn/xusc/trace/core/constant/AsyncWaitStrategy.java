@@ -0,0 +1,54 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.core.constant;
+
+/**
+ * 异步等待策略
+ *
+ * <p>
+ * 异步处理器的消费者在没有可消费任务时的等待方式
+ * {@link #BLOCKING}       阻塞等待，CPU占用最低，延迟较高
+ * {@link #SLEEPING}       自旋后让出，再进入短暂睡眠，兼顾CPU占用和延迟
+ * {@link #YIELDING}       自旋后让出CPU，延迟低，会占用CPU
+ * {@link #BUSY_SPIN}      忙自旋，延迟最低，独占一个CPU核心
+ * {@link #PHASED_BACKOFF} 分阶段退避，先自旋再让出，最后回退到阻塞等待
+ * </p>
+ *
+ * @author WangCai
+ * @since 2.6
+ */
+public enum AsyncWaitStrategy {
+    /**
+     * 阻塞等待
+     */
+    BLOCKING,
+    /**
+     * 睡眠等待
+     */
+    SLEEPING,
+    /**
+     * 让出等待
+     */
+    YIELDING,
+    /**
+     * 忙自旋等待
+     */
+    BUSY_SPIN,
+    /**
+     * 分阶段退避等待
+     */
+    PHASED_BACKOFF,
+}
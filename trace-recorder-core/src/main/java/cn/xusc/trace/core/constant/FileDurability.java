@@ -0,0 +1,44 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.core.constant;
+
+/**
+ * 文件持久化策略
+ *
+ * <p>
+ * 文件记录器将缓冲写出到文件后，强制刷盘的时机
+ * {@link #NONE}        不主动刷盘，由操作系统决定，吞吐最高
+ * {@link #PERIODIC}    距上次刷盘超过指定间隔时刷盘
+ * {@link #EVERY_BATCH} 每批记录写出后刷盘，最可靠
+ * </p>
+ *
+ * @author WangCai
+ * @since 2.6
+ */
+public enum FileDurability {
+    /**
+     * 不主动刷盘
+     */
+    NONE,
+    /**
+     * 周期刷盘
+     */
+    PERIODIC,
+    /**
+     * 每批刷盘
+     */
+    EVERY_BATCH,
+}
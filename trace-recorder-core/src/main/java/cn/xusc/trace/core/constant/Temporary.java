@@ -48,9 +48,18 @@ public class Temporary {
      * 异常属性名
      *
      * @since 2.0
+     * @deprecated 2.6起不再填充，请使用{@link #CALLER_STACK_TRACE_ELEMENT}
      */
+    @Deprecated
     public static final String EXCEPTION = "exception";
 
+    /**
+     * 调用者堆栈元素属性名
+     *
+     * @since 2.6
+     */
+    public static final String CALLER_STACK_TRACE_ELEMENT = "callerStackTraceElement";
+
     /**
      * SPI组件前缀
      *
@@ -62,10 +71,12 @@ public class Temporary {
      * 忽略堆栈类名
      */
     public static final String[] IGNORE_STACK_CLASS_NAMES = new String[] {
+        "cn.xusc.trace.core.StackSnapshot",
         "cn.xusc.trace.core.enhance.AbstractStatisticsInfoEnhancer",
         "cn.xusc.trace.core.handle.BaseTraceHandler",
         "cn.xusc.trace.core.handle.SyncTraceHandler",
         "cn.xusc.trace.core.handle.AsyncTraceHandler",
+        "cn.xusc.trace.core.handle.StripedAsyncTraceHandler",
         "cn.xusc.trace.core.TraceRecorder",
         "cn.xusc.trace.core.util.Recorders",
     };
@@ -16,6 +16,7 @@
 package cn.xusc.trace.core.enhance;
 
 import cn.xusc.trace.core.EnhanceInfo;
+import cn.xusc.trace.core.StackSnapshot;
 
 /**
  * 信息增强器
@@ -43,4 +44,19 @@ public interface InfoEnhancer {
      * @return 增强信息
      */
     EnhanceInfo setWriteInfo(EnhanceInfo eInfo);
+
+    /**
+     * 所需的堆栈深度
+     *
+     * <p>
+     * 需要完整调用栈的增强器（如图表）返回所需深度，处理器按流水线中最大的深度在记录线程上一次捕获{@link StackSnapshot}，
+     * 通过{@link EnhanceInfo#getStackSnapshot()}共享，不必各自再次游走堆栈
+     * </p>
+     *
+     * @return 所需的堆栈深度，默认为0表示不需要堆栈快照
+     * @since 2.6
+     */
+    default int stackDepth() {
+        return 0;
+    }
 }
@@ -15,7 +15,6 @@
  */
 package cn.xusc.trace.core.enhance;
 
-import cn.xusc.trace.common.util.Symbols;
 import cn.xusc.trace.core.EnhanceInfo;
 
 /**
@@ -25,6 +24,10 @@ import cn.xusc.trace.core.EnhanceInfo;
  * 为信息换行，根据平台相关性{@link System#lineSeparator()}
  * </p>
  *
+ * <p>
+ * 行分隔符只登记到布局，在拼接写出信息时追加，不再修改信息本身
+ * </p>
+ *
  * @author WangCai
  * @since 1.0
  */
@@ -32,13 +35,12 @@ public class LineInfoEnhancer implements InfoEnhancer {
 
     @Override
     public EnhanceInfo enhance(EnhanceInfo eInfo) {
-        eInfo.setInfo(eInfo.getInfo() + Symbols.lineSeparator());
         return eInfo;
     }
 
     @Override
     public EnhanceInfo setWriteInfo(EnhanceInfo eInfo) {
-        eInfo.setWriteInfo(eInfo.getInfo());
+        eInfo.layoutLineSeparator();
         return eInfo;
     }
 }
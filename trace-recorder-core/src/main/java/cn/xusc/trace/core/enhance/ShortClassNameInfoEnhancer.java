@@ -15,8 +15,9 @@
  */
 package cn.xusc.trace.core.enhance;
 
+import cn.xusc.trace.core.CallSite;
 import cn.xusc.trace.core.EnhanceInfo;
-import cn.xusc.trace.core.constant.Temporary;
+import java.util.Objects;
 
 /**
  * 短类名增强器
@@ -33,13 +34,18 @@ public class ShortClassNameInfoEnhancer implements InfoEnhancer {
     @Override
     public EnhanceInfo enhance(EnhanceInfo eInfo) {
         /*
-          根据增强信息临时值决定是否进行信息处理
+          根据增强信息启用标志决定是否进行信息处理
          */
-        if (
-            (boolean) eInfo.getTemporaryValue(Temporary.ENABLE_STACK) &&
-            (boolean) eInfo.getTemporaryValue(Temporary.ENABLE_SHORT_CLASS_NAME)
-        ) {
+        if (eInfo.isEnableStack() && eInfo.isEnableShortClassName()) {
             String className = eInfo.getClassName();
+            CallSite callSite = eInfo.getCallSite();
+            if (Objects.nonNull(callSite) && className == callSite.getClassName()) {
+                /*
+                  调用点已预先计算短类名
+                 */
+                eInfo.setClassName(callSite.getShortClassName());
+                return eInfo;
+            }
             int pointIndex = className.lastIndexOf(".");
             if (pointIndex > -1) {
                 eInfo.setClassName(className.substring(pointIndex + 1));
@@ -51,21 +57,10 @@ public class ShortClassNameInfoEnhancer implements InfoEnhancer {
     @Override
     public EnhanceInfo setWriteInfo(EnhanceInfo eInfo) {
         /*
-          根据增强信息临时值决定是否进行堆栈信息填充处理
+          根据增强信息启用标志决定是否进行堆栈信息填充处理
          */
-        if (
-            (boolean) eInfo.getTemporaryValue(Temporary.ENABLE_STACK) &&
-            (boolean) eInfo.getTemporaryValue(Temporary.ENABLE_SHORT_CLASS_NAME)
-        ) {
-            eInfo.setWriteInfo(
-                String.format(
-                    "%s.%s()[%d] - %s",
-                    eInfo.getClassName(),
-                    eInfo.getMethodName(),
-                    eInfo.getLineNumber(),
-                    eInfo.getInfo()
-                )
-            );
+        if (eInfo.isEnableStack() && eInfo.isEnableShortClassName()) {
+            eInfo.layoutCaller();
         }
         return eInfo;
     }
@@ -15,10 +15,8 @@
  */
 package cn.xusc.trace.core.enhance;
 
-import cn.xusc.trace.common.util.StackTraces;
+import cn.xusc.trace.core.CallSite;
 import cn.xusc.trace.core.EnhanceInfo;
-import cn.xusc.trace.core.constant.Temporary;
-import java.util.Optional;
 
 /**
  * 栈信息增强
@@ -31,22 +29,14 @@ public class StackInfoEnhancer implements InfoEnhancer {
     @Override
     public EnhanceInfo enhance(EnhanceInfo eInfo) {
         /*
-          根据增强信息临时值决定是否进行堆栈扫描处理
+          根据增强信息启用标志决定是否进行堆栈扫描处理
          */
-        if ((boolean) eInfo.getTemporaryValue(Temporary.ENABLE_STACK)) {
+        if (eInfo.isEnableStack()) {
             /*
-              异常从临时值获取，容错异步处理的堆栈
+              调用者堆栈元素已由处理器在记录线程上捕获，容错异步处理的堆栈；
+              同一调用点复用驻留的调用点，不再逐条复制类名、方法名和行号
              */
-            Exception exception = ((Exception) eInfo.getTemporaryValue(Temporary.EXCEPTION));
-            Optional<StackTraceElement> stackTraceElementOptional = StackTraces.currentFirstStackTraceElement(
-                exception,
-                Temporary.IGNORE_STACK_CLASS_NAMES
-            );
-
-            StackTraceElement stackTraceElement = stackTraceElementOptional.get();
-            eInfo.setClassName(stackTraceElement.getClassName());
-            eInfo.setMethodName(stackTraceElement.getMethodName());
-            eInfo.setLineNumber(stackTraceElement.getLineNumber());
+            eInfo.setCallSite(CallSite.of(eInfo.getCaller()));
         }
         return eInfo;
     }
@@ -54,18 +44,10 @@ public class StackInfoEnhancer implements InfoEnhancer {
     @Override
     public EnhanceInfo setWriteInfo(EnhanceInfo eInfo) {
         /*
-          根据增强信息临时值决定是否进行堆栈信息填充处理
+          根据增强信息启用标志决定是否进行堆栈信息填充处理
          */
-        if ((boolean) eInfo.getTemporaryValue(Temporary.ENABLE_STACK)) {
-            eInfo.setWriteInfo(
-                String.format(
-                    "%s.%s()[%d] - %s",
-                    eInfo.getClassName(),
-                    eInfo.getMethodName(),
-                    eInfo.getLineNumber(),
-                    eInfo.getInfo()
-                )
-            );
+        if (eInfo.isEnableStack()) {
+            eInfo.layoutCaller();
         }
         return eInfo;
     }
@@ -16,7 +16,6 @@
 package cn.xusc.trace.core.enhance;
 
 import cn.xusc.trace.core.EnhanceInfo;
-import cn.xusc.trace.core.constant.Temporary;
 
 /**
  * 线程信息增强
@@ -34,19 +33,10 @@ public class ThreadInfoEnhancer implements InfoEnhancer {
     @Override
     public EnhanceInfo setWriteInfo(EnhanceInfo eInfo) {
         /*
-          根据增强信息临时值决定是否进行线程信息处理
+          根据增强信息启用标志决定是否进行线程信息处理
          */
-        if ((boolean) eInfo.getTemporaryValue(Temporary.ENABLE_THREAD_NAME)) {
-            eInfo.setWriteInfo(
-                String.format(
-                    "%s %s.%s()[%d] - %s",
-                    Thread.currentThread().getName(),
-                    eInfo.getClassName(),
-                    eInfo.getMethodName(),
-                    eInfo.getLineNumber(),
-                    eInfo.getInfo()
-                )
-            );
+        if (eInfo.isEnableThreadName()) {
+            eInfo.layoutThreadName(Thread.currentThread().getName());
         }
         return eInfo;
     }
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.core.filter;
+
+import java.util.Objects;
+
+/**
+ * 调用点键
+ *
+ * <p>由消息模板、调用类名和行号组成，调用者未知时仅由消息模板区分</p>
+ *
+ * @author WangCai
+ * @since 2.6
+ */
+final class CallSiteKey {
+
+    /**
+     * 消息模板
+     */
+    private final String TEMPLATE;
+
+    /**
+     * 调用类名
+     */
+    private final String CLASS_NAME;
+
+    /**
+     * 调用行号
+     */
+    private final int LINE;
+
+    /**
+     * 哈希值
+     */
+    private final int HASH;
+
+    /**
+     * 基础构造
+     *
+     * @param template 消息模板
+     * @param caller   调用者堆栈元素，可以为null
+     */
+    CallSiteKey(String template, StackTraceElement caller) {
+        this.TEMPLATE = template;
+        this.CLASS_NAME = Objects.isNull(caller) ? null : caller.getClassName();
+        this.LINE = Objects.isNull(caller) ? -1 : caller.getLineNumber();
+        this.HASH = 31 * (31 * Objects.hashCode(TEMPLATE) + Objects.hashCode(CLASS_NAME)) + LINE;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CallSiteKey)) {
+            return false;
+        }
+        CallSiteKey that = (CallSiteKey) o;
+        return (
+            HASH == that.HASH &&
+            LINE == that.LINE &&
+            Objects.equals(TEMPLATE, that.TEMPLATE) &&
+            Objects.equals(CLASS_NAME, that.CLASS_NAME)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return HASH;
+    }
+
+    /**
+     * 调用点键详情
+     *
+     * @return 详情
+     */
+    @Override
+    public String toString() {
+        return CLASS_NAME + ":" + LINE + " " + TEMPLATE;
+    }
+}
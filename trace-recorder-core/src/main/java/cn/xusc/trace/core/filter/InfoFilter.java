@@ -16,6 +16,7 @@
 package cn.xusc.trace.core.filter;
 
 import cn.xusc.trace.core.constant.RecordLabel;
+import cn.xusc.trace.core.enhance.StackInfoEnhancer;
 
 /**
  * 信息过滤器
@@ -32,4 +33,19 @@ public interface InfoFilter {
      * @return 当前信息是否记录的判断值
      */
     boolean isRecord(String info, RecordLabel label);
+
+    /**
+     * 带调用者的是否记录
+     *
+     * <p>处理器在格式化和增强之前调用，需要按调用点区分的过滤器可覆盖该方法</p>
+     *
+     * @param info   信息
+     * @param label  记录标签
+     * @param caller 调用者堆栈元素，禁用堆栈信息时为null，参见{@link StackInfoEnhancer}
+     * @return 当前信息是否记录的判断值
+     * @since 2.6
+     */
+    default boolean isRecord(String info, RecordLabel label, StackTraceElement caller) {
+        return isRecord(info, label);
+    }
 }
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.core.filter;
+
+import cn.xusc.trace.common.exception.TraceException;
+import cn.xusc.trace.core.constant.RecordLabel;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 限流信息过滤器
+ *
+ * <p>
+ * 按调用点（消息模板、调用类名和行号）独立限流的令牌桶，每个调用点每秒最多放行{@link #PERMITS_PER_SECOND}条记录，
+ * 允许{@link #BURST}条的突发。令牌桶以理论到达时间的形式保存在一个原子变量中，放行判断只有一次比较交换，不加锁
+ * </p>
+ *
+ * <p>
+ * 调用点数量超过{@link #MAX_CALL_SITES}后，新的调用点共享同一个令牌桶，避免动态拼接的消息无限占用内存。
+ * {@link RecordLabel#ALL}标签的记录不受限流
+ * </p>
+ *
+ * @author WangCai
+ * @since 2.6
+ */
+public class RateLimitInfoFilter implements InfoFilter {
+
+    /**
+     * 最大调用点数量
+     */
+    private static final int MAX_CALL_SITES = 4096;
+
+    /**
+     * 每秒放行数
+     */
+    private final double PERMITS_PER_SECOND;
+
+    /**
+     * 突发数
+     */
+    private final int BURST;
+
+    /**
+     * 放行间隔纳秒数
+     */
+    private final long INTERVAL_NANOS;
+
+    /**
+     * 突发容忍纳秒数
+     */
+    private final long TOLERANCE_NANOS;
+
+    /**
+     * 调用点令牌桶集
+     */
+    private final Map<CallSiteKey, AtomicLong> BUCKETS = new ConcurrentHashMap<>();
+
+    /**
+     * 共享令牌桶，调用点数量超过上限时使用
+     */
+    private final AtomicLong SHARED_BUCKET;
+
+    /**
+     * 抑制计数器
+     */
+    private final LongAdder SUPPRESSED = new LongAdder();
+
+    /**
+     * 基础构造
+     *
+     * <p>突发数与每秒放行数相同，至少为1</p>
+     *
+     * @param permitsPerSecond 每个调用点每秒放行数
+     * @throws TraceException if {@code permitsPerSecond} is not positive
+     */
+    public RateLimitInfoFilter(double permitsPerSecond) {
+        this(permitsPerSecond, (int) Math.max(1, Math.min(permitsPerSecond, Integer.MAX_VALUE)));
+    }
+
+    /**
+     * 完整构造
+     *
+     * @param permitsPerSecond 每个调用点每秒放行数
+     * @param burst            突发数
+     * @throws TraceException if {@code permitsPerSecond} is not positive
+     * @throws TraceException if {@code burst} is less 1
+     */
+    public RateLimitInfoFilter(double permitsPerSecond, int burst) {
+        if (!(permitsPerSecond > 0)) {
+            throw new TraceException("permitsPerSecond must be positive");
+        }
+        if (burst < 1) {
+            throw new TraceException("burst < 1");
+        }
+        this.PERMITS_PER_SECOND = permitsPerSecond;
+        this.BURST = burst;
+        this.INTERVAL_NANOS = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.TOLERANCE_NANOS = INTERVAL_NANOS * burst;
+        this.SHARED_BUCKET = new AtomicLong(System.nanoTime());
+    }
+
+    @Override
+    public boolean isRecord(String info, RecordLabel label) {
+        return isRecord(info, label, null);
+    }
+
+    @Override
+    public boolean isRecord(String info, RecordLabel label, StackTraceElement caller) {
+        if (label == RecordLabel.ALL) {
+            return true;
+        }
+        if (tryAcquire(bucket(new CallSiteKey(info, caller)))) {
+            return true;
+        }
+        SUPPRESSED.increment();
+        return false;
+    }
+
+    /**
+     * 获取调用点的令牌桶
+     *
+     * @param key 调用点键
+     * @return 令牌桶
+     */
+    private AtomicLong bucket(CallSiteKey key) {
+        AtomicLong bucket = BUCKETS.get(key);
+        if (Objects.nonNull(bucket)) {
+            return bucket;
+        }
+        if (BUCKETS.size() >= MAX_CALL_SITES) {
+            return SHARED_BUCKET;
+        }
+        return BUCKETS.computeIfAbsent(key, k -> new AtomicLong(System.nanoTime()));
+    }
+
+    /**
+     * 尝试获取令牌
+     *
+     * <p>理论到达时间超前当前时间不超过突发容忍时，推进理论到达时间并放行</p>
+     *
+     * @param bucket 令牌桶
+     * @return 是否放行
+     */
+    private boolean tryAcquire(AtomicLong bucket) {
+        long now = System.nanoTime();
+        for (;;) {
+            long current = bucket.get();
+            long next = (current - now < 0 ? now : current) + INTERVAL_NANOS;
+            if (next - now > TOLERANCE_NANOS) {
+                return false;
+            }
+            if (bucket.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 获取抑制的记录数
+     *
+     * @return 抑制的记录数
+     */
+    public long getSuppressedCount() {
+        return SUPPRESSED.sum();
+    }
+
+    /**
+     * 限流信息过滤器详情
+     *
+     * @return 详情
+     */
+    @Override
+    public String toString() {
+        return (
+            "RateLimitInfoFilter{" +
+            "PERMITS_PER_SECOND=" +
+            PERMITS_PER_SECOND +
+            ", BURST=" +
+            BURST +
+            ", CALL_SITES=" +
+            BUCKETS.size() +
+            ", SUPPRESSED=" +
+            SUPPRESSED.sum() +
+            '}'
+        );
+    }
+}
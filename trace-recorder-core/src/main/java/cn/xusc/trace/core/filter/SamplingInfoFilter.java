@@ -0,0 +1,165 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.core.filter;
+
+import cn.xusc.trace.common.exception.TraceException;
+import cn.xusc.trace.core.constant.RecordLabel;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 采样信息过滤器
+ *
+ * <p>
+ * 全局采样时每条记录以{@link #RATE}的概率独立保留；
+ * 按调用点采样时每个调用点（消息模板、调用类名和行号）从第一条记录开始每{@link #PERIOD}条保留一条，
+ * 低频的调用点不会因为随机性被完全丢弃。{@link RecordLabel#ALL}标签的记录不参与采样
+ * </p>
+ *
+ * @author WangCai
+ * @since 2.6
+ */
+public class SamplingInfoFilter implements InfoFilter {
+
+    /**
+     * 最大调用点数量
+     */
+    private static final int MAX_CALL_SITES = 4096;
+
+    /**
+     * 采样率
+     */
+    private final double RATE;
+
+    /**
+     * 按调用点采样
+     */
+    private final boolean PER_CALL_SITE;
+
+    /**
+     * 按调用点采样的周期
+     */
+    private final long PERIOD;
+
+    /**
+     * 调用点计数器集
+     */
+    private final Map<CallSiteKey, AtomicLong> COUNTERS = new ConcurrentHashMap<>();
+
+    /**
+     * 共享计数器，调用点数量超过上限时使用
+     */
+    private final AtomicLong SHARED_COUNTER = new AtomicLong();
+
+    /**
+     * 抑制计数器
+     */
+    private final LongAdder SUPPRESSED = new LongAdder();
+
+    /**
+     * 全局采样构造
+     *
+     * @param rate 采样率
+     * @throws TraceException if {@code rate} is not in [0, 1]
+     */
+    public SamplingInfoFilter(double rate) {
+        this(rate, false);
+    }
+
+    /**
+     * 完整构造
+     *
+     * @param rate        采样率
+     * @param perCallSite 按调用点采样
+     * @throws TraceException if {@code rate} is not in [0, 1]
+     */
+    public SamplingInfoFilter(double rate, boolean perCallSite) {
+        if (!(rate >= 0 && rate <= 1)) {
+            throw new TraceException("rate must be in [0, 1]");
+        }
+        this.RATE = rate;
+        this.PER_CALL_SITE = perCallSite;
+        this.PERIOD = rate == 0 ? Long.MAX_VALUE : Math.max(1, Math.round(1 / rate));
+    }
+
+    @Override
+    public boolean isRecord(String info, RecordLabel label) {
+        return isRecord(info, label, null);
+    }
+
+    @Override
+    public boolean isRecord(String info, RecordLabel label, StackTraceElement caller) {
+        if (label == RecordLabel.ALL) {
+            return true;
+        }
+        boolean sampled = PER_CALL_SITE
+            ? counter(new CallSiteKey(info, caller)).getAndIncrement() % PERIOD == 0
+            : ThreadLocalRandom.current().nextDouble() < RATE;
+        if (!sampled) {
+            SUPPRESSED.increment();
+        }
+        return sampled;
+    }
+
+    /**
+     * 获取调用点的计数器
+     *
+     * @param key 调用点键
+     * @return 计数器
+     */
+    private AtomicLong counter(CallSiteKey key) {
+        AtomicLong counter = COUNTERS.get(key);
+        if (Objects.nonNull(counter)) {
+            return counter;
+        }
+        if (COUNTERS.size() >= MAX_CALL_SITES) {
+            return SHARED_COUNTER;
+        }
+        return COUNTERS.computeIfAbsent(key, k -> new AtomicLong());
+    }
+
+    /**
+     * 获取抑制的记录数
+     *
+     * @return 抑制的记录数
+     */
+    public long getSuppressedCount() {
+        return SUPPRESSED.sum();
+    }
+
+    /**
+     * 采样信息过滤器详情
+     *
+     * @return 详情
+     */
+    @Override
+    public String toString() {
+        return (
+            "SamplingInfoFilter{" +
+            "RATE=" +
+            RATE +
+            ", PER_CALL_SITE=" +
+            PER_CALL_SITE +
+            ", SUPPRESSED=" +
+            SUPPRESSED.sum() +
+            '}'
+        );
+    }
+}
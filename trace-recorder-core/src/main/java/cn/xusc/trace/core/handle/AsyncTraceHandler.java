@@ -18,21 +18,41 @@ package cn.xusc.trace.core.handle;
 import cn.xusc.trace.common.exception.TraceException;
 import cn.xusc.trace.common.exception.TraceTimeoutException;
 import cn.xusc.trace.common.util.concurrent.Disruptors;
+import cn.xusc.trace.core.StackSnapshot;
 import cn.xusc.trace.core.TraceRecorder;
+import cn.xusc.trace.core.config.TraceRecorderConfig;
+import cn.xusc.trace.core.constant.AsyncOverflowPolicy;
+import cn.xusc.trace.core.constant.AsyncWaitStrategy;
 import cn.xusc.trace.core.constant.RecordLabel;
-import com.lmax.disruptor.TimeoutException;
+import com.lmax.disruptor.*;
 import com.lmax.disruptor.dsl.Disruptor;
 import java.util.Objects;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
-import lombok.AllArgsConstructor;
-import lombok.Getter;
-import lombok.Setter;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 异步处理器
  *
+ * <p>
+ * 环缓冲区中的任务槽是预分配的，生产者原地填充任务槽，稳定状态下提供任务不会产生新的对象
+ * </p>
+ *
+ * <p>
+ * 环缓冲区已满时按{@link AsyncOverflowPolicy}处理，非阻塞策略下记录线程不会被慢速的记录器拖住，丢弃的记录数通过{@link #getDiscardedCount()}获取
+ * </p>
+ *
+ * <p>
+ * 多个任务处理者时，过滤、重复记录聚合、格式化和增强在工作池中并行执行，记录器仅由单一的定序器按发布顺序调用，记录器无需线程安全且输出不会乱序
+ * </p>
+ *
+ * <p>
+ * 工作池中被聚合的重复记录不再增强，结束重复段的汇总记录暂存在任务槽中，由定序器在该任务之前记录。
+ * 同一线程的相邻记录可能被不同的任务处理者乱序聚合，此时只会少折叠部分重复，不会丢失记录
+ * </p>
+ *
  * @author WangCai
  * @since 2.0
  */
@@ -41,34 +61,76 @@ public class AsyncTraceHandler extends BaseTraceHandler {
     /**
      * {@link Disruptor}
      */
-    private final Disruptor<Disruptors.GeneralEvent> DISRUPTOR;
+    private final Disruptor<TaskEvent> DISRUPTOR;
 
     /**
-     * 缓冲大小
+     * {@link RingBuffer}
+     *
+     * @since 2.6
      */
-    private static final int BUFFER_SIZE = 2 << 4;
+    private final RingBuffer<TaskEvent> RING_BUFFER;
 
     /**
-     * 通用生产者
+     * 默认缓冲大小
      */
-    private Disruptors.GeneralProducer producer;
+    private static final int DEFAULT_BUFFER_SIZE = 2 << 12;
+
+    /**
+     * 溢出后重试申领任务槽的次数
+     *
+     * @since 2.6
+     */
+    private static final int OVERFLOW_CLAIM_RETRIES = 128;
 
     /**
      * 任务处理者数量
      */
     private final int TASK_HANDLER_SIZE;
 
+    /**
+     * 等待策略
+     *
+     * @since 2.6
+     */
+    private final AsyncWaitStrategy WAIT_STRATEGY;
+
+    /**
+     * 溢出策略
+     *
+     * @since 2.6
+     */
+    private final AsyncOverflowPolicy OVERFLOW_POLICY;
+
+    /**
+     * 溢出采样率
+     *
+     * @since 2.6
+     */
+    private final double SAMPLE_RATE;
+
+    /**
+     * 丢弃计数器
+     *
+     * @since 2.6
+     */
+    private final LongAdder DISCARDED = new LongAdder();
+
+    /**
+     * 丢弃水位
+     *
+     * <p>{@link AsyncOverflowPolicy#DROP_OLDEST}策略下，序号不大于该水位的任务槽在消费时被丢弃</p>
+     *
+     * @since 2.6
+     */
+    private final AtomicLong DISCARD_WATERMARK = new AtomicLong(-1);
+
     /**
      * 基本构造
      *
      * @param recorder 跟踪记录仪
      */
     public AsyncTraceHandler(TraceRecorder recorder) {
-        super(recorder);
-        this.TASK_HANDLER_SIZE = 1;
-        DISRUPTOR = Disruptors.generate(BUFFER_SIZE, new TaskHandlerFactory(), false);
-        initConsumerModel(DISRUPTOR);
-        initProducerModel(DISRUPTOR);
+        this(recorder, 1);
     }
 
     /**
@@ -79,14 +141,110 @@ public class AsyncTraceHandler extends BaseTraceHandler {
      * @throws TraceException if {@code taskHandlerSize} is less 1
      */
     public AsyncTraceHandler(TraceRecorder recorder, int taskHandlerSize) {
-        super(recorder);
+        this(
+            recorder,
+            taskHandlerSize,
+            DEFAULT_BUFFER_SIZE,
+            AsyncWaitStrategy.BLOCKING,
+            false,
+            AsyncOverflowPolicy.BLOCK,
+            0,
+            0
+        );
+    }
+
+    /**
+     * 配置构造
+     *
+     * <p>
+     * 根据配置的任务处理器数量、缓冲大小、等待策略、生产者类型和溢出策略构建
+     * </p>
+     *
+     * @param recorder 跟踪记录仪
+     * @param config   跟踪记录仪配置
+     * @throws TraceException       if {@code taskHandlerSize} of config is less 1
+     * @throws NullPointerException if {@code config} is null
+     * @since 2.6
+     */
+    public AsyncTraceHandler(TraceRecorder recorder, TraceRecorderConfig config) {
+        this(
+            recorder,
+            Objects.requireNonNull(config).getTaskHandlerSize(),
+            config.getBufferSize() == 0 ? DEFAULT_BUFFER_SIZE : config.getBufferSize(),
+            Objects.requireNonNullElse(config.getWaitStrategy(), AsyncWaitStrategy.BLOCKING),
+            config.isEnableSingleProducer(),
+            Objects.requireNonNullElse(config.getOverflowPolicy(), AsyncOverflowPolicy.BLOCK),
+            config.getSampleRate(),
+            config.getRepeatWindow()
+        );
+    }
+
+    /**
+     * 完整构造
+     *
+     * @param recorder             跟踪记录仪
+     * @param taskHandlerSize      任务处理器数量
+     * @param bufferSize           缓冲大小
+     * @param waitStrategy         等待策略
+     * @param enableSingleProducer 启用单生产者，启用重复记录聚合时不生效
+     * @param overflowPolicy       溢出策略
+     * @param sampleRate           溢出采样率
+     * @param repeatWindowMillis   重复记录聚合窗口毫秒数
+     * @throws TraceException if {@code taskHandlerSize} is less 1
+     * @since 2.6
+     */
+    private AsyncTraceHandler(
+        TraceRecorder recorder,
+        int taskHandlerSize,
+        int bufferSize,
+        AsyncWaitStrategy waitStrategy,
+        boolean enableSingleProducer,
+        AsyncOverflowPolicy overflowPolicy,
+        double sampleRate,
+        long repeatWindowMillis
+    ) {
+        super(recorder, repeatWindowMillis);
         if (taskHandlerSize < 1) {
             throw new TraceException("taskHandlerSize < 1");
         }
         this.TASK_HANDLER_SIZE = taskHandlerSize;
-        DISRUPTOR = Disruptors.generate(BUFFER_SIZE, new TaskHandlerFactory(), false);
+        this.WAIT_STRATEGY = waitStrategy;
+        this.OVERFLOW_POLICY = overflowPolicy;
+        this.SAMPLE_RATE = sampleRate;
+        DISRUPTOR =
+            Disruptors.generate(
+                TaskEvent::new,
+                bufferSize,
+                new TaskHandlerFactory(),
+                !enableSingleProducer || repeatWindowMillis > 0,
+                generateWaitStrategy(waitStrategy)
+            );
+        RING_BUFFER = DISRUPTOR.getRingBuffer();
         initConsumerModel(DISRUPTOR);
-        initProducerModel(DISRUPTOR);
+        startExpiring(this::ticking);
+    }
+
+    /**
+     * 生成等待策略
+     *
+     * @param waitStrategy 异步等待策略
+     * @return {@link WaitStrategy}
+     * @since 2.6
+     */
+    static WaitStrategy generateWaitStrategy(AsyncWaitStrategy waitStrategy) {
+        switch (waitStrategy) {
+            case SLEEPING:
+                return new SleepingWaitStrategy();
+            case YIELDING:
+                return new YieldingWaitStrategy();
+            case BUSY_SPIN:
+                return new BusySpinWaitStrategy();
+            case PHASED_BACKOFF:
+                return PhasedBackoffWaitStrategy.withLock(1, 1, TimeUnit.MILLISECONDS);
+            case BLOCKING:
+            default:
+                return new BlockingWaitStrategy();
+        }
     }
 
     /**
@@ -96,43 +254,133 @@ public class AsyncTraceHandler extends BaseTraceHandler {
      *
      * @param disruptor {@link Disruptor}
      */
-    private void initConsumerModel(Disruptor<Disruptors.GeneralEvent> disruptor) {
-        Disruptors.GeneralConsumer consumer = Disruptors.consumer(disruptor);
+    private void initConsumerModel(Disruptor<TaskEvent> disruptor) {
         if (TASK_HANDLER_SIZE == 1) {
             /*
-              构建没有事件竞争的消费者处理集群
+              构建没有事件竞争的消费者处理集群，一批任务结束时刷新
              */
-            consumer.addConsumptionPatterns((event, sequence, endOfBatch) -> {
-                Task task = (Task) event.get();
-                handling(task.getInfo(), task.getLabel(), task.getException(), task.getArgArray());
+            disruptor.handleEventsWith((event, sequence, endOfBatch) -> {
+                try {
+                    consume(event);
+                } finally {
+                    if (endOfBatch) {
+                        flushing();
+                    }
+                }
             });
         } else {
             /*
-              构建有事件竞争的消费者处理集群
+              构建两阶段的消费者处理集群：
+              工作池竞争任务槽，并行完成过滤、格式化和增强；
+              单一的定序器在工作池之后按序号提交到记录器，一批任务结束时刷新
              */
-            for (int i = 0; i < TASK_HANDLER_SIZE; i++) {
-                consumer.addConsumptionPatterns(event -> {
-                    Task task = (Task) event.get();
-                    handling(task.getInfo(), task.getLabel(), task.getException(), task.getArgArray());
+            disruptor
+                .handleEventsWithWorkerPool(generateWorkHandlers())
+                .then((event, sequence, endOfBatch) -> {
+                    try {
+                        commit(event);
+                    } finally {
+                        if (endOfBatch) {
+                            flushing();
+                        }
+                    }
                 });
+        }
+        disruptor.start();
+    }
+
+    /**
+     * 生成工作池的任务处理者集
+     *
+     * @return 任务处理者集
+     * @since 2.6
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" }) // 泛型数组只能以原始类型创建，元素都是WorkHandler<TaskEvent>
+    private WorkHandler<TaskEvent>[] generateWorkHandlers() {
+        WorkHandler<TaskEvent>[] workHandlers = new WorkHandler[TASK_HANDLER_SIZE];
+        for (int i = 0; i < TASK_HANDLER_SIZE; i++) {
+            workHandlers[i] = this::prepare;
+        }
+        return workHandlers;
+    }
+
+    /**
+     * 消费任务槽
+     *
+     * <p>处理完成后清理任务槽，避免环缓冲区长期持有信息和参数的引用</p>
+     *
+     * @param event 任务槽
+     * @since 2.6
+     */
+    private void consume(TaskEvent event) {
+        try {
+            if (event.tick) {
+                return;
+            }
+            if (OVERFLOW_POLICY == AsyncOverflowPolicy.DROP_OLDEST && event.sequence <= DISCARD_WATERMARK.get()) {
+                DISCARDED.increment();
+                return;
             }
+            handling(event.threadId, event.info, event.label, event.caller, event.stack, event.argArray);
+        } finally {
+            event.clear();
         }
-        consumer.consume();
     }
 
     /**
-     * 初始化生产者模型
+     * 预处理任务槽
      *
-     * @param disruptor {@link Disruptor}
+     * <p>工作池阶段，过滤、聚合重复记录并增强信息，结果暂存在任务槽中等待定序器提交</p>
+     *
+     * @param event 任务槽
+     * @since 2.6
+     */
+    private void prepare(TaskEvent event) {
+        if (event.tick) {
+            return;
+        }
+        if (OVERFLOW_POLICY == AsyncOverflowPolicy.DROP_OLDEST && event.sequence <= DISCARD_WATERMARK.get()) {
+            DISCARDED.increment();
+            return;
+        }
+        TracePipeline pipeline = RECORDER.getPipeline();
+        if (
+            filtering(pipeline, event.info, event.label, event.caller) &&
+            !repeating(event.threadId, event.info, event.caller, event.argArray, event)
+        ) {
+            event.writeInfo = enhancing(pipeline, event.info, event.caller, event.stack, event.argArray);
+            /*
+              同一任务槽的过滤、增强和提交使用同一流水线快照
+             */
+            event.pipeline = pipeline;
+        }
+    }
+
+    /**
+     * 提交任务槽
+     *
+     * <p>定序器阶段，先记录预处理时结束的重复段的汇总记录，再按序号将预处理的结果提交到记录器，完成后清理任务槽</p>
+     *
+     * @param event 任务槽
+     * @since 2.6
      */
-    private void initProducerModel(Disruptor<Disruptors.GeneralEvent> disruptor) {
-        this.producer = Disruptors.producer(disruptor);
+    private void commit(TaskEvent event) {
+        try {
+            if (Objects.nonNull(event.summaryInfo)) {
+                recording(event.summaryInfo, event.summaryCaller, null, event.summaryArgArray);
+            }
+            if (Objects.nonNull(event.pipeline)) {
+                committing(event.pipeline, event.info, event.caller, event.argArray, event.writeInfo);
+            }
+        } finally {
+            event.clear();
+        }
     }
 
     /**
      * 信息处理
      *
-     * <p>构建任务并提供</p>
+     * <p>申领任务槽并原地填充后发布，环缓冲区已满时按溢出策略处理</p>
      *
      * @param info     信息
      * @param label    记录标签
@@ -140,19 +388,152 @@ public class AsyncTraceHandler extends BaseTraceHandler {
      */
     @Override
     public void doHandle(String info, RecordLabel label, Object... argArray) {
-        Task task = new Task(info, label, new TraceException(), argArray);
-        producer.provide(() -> task);
+        StackSnapshot stack = captureStack();
+        StackTraceElement caller = captureCaller(stack);
+        long threadId = Thread.currentThread().getId();
+        long sequence;
+        if (OVERFLOW_POLICY == AsyncOverflowPolicy.BLOCK) {
+            sequence = RING_BUFFER.next();
+        } else {
+            try {
+                sequence = RING_BUFFER.tryNext();
+            } catch (InsufficientCapacityException e) {
+                sequence = overflowing() ? retryClaiming(RING_BUFFER) : -1;
+                if (sequence >= 0 && OVERFLOW_POLICY == AsyncOverflowPolicy.DROP_OLDEST) {
+                    droppingOldest(RING_BUFFER, DISCARD_WATERMARK, sequence);
+                }
+            }
+            if (sequence < 0) {
+                DISCARDED.increment();
+                return;
+            }
+        }
+        try {
+            RING_BUFFER.get(sequence).fill(sequence, threadId, info, label, caller, stack, argArray);
+        } finally {
+            RING_BUFFER.publish(sequence);
+        }
+    }
+
+    /**
+     * 发布过期检查任务槽
+     *
+     * <p>
+     * 记录器只由消费者调用，过期检查线程不直接结束重复段，而是发布一个空的任务槽，消费者在这一批任务结束时检查过期。
+     * 环缓冲区已满时消费者仍在处理，一批任务结束时自然会检查，直接放弃发布
+     * </p>
+     *
+     * @since 2.6
+     */
+    private void ticking() {
+        long sequence;
+        try {
+            sequence = RING_BUFFER.tryNext();
+        } catch (InsufficientCapacityException e) {
+            return;
+        }
+        try {
+            RING_BUFFER.get(sequence).tick(sequence);
+        } finally {
+            RING_BUFFER.publish(sequence);
+        }
+    }
+
+    /**
+     * 环缓冲区溢出处理
+     *
+     * <p>
+     * {@link AsyncOverflowPolicy#DROP_NEWEST} 不保留当前记录
+     * {@link AsyncOverflowPolicy#SAMPLE}      按采样率决定是否保留当前记录
+     * {@link AsyncOverflowPolicy#DROP_OLDEST} 保留当前记录，重试申领成功后将丢弃水位推进一个任务槽，以最旧的一条记录换取当前记录
+     * </p>
+     *
+     * <p>
+     * 保留当前记录时只做有限次数的非阻塞重试申领，仍无空闲任务槽时丢弃当前记录，记录线程不会被阻塞。
+     * 环缓冲区无法原地覆盖未消费的任务槽，消费者长时间阻塞在记录器中时{@link AsyncOverflowPolicy#DROP_OLDEST}退化为丢弃当前记录，
+     * 每次溢出只丢失一条记录
+     * </p>
+     *
+     * @return 是否保留当前记录
+     * @since 2.6
+     */
+    private boolean overflowing() {
+        switch (OVERFLOW_POLICY) {
+            case SAMPLE:
+                return ThreadLocalRandom.current().nextDouble() < SAMPLE_RATE;
+            case DROP_OLDEST:
+                return true;
+            case DROP_NEWEST:
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 非阻塞地重试申领任务槽
+     *
+     * <p>每次重试前自旋等待，重试{@link #OVERFLOW_CLAIM_RETRIES}次仍无空闲任务槽时放弃</p>
+     *
+     * @param ringBuffer 环缓冲区
+     * @return 申领的序号，放弃时为-1
+     * @since 2.6
+     */
+    static long retryClaiming(RingBuffer<?> ringBuffer) {
+        for (int i = 0; i < OVERFLOW_CLAIM_RETRIES; i++) {
+            Thread.onSpinWait();
+            try {
+                return ringBuffer.tryNext();
+            } catch (InsufficientCapacityException e) {
+                // retry
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 将丢弃水位推进一个任务槽
+     *
+     * <p>
+     * 仅在溢出后重试申领成功时调用，水位至少推进到消费者下一个要处理的最旧任务槽，每次溢出只多丢弃一个任务槽，
+     * 且始终早于当前记录申领的序号，水位只增不减。消费者已越过水位的任务槽不再丢弃，此时溢出没有丢失记录
+     * </p>
+     *
+     * @param ringBuffer       环缓冲区
+     * @param discardWatermark 丢弃水位
+     * @param claimed          当前记录申领的序号
+     * @since 2.6
+     */
+    static void droppingOldest(RingBuffer<?> ringBuffer, AtomicLong discardWatermark, long claimed) {
+        long oldest = ringBuffer.getMinimumGatingSequence() + 1;
+        discardWatermark.getAndUpdate(watermark ->
+            Math.max(watermark, Math.min(Math.max(watermark + 1, oldest), claimed - 1))
+        );
+    }
+
+    /**
+     * 获取丢弃的记录数
+     *
+     * @return 丢弃的记录数
+     * @since 2.6
+     */
+    @Override
+    public long getDiscardedCount() {
+        return DISCARDED.sum();
     }
 
     @Override
     public void shutdown() {
-        DISRUPTOR.shutdown();
+        stopExpiring();
+        Disruptors.shutdown(DISRUPTOR);
+        closing();
     }
 
     @Override
     public void shutdown(long timeout, TimeUnit timeUnit) throws TraceTimeoutException {
+        stopExpiring();
         try {
-            DISRUPTOR.shutdown(timeout, timeUnit);
+            Disruptors.shutdown(DISRUPTOR, timeout, timeUnit);
+            closing();
         } catch (TimeoutException e) {
             throw new TraceTimeoutException(e);
         }
@@ -165,31 +546,41 @@ public class AsyncTraceHandler extends BaseTraceHandler {
      */
     @Override
     public String toString() {
-        String producerStatue = Objects.nonNull(producer) ? "true" : "false";
         return (
             "AsyncTraceHandler{" +
             "DISRUPTOR=" +
             DISRUPTOR +
-            ", producer=" +
-            producerStatue +
+            ", BUFFER_SIZE=" +
+            RING_BUFFER.getBufferSize() +
             ", TASK_HANDLER_SIZE=" +
             TASK_HANDLER_SIZE +
+            ", WAIT_STRATEGY=" +
+            WAIT_STRATEGY +
+            ", OVERFLOW_POLICY=" +
+            OVERFLOW_POLICY +
             '}'
         );
     }
 
     /**
-     * 任务
+     * 任务槽
      *
      * <p>
-     * 通过lombok组件{@link Setter}、{@link Getter}、{@link AllArgsConstructor}简化源代码可读性
+     * 由环缓冲区预分配，字段可变，生产者通过{@link #fill(long, long, String, RecordLabel, StackTraceElement, Object[])}原地填充
      * </p>
+     *
+     * @since 2.6
      */
-    @Setter
-    @Getter
-    @AllArgsConstructor
-    private class Task {
+    private static class TaskEvent implements RepeatAggregator.Emitter {
 
+        /**
+         * 序号
+         */
+        private long sequence;
+        /**
+         * 记录线程标识
+         */
+        private long threadId;
         /**
          * 信息
          */
@@ -199,13 +590,112 @@ public class AsyncTraceHandler extends BaseTraceHandler {
          */
         private RecordLabel label;
         /**
-         * 异常
+         * 调用者堆栈元素
+         */
+        private StackTraceElement caller;
+        /**
+         * 堆栈快照
          */
-        private Exception exception;
+        private StackSnapshot stack;
         /**
          * 参数列表
          */
         private Object[] argArray;
+        /**
+         * 跟踪流水线，预处理通过过滤后设置
+         */
+        private TracePipeline pipeline;
+        /**
+         * 写入信息，预处理增强后设置
+         */
+        private String writeInfo;
+        /**
+         * 是否为过期检查任务槽
+         */
+        private boolean tick;
+        /**
+         * 汇总信息，预处理结束重复段时设置
+         */
+        private String summaryInfo;
+        /**
+         * 汇总记录的调用者堆栈元素
+         */
+        private StackTraceElement summaryCaller;
+        /**
+         * 汇总记录的参数列表
+         */
+        private Object[] summaryArgArray;
+
+        /**
+         * 填充任务槽
+         *
+         * @param sequence 序号
+         * @param threadId 记录线程标识
+         * @param info     信息
+         * @param label    记录标签
+         * @param caller   调用者堆栈元素
+         * @param stack    堆栈快照
+         * @param argArray 参数列表
+         */
+        private void fill(
+            long sequence,
+            long threadId,
+            String info,
+            RecordLabel label,
+            StackTraceElement caller,
+            StackSnapshot stack,
+            Object[] argArray
+        ) {
+            this.sequence = sequence;
+            this.threadId = threadId;
+            this.info = info;
+            this.label = label;
+            this.caller = caller;
+            this.stack = stack;
+            this.argArray = argArray;
+            this.tick = false;
+        }
+
+        /**
+         * 填充为过期检查任务槽
+         *
+         * @param sequence 序号
+         */
+        private void tick(long sequence) {
+            this.sequence = sequence;
+            this.tick = true;
+        }
+
+        /**
+         * 暂存汇总记录，由定序器在提交该任务槽之前记录
+         *
+         * @param info     信息
+         * @param caller   调用者堆栈元素
+         * @param argArray 参数列表
+         */
+        @Override
+        public void emit(String info, StackTraceElement caller, Object[] argArray) {
+            this.summaryInfo = info;
+            this.summaryCaller = caller;
+            this.summaryArgArray = argArray;
+        }
+
+        /**
+         * 清理任务槽
+         */
+        private void clear() {
+            this.info = null;
+            this.label = null;
+            this.caller = null;
+            this.stack = null;
+            this.argArray = null;
+            this.pipeline = null;
+            this.writeInfo = null;
+            this.tick = false;
+            this.summaryInfo = null;
+            this.summaryCaller = null;
+            this.summaryArgArray = null;
+        }
     }
 
     /**
@@ -220,7 +710,7 @@ public class AsyncTraceHandler extends BaseTraceHandler {
 
         @Override
         public Thread newThread(Runnable r) {
-            return new TaskHandler(r, "TaskHandler-" + AL.getAndIncrement());
+            return new TaskHandler(recyclable(r), "TaskHandler-" + AL.getAndIncrement());
         }
     }
 
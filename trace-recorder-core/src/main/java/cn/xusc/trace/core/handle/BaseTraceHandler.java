@@ -16,16 +16,21 @@
 package cn.xusc.trace.core.handle;
 
 import cn.xusc.trace.common.exception.TraceTimeoutException;
-import cn.xusc.trace.common.util.Formats;
+import cn.xusc.trace.common.util.StackTraces;
 import cn.xusc.trace.core.EnhanceInfo;
+import cn.xusc.trace.core.StackSnapshot;
 import cn.xusc.trace.core.TraceRecorder;
 import cn.xusc.trace.core.constant.RecordLabel;
 import cn.xusc.trace.core.constant.Temporary;
 import cn.xusc.trace.core.enhance.InfoEnhancer;
 import cn.xusc.trace.core.enhance.StackInfoEnhancer;
 import cn.xusc.trace.core.filter.InfoFilter;
+import cn.xusc.trace.core.record.BatchInfoRecorder;
 import cn.xusc.trace.core.record.InfoRecorder;
+import cn.xusc.trace.core.record.TemplateInfoRecorder;
 import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -41,6 +46,27 @@ public abstract class BaseTraceHandler implements TraceHandler {
      */
     protected final TraceRecorder RECORDER;
 
+    /**
+     * 重复记录聚合器，未启用时为null
+     *
+     * @since 2.6
+     */
+    private final RepeatAggregator AGGREGATOR;
+
+    /**
+     * 重复记录过期检查者，未启用重复记录聚合时为null
+     *
+     * @since 2.6
+     */
+    private final ScheduledExecutorService EXPIRER;
+
+    /**
+     * 消费线程复用的增强信息，其余线程上为null
+     *
+     * @since 2.6
+     */
+    private final ThreadLocal<EnhanceInfo> RECYCLABLE_ENHANCE_INFO = new ThreadLocal<>();
+
     /**
      * 基本构造
      *
@@ -48,9 +74,30 @@ public abstract class BaseTraceHandler implements TraceHandler {
      * @throws NullPointerException if {@code recorder} is null
      */
     public BaseTraceHandler(TraceRecorder recorder) {
+        this(recorder, 0);
+    }
+
+    /**
+     * 带重复记录聚合窗口的构造
+     *
+     * @param recorder           跟踪记录仪
+     * @param repeatWindowMillis 重复记录聚合窗口毫秒数，不大于0时不聚合
+     * @throws NullPointerException if {@code recorder} is null
+     * @since 2.6
+     */
+    public BaseTraceHandler(TraceRecorder recorder, long repeatWindowMillis) {
         Objects.requireNonNull(recorder);
 
         this.RECORDER = recorder;
+        this.AGGREGATOR = repeatWindowMillis > 0 ? new RepeatAggregator(repeatWindowMillis, this::recording) : null;
+        this.EXPIRER =
+            Objects.isNull(AGGREGATOR)
+                ? null
+                : Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread thread = new Thread(r, "RepeatExpirer");
+                    thread.setDaemon(true);
+                    return thread;
+                });
     }
 
     @Override
@@ -60,12 +107,12 @@ public abstract class BaseTraceHandler implements TraceHandler {
 
     @Override
     public void shutdown() {
-        // nop
+        closing();
     }
 
     @Override
     public void shutdown(long timeout, TimeUnit timeUnit) throws TraceTimeoutException {
-        // nop
+        closing();
     }
 
     /**
@@ -78,63 +125,428 @@ public abstract class BaseTraceHandler implements TraceHandler {
     protected abstract void doHandle(String info, RecordLabel label, Object... argArray);
 
     /**
-     * 处理信息流转
+     * 包装消费任务，运行该任务的线程复用同一个增强信息
      *
-     * @param info      信息
-     * @param label     记录标签
-     * @param exception 异常信息,{@link StackInfoEnhancer}进行解析
-     * @param argArray  参数列表
+     * <p>
+     * 只有处理器自有的消费线程启用复用，记录线程上的增强器可能重入记录，始终新建增强信息
+     * </p>
+     *
+     * @param task 消费任务
+     * @return 复用增强信息的消费任务
+     * @throws NullPointerException if {@code task} is null
+     * @since 2.6
      */
-    protected void handling(String info, RecordLabel label, Exception exception, Object... argArray) {
-        boolean isRecord = true;
-        /*
-          过滤信息
-         */
-        for (InfoFilter infoFilter : RECORDER.getInfoFilters()) {
-            if (!infoFilter.isRecord(info, label)) {
-                /*
-                  此刻，在某个过滤器中过滤掉了
-                 */
-                isRecord = false;
-                break;
+    protected Runnable recyclable(Runnable task) {
+        Objects.requireNonNull(task);
+
+        return () -> {
+            RECYCLABLE_ENHANCE_INFO.set(new EnhanceInfo(null));
+            try {
+                task.run();
+            } finally {
+                RECYCLABLE_ENHANCE_INFO.remove();
             }
+        };
+    }
+
+    /**
+     * 捕获调用者堆栈元素
+     *
+     * <p>
+     * 禁用堆栈信息时直接跳过，不进行任何堆栈游走
+     * </p>
+     *
+     * @return 调用者堆栈元素，禁用堆栈信息或未找到时为null
+     * @since 2.6
+     */
+    protected StackTraceElement captureCaller() {
+        if (!RECORDER.isEnableStackInfo()) {
+            return null;
         }
+        return StackTraces.callerStackTraceElement(Temporary.IGNORE_STACK_CLASS_NAMES).orElse(null);
+    }
 
-        if (isRecord) {
-            if (Objects.nonNull(argArray) && argArray.length > 0) {
+    /**
+     * 捕获堆栈快照
+     *
+     * <p>
+     * 按流水线中增强器所需的最大深度在记录线程上游走一次，没有增强器需要时直接跳过
+     * </p>
+     *
+     * @return 堆栈快照，不需要时为null
+     * @since 2.6
+     */
+    protected StackSnapshot captureStack() {
+        int stackDepth = RECORDER.getPipeline().getStackDepth();
+        if (stackDepth == 0) {
+            return null;
+        }
+        return StackSnapshot.capture(stackDepth, Temporary.IGNORE_STACK_CLASS_NAMES);
+    }
+
+    /**
+     * 捕获调用者堆栈元素，已捕获堆栈快照时直接取快照的首帧
+     *
+     * @param stack 堆栈快照，可以为null
+     * @return 调用者堆栈元素，禁用堆栈信息或未找到时为null
+     * @since 2.6
+     */
+    protected StackTraceElement captureCaller(StackSnapshot stack) {
+        if (Objects.isNull(stack)) {
+            return captureCaller();
+        }
+        return RECORDER.isEnableStackInfo() ? stack.caller() : null;
+    }
+
+    /**
+     * 过滤信息
+     *
+     * @param info   信息
+     * @param label  记录标签
+     * @param caller 调用者堆栈元素
+     * @return 是否记录
+     * @since 2.6
+     */
+    protected boolean filtering(String info, RecordLabel label, StackTraceElement caller) {
+        return filtering(RECORDER.getPipeline(), info, label, caller);
+    }
+
+    /**
+     * 按指定流水线过滤信息
+     *
+     * @param pipeline 跟踪流水线
+     * @param info     信息
+     * @param label    记录标签
+     * @param caller   调用者堆栈元素
+     * @return 是否记录
+     * @since 2.6
+     */
+    protected boolean filtering(TracePipeline pipeline, String info, RecordLabel label, StackTraceElement caller) {
+        InfoFilter[] infoFilters = pipeline.FILTERS;
+        for (int i = 0; i < infoFilters.length; i++) {
+            if (!infoFilters[i].isRecord(info, label, caller)) {
                 /*
-                  格式化信息
+                  此刻，在某个过滤器中过滤掉了
                  */
-                info = Formats.format(info, argArray);
+                return false;
             }
-            EnhanceInfo enhanceInfo = new EnhanceInfo(info);
-            enhanceInfo.setTemporaryValue(Temporary.ENABLE_STACK, RECORDER.isEnableStackInfo());
-            enhanceInfo.setTemporaryValue(Temporary.ENABLE_SHORT_CLASS_NAME, RECORDER.isEnableShortClassName());
-            enhanceInfo.setTemporaryValue(Temporary.ENABLE_THREAD_NAME, RECORDER.isEnableThreadName());
-            enhanceInfo.setTemporaryValue(Temporary.EXCEPTION, exception);
+        }
+        return true;
+    }
+
+    /**
+     * 处理信息流转
+     *
+     * @param info     信息
+     * @param label    记录标签
+     * @param caller   调用者堆栈元素,{@link StackInfoEnhancer}进行解析
+     * @param argArray 参数列表
+     */
+    protected void handling(String info, RecordLabel label, StackTraceElement caller, Object... argArray) {
+        handling(Thread.currentThread().getId(), info, label, caller, null, argArray);
+    }
+
+    /**
+     * 处理指定记录线程的信息流转
+     *
+     * @param threadId 记录线程标识
+     * @param info     信息
+     * @param label    记录标签
+     * @param caller   调用者堆栈元素,{@link StackInfoEnhancer}进行解析
+     * @param stack    堆栈快照，可以为null
+     * @param argArray 参数列表
+     * @since 2.6
+     */
+    protected void handling(
+        long threadId,
+        String info,
+        RecordLabel label,
+        StackTraceElement caller,
+        StackSnapshot stack,
+        Object[] argArray
+    ) {
+        if (filtering(info, label, caller) && !repeating(threadId, info, caller, argArray)) {
+            recording(info, caller, stack, argArray);
+        }
+    }
+
+    /**
+     * 重复记录聚合
+     *
+     * <p>过滤之后、增强之前调用，结束上一段重复时先记录其汇总记录</p>
+     *
+     * @param threadId 记录线程标识
+     * @param info     信息
+     * @param caller   调用者堆栈元素
+     * @param argArray 参数列表
+     * @return 是否为已被聚合的重复记录
+     * @since 2.6
+     */
+    protected boolean repeating(long threadId, String info, StackTraceElement caller, Object[] argArray) {
+        return Objects.nonNull(AGGREGATOR) && AGGREGATOR.absorb(threadId, info, caller, argArray);
+    }
+
+    /**
+     * 重复记录聚合，结束上一段重复时由指定的输出者输出其汇总记录
+     *
+     * @param threadId 记录线程标识
+     * @param info     信息
+     * @param caller   调用者堆栈元素
+     * @param argArray 参数列表
+     * @param emitter  汇总记录输出者
+     * @return 是否为已被聚合的重复记录
+     * @since 2.6
+     */
+    boolean repeating(
+        long threadId,
+        String info,
+        StackTraceElement caller,
+        Object[] argArray,
+        RepeatAggregator.Emitter emitter
+    ) {
+        return Objects.nonNull(AGGREGATOR) && AGGREGATOR.absorb(threadId, info, caller, argArray, emitter);
+    }
+
+    /**
+     * 增强并记录信息
+     *
+     * @param info     信息
+     * @param caller   调用者堆栈元素,{@link StackInfoEnhancer}进行解析
+     * @param argArray 参数列表
+     * @since 2.6
+     */
+    protected void recording(String info, StackTraceElement caller, Object... argArray) {
+        recording(info, caller, null, argArray);
+    }
+
+    /**
+     * 携带堆栈快照增强并记录信息
+     *
+     * @param info     信息
+     * @param caller   调用者堆栈元素,{@link StackInfoEnhancer}进行解析
+     * @param stack    堆栈快照，可以为null
+     * @param argArray 参数列表
+     * @since 2.6
+     */
+    protected void recording(String info, StackTraceElement caller, StackSnapshot stack, Object[] argArray) {
+        TracePipeline pipeline = RECORDER.getPipeline();
+        committing(pipeline, info, caller, argArray, enhancing(pipeline, info, caller, stack, argArray));
+    }
+
+    /**
+     * 增强信息
+     *
+     * <p>依次经过增强器，不触碰记录器，可在多个线程上并行执行</p>
+     *
+     * <p>没有需要文本信息的记录器时仍执行所有增强器，只跳过写入信息的设置和格式化</p>
+     *
+     * @param pipeline 跟踪流水线
+     * @param info     信息
+     * @param caller   调用者堆栈元素,{@link StackInfoEnhancer}进行解析
+     * @param stack    堆栈快照，可以为null
+     * @param argArray 参数列表
+     * @return 写入信息，没有需要文本信息的记录器时为空字符串，增强中止时为null
+     * @since 2.6
+     */
+    protected String enhancing(
+        TracePipeline pipeline,
+        String info,
+        StackTraceElement caller,
+        StackSnapshot stack,
+        Object[] argArray
+    ) {
+        boolean hasTextRecorder = pipeline.hasTextRecorder();
+        /*
+          信息延迟到首次获取时格式化，消费线程上复用增强信息
+         */
+        EnhanceInfo recyclableEnhanceInfo = RECYCLABLE_ENHANCE_INFO.get();
+        EnhanceInfo enhanceInfo = Objects.isNull(recyclableEnhanceInfo)
+            ? new EnhanceInfo(info, argArray)
+            : recyclableEnhanceInfo.reset(info, argArray);
+        enhanceInfo.setEnableStack(Objects.nonNull(caller));
+        enhanceInfo.setEnableShortClassName(RECORDER.isEnableShortClassName());
+        enhanceInfo.setEnableThreadName(RECORDER.isEnableThreadName());
+        enhanceInfo.setCaller(caller);
+        enhanceInfo.setStackSnapshot(stack);
+        try {
             /*
               信息增强
              */
-            for (InfoEnhancer infoEnhancer : RECORDER.getInfoEnhancers()) {
+            InfoEnhancer[] infoEnhancers = pipeline.ENHANCERS;
+            for (int i = 0; i < infoEnhancers.length; i++) {
+                InfoEnhancer infoEnhancer = infoEnhancers[i];
                 enhanceInfo = infoEnhancer.enhance(enhanceInfo);
                 if (Objects.isNull(enhanceInfo)) {
-                    return;
+                    return null;
+                }
+                if (!hasTextRecorder) {
+                    /*
+                      没有需要文本信息的记录器，跳过写入信息
+                     */
+                    continue;
                 }
                 enhanceInfo = infoEnhancer.setWriteInfo(enhanceInfo);
                 if (Objects.isNull(enhanceInfo)) {
-                    return;
+                    return null;
                 }
             }
-
-            String writeInfo = enhanceInfo.getWriteInfo();
-            if (Objects.nonNull(writeInfo)) {
+            return hasTextRecorder ? enhanceInfo.getWriteInfo() : "";
+        } finally {
+            if (Objects.nonNull(recyclableEnhanceInfo)) {
                 /*
-                  信息记录
+                  释放对信息、参数和堆栈的引用
                  */
-                for (InfoRecorder infoRecorder : RECORDER.getInfoRecorders()) {
-                    infoRecorder.record(writeInfo);
-                }
+                recyclableEnhanceInfo.reset(null);
             }
         }
     }
+
+    /**
+     * 提交信息到记录器
+     *
+     * <p>记录器不保证线程安全，同一时刻只应有一个线程提交</p>
+     *
+     * @param pipeline  跟踪流水线
+     * @param info      信息
+     * @param caller    调用者堆栈元素
+     * @param argArray  参数列表
+     * @param writeInfo 写入信息，为null时表示增强已中止，不提交到任何记录器
+     * @since 2.6
+     */
+    protected void committing(
+        TracePipeline pipeline,
+        String info,
+        StackTraceElement caller,
+        Object[] argArray,
+        String writeInfo
+    ) {
+        if (Objects.isNull(writeInfo)) {
+            return;
+        }
+        templateRecording(pipeline.TEMPLATE_RECORDERS, info, caller, argArray);
+        /*
+          信息记录
+         */
+        InfoRecorder[] infoRecorders = pipeline.TEXT_RECORDERS;
+        for (int i = 0; i < infoRecorders.length; i++) {
+            infoRecorders[i].record(writeInfo);
+        }
+    }
+
+    /**
+     * 模板信息记录
+     *
+     * <p>{@link TemplateInfoRecorder}直接接收原始的消息模板和参数</p>
+     *
+     * @param templateRecorders 模板信息记录器集
+     * @param info              信息
+     * @param caller            调用者堆栈元素
+     * @param argArray          参数列表
+     * @since 2.6
+     */
+    private void templateRecording(
+        TemplateInfoRecorder[] templateRecorders,
+        String info,
+        StackTraceElement caller,
+        Object[] argArray
+    ) {
+        if (templateRecorders.length == 0) {
+            return;
+        }
+        String threadName = RECORDER.isEnableThreadName() ? Thread.currentThread().getName() : null;
+        for (int i = 0; i < templateRecorders.length; i++) {
+            templateRecorders[i].record(threadName, caller, info, argArray);
+        }
+    }
+
+    /**
+     * 启动重复记录的定时过期检查
+     *
+     * <p>
+     * 记录停止后不再有一批记录结束来触发过期检查，由过期检查线程按检查间隔执行检查任务，
+     * 重复段最迟在超过聚合窗口一个检查间隔后结束。未启用重复记录聚合时不启动
+     * </p>
+     *
+     * @param tick 检查任务，记录器只由特定线程调用时，检查任务应转交该线程结束重复段
+     * @throws NullPointerException if {@code tick} is null
+     * @since 2.6
+     */
+    protected void startExpiring(Runnable tick) {
+        Objects.requireNonNull(tick);
+
+        if (Objects.isNull(EXPIRER)) {
+            return;
+        }
+        long intervalMillis = AGGREGATOR.getExpireIntervalMillis();
+        EXPIRER.scheduleWithFixedDelay(tick, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 结束超过聚合窗口的重复段，输出了汇总记录时刷新批量信息记录器
+     *
+     * @since 2.6
+     */
+    protected void expiring() {
+        if (Objects.nonNull(AGGREGATOR) && AGGREGATOR.expire()) {
+            flushBatchRecorders();
+        }
+    }
+
+    /**
+     * 刷新批量信息记录器
+     *
+     * <p>一批记录结束时调用，{@link BatchInfoRecorder}在此统一写出已缓冲的信息，启用重复记录聚合时先结束超过聚合窗口的重复段</p>
+     *
+     * @since 2.6
+     */
+    protected void flushing() {
+        if (Objects.nonNull(AGGREGATOR)) {
+            AGGREGATOR.expire();
+        }
+        flushBatchRecorders();
+    }
+
+    /**
+     * 刷新所有批量信息记录器
+     *
+     * @since 2.6
+     */
+    private void flushBatchRecorders() {
+        BatchInfoRecorder[] batchRecorders = RECORDER.getPipeline().BATCH_RECORDERS;
+        for (int i = 0; i < batchRecorders.length; i++) {
+            batchRecorders[i].flush();
+        }
+    }
+
+    /**
+     * 关闭时结束所有重复记录段并刷新
+     *
+     * <p>所有消费线程停止后调用，先停止过期检查</p>
+     *
+     * @since 2.6
+     */
+    protected void closing() {
+        if (Objects.nonNull(AGGREGATOR)) {
+            stopExpiring();
+            AGGREGATOR.drain();
+        }
+        flushing();
+    }
+
+    /**
+     * 停止定时过期检查，等待正在执行的检查任务结束
+     *
+     * @since 2.6
+     */
+    protected void stopExpiring() {
+        if (Objects.isNull(EXPIRER)) {
+            return;
+        }
+        EXPIRER.shutdown();
+        try {
+            EXPIRER.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
@@ -0,0 +1,351 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.core.handle;
+
+import cn.xusc.trace.common.util.Formats;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 重复记录聚合器
+ *
+ * <p>
+ * 位于过滤和增强之间，按记录线程折叠同一调用点连续相同的记录（消息模板和参数均相同）。
+ * 一段重复的第一条记录照常记录，之后的重复只计数；同一线程出现不同的记录、超过聚合窗口或关闭时，
+ * 以一条带重复次数和首末时间的汇总记录结束这段重复
+ * </p>
+ *
+ * <p>
+ * 重复段按记录线程标识分散到多个分片，每个分片单独加锁，不同线程的记录很少竞争同一把锁。
+ * 汇总记录在释放锁之后输出，增强和记录器的写出不在锁内执行
+ * </p>
+ *
+ * @author WangCai
+ * @since 2.6
+ */
+final class RepeatAggregator {
+
+    /**
+     * 汇总信息后缀
+     */
+    private static final String SUMMARY_SUFFIX = " [repeated {} times, {} ~ {}]";
+
+    /**
+     * 缺少参数时补齐的占位符，格式化后与未匹配的占位符一致
+     */
+    private static final String PLACEHOLDER = "{}";
+
+    /**
+     * 时间格式化器
+     */
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter
+        .ofPattern("HH:mm:ss.SSS")
+        .withZone(ZoneId.systemDefault());
+
+    /**
+     * 分片数量
+     */
+    private static final int SHARD_SIZE = 1 << 6;
+
+    /**
+     * 最大过期检查间隔毫秒数
+     */
+    private static final long MAX_EXPIRE_INTERVAL_MILLIS = 100;
+
+    /**
+     * 聚合窗口毫秒数
+     */
+    private final long WINDOW_MILLIS;
+
+    /**
+     * 过期检查间隔毫秒数
+     */
+    private final long EXPIRE_INTERVAL_MILLIS;
+
+    /**
+     * 汇总记录输出者
+     */
+    private final Emitter EMITTER;
+
+    /**
+     * 分片
+     */
+    private final Shard[] SHARDS = new Shard[SHARD_SIZE];
+
+    /**
+     * 下次过期检查的时间
+     */
+    private volatile long nextExpireMillis;
+
+    /**
+     * 基础构造
+     *
+     * @param windowMillis 聚合窗口毫秒数
+     * @param emitter      汇总记录输出者
+     */
+    RepeatAggregator(long windowMillis, Emitter emitter) {
+        this.WINDOW_MILLIS = windowMillis;
+        this.EXPIRE_INTERVAL_MILLIS = Math.min(windowMillis, MAX_EXPIRE_INTERVAL_MILLIS);
+        this.EMITTER = Objects.requireNonNull(emitter);
+        for (int i = 0; i < SHARD_SIZE; i++) {
+            SHARDS[i] = new Shard();
+        }
+    }
+
+    /**
+     * 获取过期检查间隔毫秒数
+     *
+     * @return 过期检查间隔毫秒数，不超过聚合窗口
+     */
+    long getExpireIntervalMillis() {
+        return EXPIRE_INTERVAL_MILLIS;
+    }
+
+    /**
+     * 吸收记录
+     *
+     * <p>与该线程当前重复段相同且未超过聚合窗口时计数并吸收，否则结束当前重复段并以该记录开始新的重复段</p>
+     *
+     * @param threadId 记录线程标识
+     * @param info     信息
+     * @param caller   调用者堆栈元素
+     * @param argArray 参数列表
+     * @return 是否已吸收，已吸收的记录不再增强和记录
+     */
+    boolean absorb(long threadId, String info, StackTraceElement caller, Object[] argArray) {
+        return absorb(threadId, info, caller, argArray, EMITTER);
+    }
+
+    /**
+     * 吸收记录，结束的重复段由指定的输出者输出汇总记录
+     *
+     * <p>吸收记录的线程不能调用记录器时，由输出者暂存汇总记录，再转交给可以调用记录器的线程</p>
+     *
+     * @param threadId 记录线程标识
+     * @param info     信息
+     * @param caller   调用者堆栈元素
+     * @param argArray 参数列表
+     * @param emitter  汇总记录输出者
+     * @return 是否已吸收，已吸收的记录不再增强和记录
+     */
+    boolean absorb(long threadId, String info, StackTraceElement caller, Object[] argArray, Emitter emitter) {
+        long now = System.currentTimeMillis();
+        Shard shard = SHARDS[(int) (threadId & (SHARD_SIZE - 1))];
+        Run ended;
+        synchronized (shard) {
+            Run run = shard.RUNS.get(threadId);
+            if (Objects.nonNull(run) && now - run.first < WINDOW_MILLIS && run.matches(info, caller, argArray)) {
+                run.count++;
+                run.last = now;
+                return true;
+            }
+            ended = shard.RUNS.put(threadId, new Run(info, caller, argArray, now));
+        }
+        if (Objects.nonNull(ended)) {
+            ending(ended, emitter);
+        }
+        return false;
+    }
+
+    /**
+     * 结束超过聚合窗口的重复段
+     *
+     * <p>一批记录结束或定时检查时调用，两次检查至少间隔{@link #EXPIRE_INTERVAL_MILLIS}，未到间隔时直接返回</p>
+     *
+     * @return 是否输出了汇总记录
+     */
+    boolean expire() {
+        long now = System.currentTimeMillis();
+        if (now < nextExpireMillis) {
+            return false;
+        }
+        nextExpireMillis = now + EXPIRE_INTERVAL_MILLIS;
+        List<Run> expired = null;
+        for (Shard shard : SHARDS) {
+            synchronized (shard) {
+                for (Iterator<Run> iterator = shard.RUNS.values().iterator(); iterator.hasNext();) {
+                    Run run = iterator.next();
+                    if (now - run.first >= WINDOW_MILLIS) {
+                        iterator.remove();
+                        if (Objects.isNull(expired)) {
+                            expired = new ArrayList<>();
+                        }
+                        expired.add(run);
+                    }
+                }
+            }
+        }
+        return emitting(expired);
+    }
+
+    /**
+     * 结束所有重复段
+     *
+     * <p>关闭时调用</p>
+     */
+    void drain() {
+        List<Run> drained = new ArrayList<>();
+        for (Shard shard : SHARDS) {
+            synchronized (shard) {
+                drained.addAll(shard.RUNS.values());
+                shard.RUNS.clear();
+            }
+        }
+        emitting(drained);
+    }
+
+    /**
+     * 结束一组已移出分片的重复段
+     *
+     * @param runs 重复段集，可以为null
+     * @return 是否输出了汇总记录
+     */
+    private boolean emitting(List<Run> runs) {
+        if (Objects.isNull(runs)) {
+            return false;
+        }
+        boolean emitted = false;
+        for (Run run : runs) {
+            emitted |= ending(run, EMITTER);
+        }
+        return emitted;
+    }
+
+    /**
+     * 结束重复段，存在重复时输出汇总记录
+     *
+     * @param run     重复段
+     * @param emitter 汇总记录输出者
+     * @return 是否输出了汇总记录
+     */
+    private boolean ending(Run run, Emitter emitter) {
+        if (run.count == 0) {
+            return false;
+        }
+        /*
+          参数按消息模板的占位符对齐，多余的参数丢弃，缺少的参数补齐占位符，汇总参数总是落在汇总后缀上
+         */
+        String info = String.valueOf(run.info);
+        int placeholderCount = Formats.placeholderCount(info);
+        Object[] argArray = Objects.isNull(run.argArray) ? new Object[0] : run.argArray;
+        Object[] summaryArgArray = new Object[placeholderCount + 3];
+        for (int i = 0; i < placeholderCount; i++) {
+            summaryArgArray[i] = i < argArray.length ? argArray[i] : PLACEHOLDER;
+        }
+        summaryArgArray[placeholderCount] = run.count;
+        summaryArgArray[placeholderCount + 1] = TIME_FORMATTER.format(Instant.ofEpochMilli(run.first));
+        summaryArgArray[placeholderCount + 2] = TIME_FORMATTER.format(Instant.ofEpochMilli(run.last));
+        emitter.emit(info.concat(SUMMARY_SUFFIX), run.caller, summaryArgArray);
+        return true;
+    }
+
+    /**
+     * 汇总记录输出者
+     */
+    @FunctionalInterface
+    interface Emitter {
+        /**
+         * 输出汇总记录
+         *
+         * @param info     信息
+         * @param caller   调用者堆栈元素
+         * @param argArray 参数列表
+         */
+        void emit(String info, StackTraceElement caller, Object[] argArray);
+    }
+
+    /**
+     * 分片
+     */
+    private static class Shard {
+
+        /**
+         * 记录线程标识对应的当前重复段
+         */
+        private final Map<Long, Run> RUNS = new HashMap<>();
+    }
+
+    /**
+     * 重复段
+     */
+    private static class Run {
+
+        /**
+         * 信息
+         */
+        private final String info;
+        /**
+         * 调用者堆栈元素
+         */
+        private final StackTraceElement caller;
+        /**
+         * 参数列表
+         */
+        private final Object[] argArray;
+        /**
+         * 首次记录时间
+         */
+        private final long first;
+        /**
+         * 最后重复时间
+         */
+        private long last;
+        /**
+         * 重复次数，不含首次记录
+         */
+        private long count;
+
+        /**
+         * 基础构造
+         *
+         * @param info     信息
+         * @param caller   调用者堆栈元素
+         * @param argArray 参数列表
+         * @param first    首次记录时间
+         */
+        private Run(String info, StackTraceElement caller, Object[] argArray, long first) {
+            this.info = info;
+            this.caller = caller;
+            this.argArray = argArray;
+            this.first = first;
+            this.last = first;
+        }
+
+        /**
+         * 是否与该重复段相同
+         *
+         * @param info     信息
+         * @param caller   调用者堆栈元素
+         * @param argArray 参数列表
+         * @return 是否相同
+         */
+        private boolean matches(String info, StackTraceElement caller, Object[] argArray) {
+            return (
+                Objects.equals(this.info, info) &&
+                Objects.equals(this.caller, caller) &&
+                Arrays.equals(this.argArray, argArray)
+            );
+        }
+    }
+}
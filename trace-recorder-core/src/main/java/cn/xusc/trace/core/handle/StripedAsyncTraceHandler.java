@@ -0,0 +1,730 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.core.handle;
+
+import cn.xusc.trace.common.exception.TraceException;
+import cn.xusc.trace.common.exception.TraceTimeoutException;
+import cn.xusc.trace.core.StackSnapshot;
+import cn.xusc.trace.core.TraceRecorder;
+import cn.xusc.trace.core.config.TraceRecorderConfig;
+import cn.xusc.trace.core.constant.AsyncOverflowPolicy;
+import cn.xusc.trace.core.constant.AsyncWaitStrategy;
+import cn.xusc.trace.core.constant.RecordLabel;
+import com.lmax.disruptor.EventPoller;
+import com.lmax.disruptor.InsufficientCapacityException;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.WaitStrategy;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 分片异步处理器
+ *
+ * <p>
+ * 持有多个环缓冲区，记录线程按线程标识固定选择其中一个发布任务，不同分片上的记录线程不再竞争同一个序号游标。
+ * 所有分片由唯一的提交者线程轮询，增强器、记录器和批量刷新始终在同一个线程上执行，同一线程的记录顺序保持不变
+ * </p>
+ *
+ * <p>
+ * 启用时间戳排序时，提交者按记录时的时间戳全局有序地处理。
+ * 时间戳在申领任务槽之后获取，提交者只在所有分片已申领的任务槽都轮询到时，才处理不晚于轮询前时间的记录，
+ * 时间戳更早的记录不会晚于时间戳更晚的记录被处理
+ * </p>
+ *
+ * <p>
+ * 缓冲大小、等待策略和溢出策略作用于每个分片，提交者空闲时休眠而不使用等待策略，任务处理器数量和单生产者配置不生效
+ * </p>
+ *
+ * @author WangCai
+ * @since 2.6
+ */
+@Slf4j
+public class StripedAsyncTraceHandler extends BaseTraceHandler {
+
+    /**
+     * 默认每个分片的缓冲大小
+     */
+    private static final int DEFAULT_BUFFER_SIZE = 2 << 10;
+
+    /**
+     * 合并延迟纳秒数
+     *
+     * <p>待处理队列已满而分片仍有未发布的任务槽时，退化为只处理早于当前时间该延迟的记录</p>
+     */
+    private static final long MERGE_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    /**
+     * 提交者空闲时的休眠纳秒数
+     */
+    private static final long COMMIT_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    /**
+     * 分片集
+     */
+    private final Stripe[] STRIPES;
+
+    /**
+     * 溢出策略
+     */
+    private final AsyncOverflowPolicy OVERFLOW_POLICY;
+
+    /**
+     * 溢出采样率
+     */
+    private final double SAMPLE_RATE;
+
+    /**
+     * 丢弃计数器
+     */
+    private final LongAdder DISCARDED = new LongAdder();
+
+    /**
+     * 提交者
+     */
+    private final Committer COMMITTER;
+
+    /**
+     * 配置构造
+     *
+     * @param recorder 跟踪记录仪
+     * @param config   跟踪记录仪配置
+     * @throws TraceException       if {@code stripeSize} of config is less 1
+     * @throws NullPointerException if {@code config} is null
+     */
+    public StripedAsyncTraceHandler(TraceRecorder recorder, TraceRecorderConfig config) {
+        super(recorder, Objects.requireNonNull(config).getRepeatWindow());
+        if (config.getStripeSize() < 1) {
+            throw new TraceException("stripeSize < 1");
+        }
+
+        this.OVERFLOW_POLICY = Objects.requireNonNullElse(config.getOverflowPolicy(), AsyncOverflowPolicy.BLOCK);
+        this.SAMPLE_RATE = config.getSampleRate();
+        int bufferSize = config.getBufferSize() == 0 ? DEFAULT_BUFFER_SIZE : config.getBufferSize();
+        AsyncWaitStrategy waitStrategy = Objects.requireNonNullElse(
+            config.getWaitStrategy(),
+            AsyncWaitStrategy.BLOCKING
+        );
+        this.STRIPES = new Stripe[config.getStripeSize()];
+        for (int i = 0; i < STRIPES.length; i++) {
+            STRIPES[i] = new Stripe(bufferSize, AsyncTraceHandler.generateWaitStrategy(waitStrategy));
+        }
+        COMMITTER = new Committer(config.isEnableTimestampOrder(), STRIPES.length * bufferSize);
+        COMMITTER.start();
+    }
+
+    /**
+     * 信息处理
+     *
+     * <p>按当前线程标识选择分片，同一线程总是发布到同一个分片</p>
+     *
+     * @param info     信息
+     * @param label    记录标签
+     * @param argArray 参数列表
+     */
+    @Override
+    protected void doHandle(String info, RecordLabel label, Object... argArray) {
+        StackSnapshot stack = captureStack();
+        StackTraceElement caller = captureCaller(stack);
+        STRIPES[(int) (Thread.currentThread().getId() % STRIPES.length)].publish(info, label, caller, stack, argArray);
+    }
+
+    /**
+     * 环缓冲区溢出处理
+     *
+     * @return 是否保留当前记录
+     * @see AsyncTraceHandler
+     */
+    private boolean overflowing() {
+        switch (OVERFLOW_POLICY) {
+            case SAMPLE:
+                return ThreadLocalRandom.current().nextDouble() < SAMPLE_RATE;
+            case DROP_OLDEST:
+                return true;
+            case DROP_NEWEST:
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 是否按丢弃水位丢弃任务槽
+     *
+     * @param stripe 分片
+     * @param event  任务槽
+     * @return 是否丢弃
+     */
+    private boolean discarding(Stripe stripe, StripeEvent event) {
+        if (OVERFLOW_POLICY == AsyncOverflowPolicy.DROP_OLDEST && event.sequence <= stripe.DISCARD_WATERMARK.get()) {
+            DISCARDED.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 获取丢弃的记录数
+     *
+     * @return 丢弃的记录数
+     */
+    @Override
+    public long getDiscardedCount() {
+        return DISCARDED.sum();
+    }
+
+    @Override
+    public void shutdown() {
+        COMMITTER.shutdown();
+        try {
+            COMMITTER.THREAD.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closing();
+    }
+
+    @Override
+    public void shutdown(long timeout, TimeUnit timeUnit) throws TraceTimeoutException {
+        COMMITTER.shutdown();
+        try {
+            timeUnit.timedJoin(COMMITTER.THREAD, timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (COMMITTER.THREAD.isAlive()) {
+            throw new TraceTimeoutException("committer not terminated in time");
+        }
+        closing();
+    }
+
+    /**
+     * 分片异步处理器详情
+     *
+     * @return 详情
+     */
+    @Override
+    public String toString() {
+        return (
+            "StripedAsyncTraceHandler{" +
+            "STRIPE_SIZE=" +
+            STRIPES.length +
+            ", BUFFER_SIZE=" +
+            STRIPES[0].RING_BUFFER.getBufferSize() +
+            ", OVERFLOW_POLICY=" +
+            OVERFLOW_POLICY +
+            ", TIMESTAMP_ORDER=" +
+            COMMITTER.ORDERED +
+            '}'
+        );
+    }
+
+    /**
+     * 分片
+     *
+     * <p>
+     * 只创建环缓冲区，由提交者通过{@link EventPoller}轮询
+     * </p>
+     */
+    private class Stripe {
+
+        /**
+         * {@link RingBuffer}
+         */
+        private final RingBuffer<StripeEvent> RING_BUFFER;
+
+        /**
+         * 轮询者
+         */
+        private final EventPoller<StripeEvent> POLLER;
+
+        /**
+         * 丢弃水位
+         */
+        private final AtomicLong DISCARD_WATERMARK = new AtomicLong(-1);
+
+        /**
+         * 基础构造
+         *
+         * @param bufferSize   缓冲大小
+         * @param waitStrategy 等待策略
+         */
+        private Stripe(int bufferSize, WaitStrategy waitStrategy) {
+            RING_BUFFER = RingBuffer.createMultiProducer(StripeEvent::new, bufferSize, waitStrategy);
+            POLLER = RING_BUFFER.newPoller();
+            RING_BUFFER.addGatingSequences(POLLER.getSequence());
+        }
+
+        /**
+         * 申领任务槽并原地填充后发布，环缓冲区已满时按溢出策略处理，非阻塞策略下不会阻塞记录线程
+         *
+         * <p>启用时间戳排序时，时间戳在申领任务槽之后获取</p>
+         *
+         * @param info      信息
+         * @param label     记录标签
+         * @param caller    调用者堆栈元素
+         * @param stack     堆栈快照
+         * @param argArray  参数列表
+         */
+        private void publish(
+            String info,
+            RecordLabel label,
+            StackTraceElement caller,
+            StackSnapshot stack,
+            Object[] argArray
+        ) {
+            long sequence;
+            if (OVERFLOW_POLICY == AsyncOverflowPolicy.BLOCK) {
+                sequence = RING_BUFFER.next();
+            } else {
+                try {
+                    sequence = RING_BUFFER.tryNext();
+                } catch (InsufficientCapacityException e) {
+                    sequence = overflowing() ? AsyncTraceHandler.retryClaiming(RING_BUFFER) : -1;
+                    if (sequence >= 0 && OVERFLOW_POLICY == AsyncOverflowPolicy.DROP_OLDEST) {
+                        AsyncTraceHandler.droppingOldest(RING_BUFFER, DISCARD_WATERMARK, sequence);
+                    }
+                }
+                if (sequence < 0) {
+                    DISCARDED.increment();
+                    return;
+                }
+            }
+            long timestamp = COMMITTER.ORDERED ? System.nanoTime() : 0;
+            try {
+                RING_BUFFER
+                    .get(sequence)
+                    .fill(sequence, timestamp, Thread.currentThread().getId(), info, label, caller, stack, argArray);
+            } finally {
+                RING_BUFFER.publish(sequence);
+            }
+        }
+    }
+
+    /**
+     * 提交者
+     *
+     * <p>
+     * 单线程轮询所有分片，是唯一调用增强器、记录器和批量刷新的线程。
+     * 未启用时间戳排序时按轮询顺序直接处理，每轮轮询结束时刷新，空闲时结束超过聚合窗口的重复段
+     * </p>
+     *
+     * <p>
+     * 启用时间戳排序时，将任务复制到按时间戳排序的待处理队列中。
+     * 轮询前记录当前时间和各分片已申领的游标，轮询后所有分片都已追上各自的游标时，
+     * 之后申领的任务槽时间戳必然晚于该时间，可安全处理不晚于该时间的任务。
+     * 待处理队列达到上限时暂停轮询，让环缓冲区的溢出策略继续生效
+     * </p>
+     */
+    private class Committer implements Runnable {
+
+        /**
+         * 提交线程
+         */
+        private final Thread THREAD;
+
+        /**
+         * 是否按时间戳排序
+         */
+        private final boolean ORDERED;
+
+        /**
+         * 待处理队列
+         */
+        private final PriorityQueue<MergeTask> PENDING = new PriorityQueue<>();
+
+        /**
+         * 待处理队列上限
+         */
+        private final int MAX_PENDING;
+
+        /**
+         * 轮询前各分片已申领的游标
+         */
+        private final long[] CLAIMED;
+
+        /**
+         * 运行标识
+         */
+        private volatile boolean running = true;
+
+        /**
+         * 轮询顺序号，时间戳相同时保持轮询顺序
+         */
+        private long order;
+
+        /**
+         * 基础构造
+         *
+         * @param ordered    是否按时间戳排序
+         * @param maxPending 待处理队列上限
+         */
+        private Committer(boolean ordered, int maxPending) {
+            this.ORDERED = ordered;
+            this.MAX_PENDING = maxPending;
+            this.CLAIMED = new long[STRIPES.length];
+            this.THREAD = new StripeThreadFactory("TaskCommitter").newThread(this);
+        }
+
+        /**
+         * 启动提交线程
+         */
+        private void start() {
+            THREAD.start();
+        }
+
+        /**
+         * 停止轮询，提交线程处理完所有已发布的任务后退出
+         */
+        private void shutdown() {
+            running = false;
+            LockSupport.unpark(THREAD);
+        }
+
+        @Override
+        public void run() {
+            if (!ORDERED) {
+                while (running) {
+                    if (!draining()) {
+                        expiring();
+                        LockSupport.parkNanos(COMMIT_PARK_NANOS);
+                    }
+                }
+                /*
+                  关闭时处理完所有分片中已发布的任务
+                 */
+                while (draining()) {
+                    // nop
+                }
+                return;
+            }
+            while (running) {
+                long horizon = System.nanoTime();
+                for (int i = 0; i < STRIPES.length; i++) {
+                    CLAIMED[i] = STRIPES[i].RING_BUFFER.getCursor();
+                }
+                boolean polled = PENDING.size() < MAX_PENDING && polling();
+                boolean merged;
+                if (caughtUp()) {
+                    merged = merging(horizon, false);
+                } else if (PENDING.size() >= MAX_PENDING) {
+                    /*
+                      待处理队列已满，退化为按合并延迟处理，避免停止轮询后无法追上游标
+                     */
+                    merged = merging(horizon - MERGE_DELAY_NANOS, false);
+                } else {
+                    merged = false;
+                }
+                if (!polled && !merged) {
+                    expiring();
+                    LockSupport.parkNanos(COMMIT_PARK_NANOS);
+                }
+            }
+            /*
+              关闭时处理完所有分片中已发布的任务
+             */
+            while (polling()) {
+                // nop
+            }
+            merging(0, true);
+        }
+
+        /**
+         * 轮询所有分片并按轮询顺序直接处理，轮询到任务时刷新
+         *
+         * @return 是否轮询到任务
+         */
+        private boolean draining() {
+            boolean polled = false;
+            for (Stripe stripe : STRIPES) {
+                try {
+                    polled |=
+                        stripe.POLLER.poll((event, sequence, endOfBatch) -> {
+                            try {
+                                if (!discarding(stripe, event)) {
+                                    handling(
+                                        event.threadId,
+                                        event.info,
+                                        event.label,
+                                        event.caller,
+                                        event.stack,
+                                        event.argArray
+                                    );
+                                }
+                            } catch (RuntimeException e) {
+                                log.error("commit record failed", e);
+                            } finally {
+                                event.clear();
+                            }
+                            return true;
+                        }) ==
+                        EventPoller.PollState.PROCESSING;
+                } catch (Exception e) {
+                    log.error("poll stripe failed", e);
+                }
+            }
+            if (polled) {
+                flushing();
+            }
+            return polled;
+        }
+
+        /**
+         * 轮询所有分片到待处理队列
+         *
+         * @return 是否轮询到任务
+         */
+        private boolean polling() {
+            boolean polled = false;
+            for (Stripe stripe : STRIPES) {
+                try {
+                    polled |=
+                        stripe.POLLER.poll((event, sequence, endOfBatch) -> {
+                            if (!discarding(stripe, event)) {
+                                PENDING.add(new MergeTask(event, order++));
+                            }
+                            event.clear();
+                            return true;
+                        }) ==
+                        EventPoller.PollState.PROCESSING;
+                } catch (Exception e) {
+                    log.error("poll stripe failed", e);
+                }
+            }
+            return polled;
+        }
+
+        /**
+         * 所有分片是否都已轮询到轮询前已申领的游标
+         *
+         * @return 是否追上
+         */
+        private boolean caughtUp() {
+            for (int i = 0; i < STRIPES.length; i++) {
+                if (STRIPES[i].POLLER.getSequence().get() < CLAIMED[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * 按时间戳顺序处理不晚于截止时间戳的任务
+         *
+         * @param deadline 截止时间戳
+         * @param all      是否忽略截止时间戳处理所有任务
+         * @return 是否处理了任务
+         */
+        private boolean merging(long deadline, boolean all) {
+            boolean merged = false;
+            MergeTask task;
+            while (Objects.nonNull(task = PENDING.peek()) && (all || task.TIMESTAMP - deadline <= 0)) {
+                PENDING.poll();
+                try {
+                    handling(task.THREAD_ID, task.INFO, task.LABEL, task.CALLER, task.STACK, task.ARG_ARRAY);
+                } catch (RuntimeException e) {
+                    log.error("merge record failed", e);
+                }
+                merged = true;
+            }
+            if (merged) {
+                flushing();
+            }
+            return merged;
+        }
+    }
+
+    /**
+     * 任务槽
+     *
+     * <p>由环缓冲区预分配，生产者原地填充</p>
+     */
+    private static class StripeEvent {
+
+        /**
+         * 序号
+         */
+        private long sequence;
+        /**
+         * 时间戳
+         */
+        private long timestamp;
+        /**
+         * 记录线程标识
+         */
+        private long threadId;
+        /**
+         * 信息
+         */
+        private String info;
+        /**
+         * 记录标签
+         */
+        private RecordLabel label;
+        /**
+         * 调用者堆栈元素
+         */
+        private StackTraceElement caller;
+        /**
+         * 堆栈快照
+         */
+        private StackSnapshot stack;
+        /**
+         * 参数列表
+         */
+        private Object[] argArray;
+
+        /**
+         * 填充任务槽
+         *
+         * @param sequence  序号
+         * @param timestamp 时间戳
+         * @param threadId  记录线程标识
+         * @param info      信息
+         * @param label     记录标签
+         * @param caller    调用者堆栈元素
+         * @param stack     堆栈快照
+         * @param argArray  参数列表
+         */
+        private void fill(
+            long sequence,
+            long timestamp,
+            long threadId,
+            String info,
+            RecordLabel label,
+            StackTraceElement caller,
+            StackSnapshot stack,
+            Object[] argArray
+        ) {
+            this.sequence = sequence;
+            this.timestamp = timestamp;
+            this.threadId = threadId;
+            this.info = info;
+            this.label = label;
+            this.caller = caller;
+            this.stack = stack;
+            this.argArray = argArray;
+        }
+
+        /**
+         * 清理任务槽
+         */
+        private void clear() {
+            this.info = null;
+            this.label = null;
+            this.caller = null;
+            this.stack = null;
+            this.argArray = null;
+        }
+    }
+
+    /**
+     * 合并任务
+     *
+     * <p>从任务槽复制，按时间戳、轮询顺序号排序</p>
+     */
+    private static class MergeTask implements Comparable<MergeTask> {
+
+        /**
+         * 时间戳
+         */
+        private final long TIMESTAMP;
+        /**
+         * 轮询顺序号
+         */
+        private final long ORDER;
+        /**
+         * 记录线程标识
+         */
+        private final long THREAD_ID;
+        /**
+         * 信息
+         */
+        private final String INFO;
+        /**
+         * 记录标签
+         */
+        private final RecordLabel LABEL;
+        /**
+         * 调用者堆栈元素
+         */
+        private final StackTraceElement CALLER;
+        /**
+         * 堆栈快照
+         */
+        private final StackSnapshot STACK;
+        /**
+         * 参数列表
+         */
+        private final Object[] ARG_ARRAY;
+
+        /**
+         * 基础构造
+         *
+         * @param event 任务槽
+         * @param order 轮询顺序号
+         */
+        private MergeTask(StripeEvent event, long order) {
+            this.TIMESTAMP = event.timestamp;
+            this.ORDER = order;
+            this.THREAD_ID = event.threadId;
+            this.INFO = event.info;
+            this.LABEL = event.label;
+            this.CALLER = event.caller;
+            this.STACK = event.stack;
+            this.ARG_ARRAY = event.argArray;
+        }
+
+        @Override
+        public int compareTo(MergeTask other) {
+            long diff = TIMESTAMP - other.TIMESTAMP;
+            if (diff != 0) {
+                return diff < 0 ? -1 : 1;
+            }
+            return Long.compare(ORDER, other.ORDER);
+        }
+    }
+
+    /**
+     * 分片线程工厂，创建的线程复用增强信息
+     */
+    private class StripeThreadFactory implements ThreadFactory {
+
+        /**
+         * 线程名
+         */
+        private final String NAME;
+
+        /**
+         * 基础构造
+         *
+         * @param name 线程名
+         */
+        private StripeThreadFactory(String name) {
+            this.NAME = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            return new Thread(recyclable(r), NAME);
+        }
+    }
+}
@@ -15,9 +15,10 @@
  */
 package cn.xusc.trace.core.handle;
 
-import cn.xusc.trace.common.exception.TraceException;
 import cn.xusc.trace.core.TraceRecorder;
+import cn.xusc.trace.core.config.TraceRecorderConfig;
 import cn.xusc.trace.core.constant.RecordLabel;
+import java.util.Objects;
 
 /**
  * 同步处理器
@@ -36,8 +37,41 @@ public class SyncTraceHandler extends BaseTraceHandler {
         super(recorder);
     }
 
+    /**
+     * 配置构造
+     *
+     * @param recorder 跟踪记录仪
+     * @param config   跟踪记录仪配置
+     * @throws NullPointerException if {@code config} is null
+     * @since 2.6
+     */
+    public SyncTraceHandler(TraceRecorder recorder, TraceRecorderConfig config) {
+        super(recorder, Objects.requireNonNull(config).getRepeatWindow());
+        /*
+          同步模式下记录器本就由多个记录线程调用，过期检查线程直接结束重复段
+         */
+        startExpiring(this::expiring);
+    }
+
+    /**
+     * 信息处理
+     *
+     * <p>与异步处理器一致，先捕获调用者堆栈元素再过滤，按调用点区分的过滤器在同步模式下同样生效，每条记录即为一批，记录后立即刷新</p>
+     *
+     * <p>
+     * 过滤只需要调用者堆栈元素，堆栈快照在通过过滤和重复记录聚合之后才捕获，被过滤或聚合的记录不会为增强器游走完整的调用栈
+     * </p>
+     *
+     * @param info     信息
+     * @param label    记录标签
+     * @param argArray 参数列表
+     */
     @Override
     public void doHandle(String info, RecordLabel label, Object... argArray) {
-        handling(info, label, new TraceException(), argArray);
+        StackTraceElement caller = captureCaller();
+        if (filtering(info, label, caller) && !repeating(Thread.currentThread().getId(), info, caller, argArray)) {
+            recording(info, caller, captureStack(), argArray);
+            flushing();
+        }
     }
 }
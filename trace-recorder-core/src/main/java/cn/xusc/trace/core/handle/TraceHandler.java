@@ -51,4 +51,16 @@ public interface TraceHandler {
      * @since 2.1
      */
     void shutdown(long timeout, TimeUnit timeUnit) throws TraceTimeoutException;
+
+    /**
+     * 获取丢弃的记录数
+     *
+     * <p>同步处理器不会丢弃记录</p>
+     *
+     * @return 丢弃的记录数
+     * @since 2.6
+     */
+    default long getDiscardedCount() {
+        return 0;
+    }
 }
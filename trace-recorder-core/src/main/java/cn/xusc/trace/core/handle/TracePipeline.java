@@ -0,0 +1,318 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.core.handle;
+
+import cn.xusc.trace.core.constant.RecordLabel;
+import cn.xusc.trace.core.enhance.InfoEnhancer;
+import cn.xusc.trace.core.filter.InfoFilter;
+import cn.xusc.trace.core.filter.RecordLabelInfoFilter;
+import cn.xusc.trace.core.record.BatchInfoRecorder;
+import cn.xusc.trace.core.record.InfoRecorder;
+import cn.xusc.trace.core.record.TemplateInfoRecorder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 跟踪管道
+ *
+ * <p>
+ * 跟踪记录仪组件的不可变快照，由跟踪记录仪在组件变化后编译，处理器在每条记录上只做数组遍历。
+ * 记录器按能力预先分组，记录时不再进行类型判断
+ * </p>
+ * <p>
+ * 跟踪记录仪以写时复制的方式发布管道：添加、移除组件时基于当前管道编译新的管道并原子替换，读取方始终看到完整一致的组件快照
+ * </p>
+ *
+ * @author WangCai
+ * @since 2.6
+ */
+public final class TracePipeline {
+
+    /**
+     * 空的跟踪管道
+     */
+    public static final TracePipeline EMPTY = compile(List.of(), List.of(), List.of());
+
+    /**
+     * 信息过滤器快照
+     */
+    private final List<InfoFilter> INFO_FILTERS;
+
+    /**
+     * 信息增强器快照
+     */
+    private final List<InfoEnhancer> INFO_ENHANCERS;
+
+    /**
+     * 信息记录器快照
+     */
+    private final List<InfoRecorder> INFO_RECORDERS;
+
+    /**
+     * 信息过滤器集
+     */
+    final InfoFilter[] FILTERS;
+
+    /**
+     * 信息增强器集，已按{@link cn.xusc.trace.common.annotation.TraceOrder}排序
+     */
+    final InfoEnhancer[] ENHANCERS;
+
+    /**
+     * 文本信息记录器集
+     */
+    final InfoRecorder[] TEXT_RECORDERS;
+
+    /**
+     * 模板信息记录器集
+     */
+    final TemplateInfoRecorder[] TEMPLATE_RECORDERS;
+
+    /**
+     * 批量信息记录器集
+     */
+    final BatchInfoRecorder[] BATCH_RECORDERS;
+
+    /**
+     * 是否丢弃{@link RecordLabel#HIDE}标签的记录
+     *
+     * <p>过滤器集中存在{@link RecordLabelInfoFilter}时，隐藏记录必然被过滤，可在记录线程上直接跳过</p>
+     */
+    private final boolean HIDE_DISCARDED;
+
+    /**
+     * 增强器集所需的最大堆栈深度
+     */
+    private final int STACK_DEPTH;
+
+    /**
+     * 基础构造
+     *
+     * @param infoFilters       信息过滤器快照
+     * @param infoEnhancers     信息增强器快照
+     * @param infoRecorders     信息记录器快照
+     * @param filters           信息过滤器集
+     * @param enhancers         信息增强器集
+     * @param textRecorders     文本信息记录器集
+     * @param templateRecorders 模板信息记录器集
+     * @param batchRecorders    批量信息记录器集
+     */
+    private TracePipeline(
+        List<InfoFilter> infoFilters,
+        List<InfoEnhancer> infoEnhancers,
+        List<InfoRecorder> infoRecorders,
+        InfoFilter[] filters,
+        InfoEnhancer[] enhancers,
+        InfoRecorder[] textRecorders,
+        TemplateInfoRecorder[] templateRecorders,
+        BatchInfoRecorder[] batchRecorders
+    ) {
+        this.INFO_FILTERS = infoFilters;
+        this.INFO_ENHANCERS = infoEnhancers;
+        this.INFO_RECORDERS = infoRecorders;
+        this.FILTERS = filters;
+        this.ENHANCERS = enhancers;
+        this.TEXT_RECORDERS = textRecorders;
+        this.TEMPLATE_RECORDERS = templateRecorders;
+        this.BATCH_RECORDERS = batchRecorders;
+        boolean hideDiscarded = false;
+        for (InfoFilter filter : filters) {
+            /*
+              子类可能改写过滤规则，只认定记录标签信息过滤器本身
+             */
+            if (filter.getClass() == RecordLabelInfoFilter.class) {
+                hideDiscarded = true;
+                break;
+            }
+        }
+        this.HIDE_DISCARDED = hideDiscarded;
+        int stackDepth = 0;
+        for (InfoEnhancer enhancer : enhancers) {
+            stackDepth = Math.max(stackDepth, enhancer.stackDepth());
+        }
+        this.STACK_DEPTH = stackDepth;
+    }
+
+    /**
+     * 编译跟踪管道
+     *
+     * @param filters   信息过滤器集
+     * @param enhancers 有序的信息增强器集
+     * @param recorders 信息记录器集
+     * @return 跟踪管道
+     * @throws NullPointerException if {@code filters} or {@code enhancers} or {@code recorders} is null
+     */
+    public static TracePipeline compile(
+        List<InfoFilter> filters,
+        List<InfoEnhancer> enhancers,
+        List<InfoRecorder> recorders
+    ) {
+        Objects.requireNonNull(filters);
+        Objects.requireNonNull(enhancers);
+        Objects.requireNonNull(recorders);
+
+        List<InfoFilter> filterList = new ArrayList<>();
+        for (InfoFilter filter : filters) {
+            filterList.add(filter);
+        }
+        List<InfoEnhancer> enhancerList = new ArrayList<>();
+        for (InfoEnhancer enhancer : enhancers) {
+            enhancerList.add(enhancer);
+        }
+        List<InfoRecorder> recorderList = new ArrayList<>();
+        List<InfoRecorder> textRecorders = new ArrayList<>();
+        List<TemplateInfoRecorder> templateRecorders = new ArrayList<>();
+        List<BatchInfoRecorder> batchRecorders = new ArrayList<>();
+        for (InfoRecorder recorder : recorders) {
+            recorderList.add(recorder);
+            if (recorder instanceof TemplateInfoRecorder) {
+                templateRecorders.add((TemplateInfoRecorder) recorder);
+            } else {
+                textRecorders.add(recorder);
+            }
+            if (recorder instanceof BatchInfoRecorder) {
+                batchRecorders.add((BatchInfoRecorder) recorder);
+            }
+        }
+        return new TracePipeline(
+            Collections.unmodifiableList(filterList),
+            Collections.unmodifiableList(enhancerList),
+            Collections.unmodifiableList(recorderList),
+            filterList.toArray(new InfoFilter[0]),
+            enhancerList.toArray(new InfoEnhancer[0]),
+            textRecorders.toArray(new InfoRecorder[0]),
+            templateRecorders.toArray(new TemplateInfoRecorder[0]),
+            batchRecorders.toArray(new BatchInfoRecorder[0])
+        );
+    }
+
+    /**
+     * 替换信息过滤器后编译新的跟踪管道
+     *
+     * @param filters 信息过滤器集
+     * @return 新的跟踪管道
+     * @throws NullPointerException if {@code filters} is null
+     */
+    public TracePipeline withInfoFilters(List<InfoFilter> filters) {
+        return compile(filters, INFO_ENHANCERS, INFO_RECORDERS);
+    }
+
+    /**
+     * 替换信息增强器后编译新的跟踪管道
+     *
+     * @param enhancers 有序的信息增强器集
+     * @return 新的跟踪管道
+     * @throws NullPointerException if {@code enhancers} is null
+     */
+    public TracePipeline withInfoEnhancers(List<InfoEnhancer> enhancers) {
+        return compile(INFO_FILTERS, enhancers, INFO_RECORDERS);
+    }
+
+    /**
+     * 替换信息记录器后编译新的跟踪管道
+     *
+     * @param recorders 信息记录器集
+     * @return 新的跟踪管道
+     * @throws NullPointerException if {@code recorders} is null
+     */
+    public TracePipeline withInfoRecorders(List<InfoRecorder> recorders) {
+        return compile(INFO_FILTERS, INFO_ENHANCERS, recorders);
+    }
+
+    /**
+     * 获取信息过滤器快照
+     *
+     * @return 不可修改的信息过滤器集
+     */
+    public List<InfoFilter> getInfoFilters() {
+        return INFO_FILTERS;
+    }
+
+    /**
+     * 获取信息增强器快照
+     *
+     * @return 不可修改的有序信息增强器集
+     */
+    public List<InfoEnhancer> getInfoEnhancers() {
+        return INFO_ENHANCERS;
+    }
+
+    /**
+     * 获取信息记录器快照
+     *
+     * @return 不可修改的信息记录器集
+     */
+    public List<InfoRecorder> getInfoRecorders() {
+        return INFO_RECORDERS;
+    }
+
+    /**
+     * 是否存在文本信息记录器
+     *
+     * @return 是否存在
+     */
+    public boolean hasTextRecorder() {
+        return TEXT_RECORDERS.length > 0;
+    }
+
+    /**
+     * 获取增强器集所需的最大堆栈深度
+     *
+     * @return 最大堆栈深度，为0时不需要捕获堆栈快照
+     * @since 2.6
+     */
+    public int getStackDepth() {
+        return STACK_DEPTH;
+    }
+
+    /**
+     * 是否丢弃隐藏记录
+     *
+     * @return 是否丢弃
+     */
+    public boolean isHideDiscarded() {
+        return HIDE_DISCARDED;
+    }
+
+    /**
+     * 跟踪管道详情
+     *
+     * @return 详情
+     */
+    @Override
+    public String toString() {
+        return (
+            "TracePipeline{" +
+            "FILTERS=" +
+            FILTERS.length +
+            ", ENHANCERS=" +
+            ENHANCERS.length +
+            ", TEXT_RECORDERS=" +
+            TEXT_RECORDERS.length +
+            ", TEMPLATE_RECORDERS=" +
+            TEMPLATE_RECORDERS.length +
+            ", BATCH_RECORDERS=" +
+            BATCH_RECORDERS.length +
+            ", HIDE_DISCARDED=" +
+            HIDE_DISCARDED +
+            ", STACK_DEPTH=" +
+            STACK_DEPTH +
+            '}'
+        );
+    }
+}
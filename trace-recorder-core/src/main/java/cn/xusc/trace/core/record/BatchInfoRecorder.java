@@ -0,0 +1,34 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.core.record;
+
+/**
+ * 批量信息记录器
+ *
+ * <p>
+ * {@link #record(String)}可以只缓冲写出信息，由处理器在一批记录结束时调用{@link #flush()}统一写出，
+ * 同步处理时每条记录即为一批，异步处理时在{@code endOfBatch}时刷新
+ * </p>
+ *
+ * @author WangCai
+ * @since 2.6
+ */
+public interface BatchInfoRecorder extends InfoRecorder {
+    /**
+     * 刷新已缓冲的写出信息
+     */
+    void flush();
+}
@@ -20,18 +20,54 @@ import java.io.PrintStream;
 /**
  * 控制台信息记录器
  *
+ * <p>
+ * 记录先写入缓冲区，由处理器在一批记录结束时{@link #flush()}，将多条记录合并为一次打印；
+ * 缓冲区超过{@link #FLUSH_THRESHOLD}时提前打印
+ * </p>
+ *
  * @author WangCai
  * @since 1.0
  */
-public class ConsoleInfoRecorder implements InfoRecorder {
+public class ConsoleInfoRecorder implements BatchInfoRecorder {
 
     /**
      * 系统默认输出流
      */
     private static final PrintStream PRINT = System.out;
 
+    /**
+     * 提前打印阈值
+     *
+     * @since 2.6
+     */
+    private static final int FLUSH_THRESHOLD = 1 << 13;
+
+    /**
+     * 写出缓冲区
+     *
+     * @since 2.6
+     */
+    private final StringBuilder BUFFER = new StringBuilder(FLUSH_THRESHOLD);
+
+    @Override
+    public synchronized void record(String writeInfo) {
+        BUFFER.append(writeInfo);
+        if (BUFFER.length() >= FLUSH_THRESHOLD) {
+            flush();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 2.6
+     */
     @Override
-    public void record(String writeInfo) {
-        PRINT.print(writeInfo);
+    public synchronized void flush() {
+        if (BUFFER.length() == 0) {
+            return;
+        }
+        PRINT.print(BUFFER);
+        BUFFER.setLength(0);
     }
 }
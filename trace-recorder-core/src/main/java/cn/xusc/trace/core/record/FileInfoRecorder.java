@@ -18,10 +18,12 @@ package cn.xusc.trace.core.record;
 import cn.xusc.trace.common.annotation.CloseOrder;
 import cn.xusc.trace.common.exception.TraceException;
 import cn.xusc.trace.common.util.Runtimes;
+import java.io.BufferedWriter;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
 import java.util.Objects;
 
 /**
@@ -31,16 +33,27 @@ import java.util.Objects;
  * 文件资源应该确保最后关闭
  * </p>
  *
+ * <p>
+ * 记录只写入缓冲区，由处理器在一批记录结束时{@link #flush()}，将多条记录合并为一次写出
+ * </p>
+ *
  * @author WangCai
  * @since 1.0
  */
 @CloseOrder
-public class FileInfoRecorder implements InfoRecorder, Closeable {
+public class FileInfoRecorder implements BatchInfoRecorder, Closeable {
+
+    /**
+     * 写出缓冲大小
+     *
+     * @since 2.6
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
 
     /**
      * 文件写出器
      */
-    private final FileWriter writer;
+    private final Writer writer;
 
     /**
      * 构建一个指定{@code filePath}的文件信息记录器
@@ -74,7 +87,7 @@ public class FileInfoRecorder implements InfoRecorder, Closeable {
             throw new TraceException("target file can't write");
         }
         try {
-            writer = new FileWriter(file);
+            writer = new BufferedWriter(new FileWriter(file), BUFFER_SIZE);
             Runtimes.addCleanTask(this);
         } catch (IOException e) {
             throw new TraceException(e);
@@ -95,6 +108,21 @@ public class FileInfoRecorder implements InfoRecorder, Closeable {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @throws TraceException if generate IOException
+     * @since 2.6
+     */
+    @Override
+    public void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new TraceException(e);
+        }
+    }
+
     /**
      * 关闭{@link #writer}
      */
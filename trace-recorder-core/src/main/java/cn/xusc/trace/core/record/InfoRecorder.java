@@ -18,6 +18,10 @@ package cn.xusc.trace.core.record;
 /**
  * 信息记录器
  *
+ * <p>
+ * 异步处理器下记录器始终由同一个提交线程调用，不需要可重入
+ * </p>
+ *
  * @author WangCai
  * @since 1.0
  */
@@ -0,0 +1,438 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.core.record;
+
+import cn.xusc.trace.common.annotation.CloseOrder;
+import cn.xusc.trace.common.exception.TraceException;
+import cn.xusc.trace.common.util.Runtimes;
+import cn.xusc.trace.core.constant.FileDurability;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+import lombok.Builder;
+
+/**
+ * 滚动文件信息记录器
+ *
+ * <p>
+ * 记录编码后写入直接缓冲区，批次结束时通过{@link FileChannel}一次写出；
+ * 当前文件超过{@code maxFileSize}或到达{@code rolloverInterval}边界时滚动为历史文件，
+ * 历史文件超过{@code maxHistory}时删除最旧的文件，写出后按{@link FileDurability}决定是否刷盘
+ * </p>
+ *
+ * <p>
+ * 当前文件为{@code <directory>/<fileName>.log}，历史文件为{@code <directory>/<fileName>.<yyyyMMdd-HHmmss-SSS>.log}
+ * </p>
+ *
+ * @author WangCai
+ * @since 2.6
+ */
+@CloseOrder
+public class RollingFileInfoRecorder implements BatchInfoRecorder, Closeable {
+
+    /**
+     * 默认文件名
+     */
+    private static final String DEFAULT_FILE_NAME = "trace";
+
+    /**
+     * 默认单个文件最大字节数
+     */
+    private static final long DEFAULT_MAX_FILE_SIZE = 1L << 28;
+
+    /**
+     * 默认缓冲大小
+     */
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    /**
+     * 默认刷盘间隔
+     */
+    private static final Duration DEFAULT_FORCE_INTERVAL = Duration.ofSeconds(1);
+
+    /**
+     * 文件后缀
+     */
+    private static final String SUFFIX = ".log";
+
+    /**
+     * 历史文件时间格式
+     */
+    private static final DateTimeFormatter ROLLED_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    /**
+     * 记录目录
+     */
+    private final Path DIRECTORY;
+
+    /**
+     * 文件名
+     */
+    private final String FILE_NAME;
+
+    /**
+     * 当前文件
+     */
+    private final Path ACTIVE_FILE;
+
+    /**
+     * 单个文件最大字节数
+     */
+    private final long MAX_FILE_SIZE;
+
+    /**
+     * 滚动间隔毫秒数，为0时不按时间滚动
+     */
+    private final long ROLLOVER_INTERVAL_MILLIS;
+
+    /**
+     * 保留的历史文件数，为0时不删除
+     */
+    private final int MAX_HISTORY;
+
+    /**
+     * 持久化策略
+     */
+    private final FileDurability DURABILITY;
+
+    /**
+     * 刷盘间隔毫秒数
+     */
+    private final long FORCE_INTERVAL_MILLIS;
+
+    /**
+     * 写出缓冲区
+     */
+    private final ByteBuffer BUFFER;
+
+    /**
+     * 编码器
+     */
+    private final CharsetEncoder ENCODER = StandardCharsets.UTF_8
+        .newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    /**
+     * 当前文件通道
+     */
+    private FileChannel channel;
+
+    /**
+     * 当前文件已写出的字节数
+     */
+    private long fileSize;
+
+    /**
+     * 下次按时间滚动的时间点
+     */
+    private long nextRolloverTime;
+
+    /**
+     * 上次刷盘的时间点
+     */
+    private long lastForceTime;
+
+    /**
+     * 构建一个滚动文件信息记录器
+     *
+     * <p>数值参数为0、对象参数为null时使用默认值</p>
+     *
+     * @param directory        记录目录，不存在会自动创建
+     * @param fileName         文件名，默认为trace
+     * @param maxFileSize      单个文件最大字节数，默认256MB
+     * @param rolloverInterval 滚动间隔，按UTC对齐到间隔边界，默认不按时间滚动
+     * @param maxHistory       保留的历史文件数，默认不删除
+     * @param durability       持久化策略，默认{@link FileDurability#NONE}
+     * @param forceInterval    {@link FileDurability#PERIODIC}时的刷盘间隔，默认1秒
+     * @param bufferSize       直接缓冲区大小，默认1MB
+     * @throws NullPointerException if {@code directory} is null
+     * @throws TraceException       if a numeric argument is negative
+     * @throws TraceException       if generate IOException
+     */
+    @Builder
+    private RollingFileInfoRecorder(
+        String directory,
+        String fileName,
+        long maxFileSize,
+        Duration rolloverInterval,
+        int maxHistory,
+        FileDurability durability,
+        Duration forceInterval,
+        int bufferSize
+    ) {
+        Objects.requireNonNull(directory);
+        if (maxFileSize < 0 || maxHistory < 0 || bufferSize < 0) {
+            throw new TraceException("maxFileSize, maxHistory and bufferSize can't be negative");
+        }
+        if (Objects.nonNull(rolloverInterval) && rolloverInterval.isNegative()) {
+            throw new TraceException("rolloverInterval can't be negative");
+        }
+
+        this.DIRECTORY = Paths.get(directory);
+        this.FILE_NAME = Objects.isNull(fileName) || fileName.isBlank() ? DEFAULT_FILE_NAME : fileName;
+        this.ACTIVE_FILE = DIRECTORY.resolve(FILE_NAME + SUFFIX);
+        this.MAX_FILE_SIZE = maxFileSize == 0 ? DEFAULT_MAX_FILE_SIZE : maxFileSize;
+        this.ROLLOVER_INTERVAL_MILLIS = Objects.isNull(rolloverInterval) ? 0 : rolloverInterval.toMillis();
+        this.MAX_HISTORY = maxHistory;
+        this.DURABILITY = Objects.isNull(durability) ? FileDurability.NONE : durability;
+        this.FORCE_INTERVAL_MILLIS = (Objects.isNull(forceInterval) ? DEFAULT_FORCE_INTERVAL : forceInterval).toMillis();
+        this.BUFFER = ByteBuffer.allocateDirect(bufferSize == 0 ? DEFAULT_BUFFER_SIZE : bufferSize);
+
+        try {
+            Files.createDirectories(DIRECTORY);
+        } catch (IOException e) {
+            throw new TraceException(e);
+        }
+        long now = System.currentTimeMillis();
+        open(now);
+        this.lastForceTime = now;
+        Runtimes.addCleanTask(this);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>仅编码写入缓冲区，缓冲区满时提前写出</p>
+     *
+     * @throws TraceException if generate IOException
+     */
+    @Override
+    public synchronized void record(String writeInfo) {
+        long now = System.currentTimeMillis();
+        if (ROLLOVER_INTERVAL_MILLIS > 0 && now >= nextRolloverTime) {
+            drain();
+            rollover(now);
+        }
+
+        CharBuffer chars = CharBuffer.wrap(writeInfo);
+        ENCODER.reset();
+        while (ENCODER.encode(chars, BUFFER, true) == CoderResult.OVERFLOW) {
+            drain();
+        }
+        while (ENCODER.flush(BUFFER) == CoderResult.OVERFLOW) {
+            drain();
+        }
+
+        if (fileSize + BUFFER.position() >= MAX_FILE_SIZE) {
+            drain();
+            rollover(now);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>写出缓冲区，再按持久化策略刷盘</p>
+     *
+     * @throws TraceException if generate IOException
+     */
+    @Override
+    public synchronized void flush() {
+        drain();
+        switch (DURABILITY) {
+            case EVERY_BATCH:
+                force();
+                break;
+            case PERIODIC:
+                if (System.currentTimeMillis() - lastForceTime >= FORCE_INTERVAL_MILLIS) {
+                    force();
+                }
+                break;
+            case NONE:
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 写出缓冲区并刷盘后关闭当前文件
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        drain();
+        channel.force(false);
+        channel.close();
+    }
+
+    /**
+     * 打开当前文件，已存在时追加写出
+     *
+     * @param now 当前时间
+     * @throws TraceException if generate IOException
+     */
+    private void open(long now) {
+        try {
+            channel =
+                FileChannel.open(
+                    ACTIVE_FILE,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND
+                );
+            fileSize = channel.size();
+        } catch (IOException e) {
+            throw new TraceException(e);
+        }
+        if (ROLLOVER_INTERVAL_MILLIS > 0) {
+            nextRolloverTime = (now / ROLLOVER_INTERVAL_MILLIS + 1) * ROLLOVER_INTERVAL_MILLIS;
+        }
+    }
+
+    /**
+     * 写出缓冲区
+     *
+     * @throws TraceException if generate IOException
+     */
+    private void drain() {
+        if (BUFFER.position() == 0) {
+            return;
+        }
+        BUFFER.flip();
+        try {
+            while (BUFFER.hasRemaining()) {
+                fileSize += channel.write(BUFFER);
+            }
+        } catch (IOException e) {
+            throw new TraceException(e);
+        } finally {
+            BUFFER.clear();
+        }
+    }
+
+    /**
+     * 强制刷盘
+     *
+     * @throws TraceException if generate IOException
+     */
+    private void force() {
+        try {
+            channel.force(false);
+            lastForceTime = System.currentTimeMillis();
+        } catch (IOException e) {
+            throw new TraceException(e);
+        }
+    }
+
+    /**
+     * 滚动当前文件
+     *
+     * <p>当前文件重命名为历史文件后重新打开，再清理超出保留数的历史文件</p>
+     *
+     * @param now 当前时间
+     * @throws TraceException if generate IOException
+     */
+    private void rollover(long now) {
+        try {
+            channel.force(false);
+            channel.close();
+            if (fileSize > 0) {
+                Files.move(ACTIVE_FILE, rolledFile());
+            }
+        } catch (IOException e) {
+            throw new TraceException(e);
+        }
+        open(now);
+        if (MAX_HISTORY > 0) {
+            cleanHistory();
+        }
+    }
+
+    /**
+     * 生成历史文件，同一毫秒内多次滚动时追加序号
+     *
+     * @return 历史文件
+     */
+    private Path rolledFile() {
+        String prefix = FILE_NAME + "." + ROLLED_FORMATTER.format(LocalDateTime.now());
+        Path rolledFile = DIRECTORY.resolve(prefix + SUFFIX);
+        for (int i = 1; Files.exists(rolledFile); i++) {
+            rolledFile = DIRECTORY.resolve(prefix + "_" + i + SUFFIX);
+        }
+        return rolledFile;
+    }
+
+    /**
+     * 清理超出保留数的历史文件，按文件名从旧到新删除
+     *
+     * @throws TraceException if generate IOException
+     */
+    private void cleanHistory() {
+        List<Path> histories = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(DIRECTORY)) {
+            paths
+                .filter(path -> {
+                    String name = path.getFileName().toString();
+                    return (
+                        name.startsWith(FILE_NAME + ".") && name.endsWith(SUFFIX) && !path.equals(ACTIVE_FILE)
+                    );
+                })
+                .forEach(histories::add);
+            Collections.sort(histories);
+            for (int i = 0; i < histories.size() - MAX_HISTORY; i++) {
+                Files.deleteIfExists(histories.get(i));
+            }
+        } catch (IOException e) {
+            throw new TraceException(e);
+        }
+    }
+
+    /**
+     * 滚动文件信息记录器详情
+     *
+     * @return 详情
+     */
+    @Override
+    public String toString() {
+        return (
+            "RollingFileInfoRecorder{" +
+            "ACTIVE_FILE=" +
+            ACTIVE_FILE +
+            ", MAX_FILE_SIZE=" +
+            MAX_FILE_SIZE +
+            ", ROLLOVER_INTERVAL_MILLIS=" +
+            ROLLOVER_INTERVAL_MILLIS +
+            ", MAX_HISTORY=" +
+            MAX_HISTORY +
+            ", DURABILITY=" +
+            DURABILITY +
+            '}'
+        );
+    }
+}
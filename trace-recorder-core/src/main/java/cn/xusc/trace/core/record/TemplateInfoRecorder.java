@@ -0,0 +1,47 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.core.record;
+
+/**
+ * 模板信息记录器
+ *
+ * <p>
+ * 在格式化和增强之前接收原始的消息模板和参数，由记录器自行决定编码方式；
+ * 当所有记录器都是模板信息记录器时，处理器跳过格式化和增强
+ * </p>
+ *
+ * @author WangCai
+ * @since 2.6
+ */
+public interface TemplateInfoRecorder extends InfoRecorder {
+    /**
+     * 模板信息记录
+     *
+     * @param threadName 线程名，禁用线程名时为null
+     * @param caller     调用者堆栈元素，禁用堆栈信息时为null
+     * @param template   消息模板
+     * @param argArray   参数列表，可能为null
+     */
+    void record(String threadName, StackTraceElement caller, String template, Object[] argArray);
+
+    /**
+     * 已增强的写出信息不记录
+     *
+     * @param writeInfo 写出信息
+     */
+    @Override
+    default void record(String writeInfo) {}
+}
@@ -0,0 +1,347 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.core.record.binary;
+
+import static cn.xusc.trace.core.record.binary.BinaryInfoFormat.*;
+
+import cn.xusc.trace.common.exception.TraceException;
+import cn.xusc.trace.common.util.Formats;
+import cn.xusc.trace.common.util.Symbols;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 二进制信息解码器
+ *
+ * <p>
+ * 读取{@link BinaryInfoRecorder}写出的文件，按默认增强器链（行、堆栈、短类名、线程）的格式还原为文本，
+ * 短类名在读取时决定；也可以通过{@link #main(String[])}在命令行使用
+ * </p>
+ *
+ * @author WangCai
+ * @since 2.6
+ */
+public class BinaryInfoDecoder implements Closeable {
+
+    /**
+     * 时间戳格式
+     */
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter
+        .ofPattern("yyyy-MM-dd HH:mm:ss.SSS")
+        .withZone(ZoneId.systemDefault());
+
+    /**
+     * 数据输入流
+     */
+    private final DataInputStream IN;
+
+    /**
+     * 启用短类名
+     */
+    private final boolean ENABLE_SHORT_CLASS_NAME;
+
+    /**
+     * 启用时间戳前缀
+     */
+    private final boolean ENABLE_TIMESTAMP;
+
+    /**
+     * 字符串字典
+     */
+    private final List<String> STRINGS = new ArrayList<>();
+
+    /**
+     * 调用点字典
+     */
+    private final List<StackTraceElement> CALL_SITES = new ArrayList<>();
+
+    /**
+     * 上一条记录的时间戳
+     */
+    private long lastTimestamp;
+
+    /**
+     * 构建一个二进制信息解码器
+     *
+     * @param in                   输入流
+     * @param enableShortClassName 启用短类名
+     * @param enableTimestamp      启用时间戳前缀
+     * @throws TraceException       if not a binary record stream
+     * @throws NullPointerException if {@code in} is null
+     */
+    public BinaryInfoDecoder(InputStream in, boolean enableShortClassName, boolean enableTimestamp) {
+        this.IN = new DataInputStream(new BufferedInputStream(Objects.requireNonNull(in)));
+        this.ENABLE_SHORT_CLASS_NAME = enableShortClassName;
+        this.ENABLE_TIMESTAMP = enableTimestamp;
+        try {
+            if (IN.readInt() != MAGIC) {
+                throw new TraceException("not a binary record stream");
+            }
+            byte version = IN.readByte();
+            if (version != VERSION) {
+                throw new TraceException("not support binary record version: " + version);
+            }
+        } catch (IOException e) {
+            throw new TraceException(e);
+        }
+    }
+
+    /**
+     * 解码下一条记录
+     *
+     * @return 记录文本，没有更多记录时为null
+     * @throws TraceException if generate IOException or stream is corrupted
+     */
+    public String next() {
+        try {
+            while (true) {
+                int tag = IN.read();
+                switch (tag) {
+                    case -1:
+                        return null;
+                    case TAG_STRING:
+                        readVarLong();
+                        STRINGS.add(readString());
+                        break;
+                    case TAG_CALL_SITE:
+                        readVarLong();
+                        CALL_SITES.add(readCallSite());
+                        break;
+                    case TAG_RECORD:
+                        return readRecord();
+                    default:
+                        throw new TraceException("unknown binary record tag: " + tag);
+                }
+            }
+        } catch (EOFException e) {
+            throw new TraceException("binary record stream is truncated", e);
+        } catch (IOException e) {
+            throw new TraceException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        IN.close();
+    }
+
+    /**
+     * 读取记录并还原为文本
+     *
+     * @return 记录文本
+     * @throws IOException if an I/O error occurs
+     */
+    private String readRecord() throws IOException {
+        long timestamp = lastTimestamp + unzigzag(readVarLong());
+        lastTimestamp = timestamp;
+        byte flags = IN.readByte();
+        String threadName = (flags & FLAG_THREAD) != 0 ? readStringRef() : null;
+        StackTraceElement caller = (flags & FLAG_CALLER) != 0 ? readCallSiteRef() : null;
+        String template = readStringRef();
+        int argCount = (int) readVarLong();
+        Object[] argArray = new Object[argCount];
+        for (int i = 0; i < argCount; i++) {
+            argArray[i] = readArg();
+        }
+
+        String info = (argCount > 0 ? Formats.format(template, argArray) : template) + Symbols.lineSeparator();
+        String className = null, methodName = null;
+        int lineNumber = 0;
+        if (Objects.nonNull(caller)) {
+            className = caller.getClassName();
+            methodName = caller.getMethodName();
+            lineNumber = caller.getLineNumber();
+            if (ENABLE_SHORT_CLASS_NAME) {
+                className = className.substring(className.lastIndexOf('.') + 1);
+            }
+        }
+
+        String writeInfo;
+        if (Objects.nonNull(threadName)) {
+            writeInfo = String.format("%s %s.%s()[%d] - %s", threadName, className, methodName, lineNumber, info);
+        } else if (Objects.nonNull(caller)) {
+            writeInfo = String.format("%s.%s()[%d] - %s", className, methodName, lineNumber, info);
+        } else {
+            writeInfo = info;
+        }
+        return ENABLE_TIMESTAMP
+            ? TIMESTAMP_FORMATTER.format(Instant.ofEpochMilli(timestamp)) + " " + writeInfo
+            : writeInfo;
+    }
+
+    /**
+     * 读取参数
+     *
+     * @return 参数
+     * @throws IOException if an I/O error occurs
+     */
+    private Object readArg() throws IOException {
+        byte type = IN.readByte();
+        switch (type) {
+            case ARG_NULL:
+                return null;
+            case ARG_STRING:
+                return readString();
+            case ARG_INT:
+                return (int) unzigzag(readVarLong());
+            case ARG_LONG:
+                return unzigzag(readVarLong());
+            case ARG_FLOAT:
+                return IN.readFloat();
+            case ARG_DOUBLE:
+                return IN.readDouble();
+            case ARG_TRUE:
+                return Boolean.TRUE;
+            case ARG_FALSE:
+                return Boolean.FALSE;
+            case ARG_CHAR:
+                return (char) readVarLong();
+            default:
+                throw new TraceException("unknown binary record arg type: " + type);
+        }
+    }
+
+    /**
+     * 读取调用点引用
+     *
+     * @return 调用者堆栈元素
+     * @throws IOException if an I/O error occurs
+     */
+    private StackTraceElement readCallSiteRef() throws IOException {
+        int ref = (int) readVarLong();
+        return ref == INLINE ? readCallSite() : CALL_SITES.get(ref - 1);
+    }
+
+    /**
+     * 读取调用点
+     *
+     * @return 调用者堆栈元素
+     * @throws IOException if an I/O error occurs
+     */
+    private StackTraceElement readCallSite() throws IOException {
+        String className = readStringRef();
+        String methodName = readStringRef();
+        int lineNumber = (int) unzigzag(readVarLong());
+        return new StackTraceElement(className, methodName, null, lineNumber);
+    }
+
+    /**
+     * 读取字符串引用
+     *
+     * @return 字符串
+     * @throws IOException if an I/O error occurs
+     */
+    private String readStringRef() throws IOException {
+        int ref = (int) readVarLong();
+        return ref == INLINE ? readString() : STRINGS.get(ref - 1);
+    }
+
+    /**
+     * 读取字符串
+     *
+     * @return 字符串
+     * @throws IOException if an I/O error occurs
+     */
+    private String readString() throws IOException {
+        byte[] bytes = new byte[(int) readVarLong()];
+        IN.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 读取变长整数
+     *
+     * @return 非负整数
+     * @throws IOException if an I/O error occurs
+     */
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = IN.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * zigzag逆变换
+     *
+     * @param value 变换后的整数
+     * @return 有符号整数
+     */
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * 命令行解码
+     *
+     * <p>
+     * 用法：{@code BinaryInfoDecoder [--short-class-name] [--timestamp] <file>}，解码结果输出到标准输出
+     * </p>
+     *
+     * @param args 命令行参数
+     * @throws IOException if an I/O error occurs
+     */
+    public static void main(String[] args) throws IOException {
+        boolean enableShortClassName = false, enableTimestamp = false;
+        String file = null;
+        for (String arg : args) {
+            if ("--short-class-name".equals(arg)) {
+                enableShortClassName = true;
+            } else if ("--timestamp".equals(arg)) {
+                enableTimestamp = true;
+            } else {
+                file = arg;
+            }
+        }
+        if (Objects.isNull(file)) {
+            System.err.println("usage: BinaryInfoDecoder [--short-class-name] [--timestamp] <file>");
+            return;
+        }
+
+        PrintStream out = System.out;
+        try (
+            BinaryInfoDecoder decoder = new BinaryInfoDecoder(
+                Files.newInputStream(Paths.get(file)),
+                enableShortClassName,
+                enableTimestamp
+            )
+        ) {
+            String writeInfo;
+            while (Objects.nonNull(writeInfo = decoder.next())) {
+                out.print(writeInfo);
+            }
+        }
+        out.flush();
+    }
+}
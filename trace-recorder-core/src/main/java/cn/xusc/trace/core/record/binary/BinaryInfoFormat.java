@@ -0,0 +1,123 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.core.record.binary;
+
+/**
+ * 二进制记录格式
+ *
+ * <p>
+ * 文件头：魔数{@link #MAGIC}(4字节) + 版本{@link #VERSION}(1字节)，之后是连续的条目，每个条目以1字节标签开头
+ * {@link #TAG_STRING}    字典字符串：编号 + 长度 + UTF-8字节
+ * {@link #TAG_CALL_SITE} 字典调用点：编号 + 类名引用 + 方法名引用 + 行号
+ * {@link #TAG_RECORD}    记录：时间戳增量 + 标记 + [线程名引用] + [调用点引用] + 模板引用 + 参数个数 + 参数
+ * </p>
+ *
+ * <p>
+ * 整数均为变长编码，有符号数先做zigzag变换；字符串引用为0时紧跟内联字符串，否则为字典编号，字典条目总在首次引用之前写出
+ * </p>
+ *
+ * @author WangCai
+ * @since 2.6
+ */
+class BinaryInfoFormat {
+
+    /**
+     * 魔数，TRB1
+     */
+    static final int MAGIC = 0x54524231;
+
+    /**
+     * 版本
+     */
+    static final byte VERSION = 1;
+
+    /**
+     * 字典字符串标签
+     */
+    static final byte TAG_STRING = 1;
+
+    /**
+     * 字典调用点标签
+     */
+    static final byte TAG_CALL_SITE = 2;
+
+    /**
+     * 记录标签
+     */
+    static final byte TAG_RECORD = 3;
+
+    /**
+     * 记录带线程名标记
+     */
+    static final byte FLAG_THREAD = 1;
+
+    /**
+     * 记录带调用点标记
+     */
+    static final byte FLAG_CALLER = 1 << 1;
+
+    /**
+     * 内联引用
+     */
+    static final int INLINE = 0;
+
+    /**
+     * 空参数
+     */
+    static final byte ARG_NULL = 0;
+
+    /**
+     * 字符串参数，非基础类型的参数在记录时转为字符串
+     */
+    static final byte ARG_STRING = 1;
+
+    /**
+     * int参数，包括byte和short
+     */
+    static final byte ARG_INT = 2;
+
+    /**
+     * long参数
+     */
+    static final byte ARG_LONG = 3;
+
+    /**
+     * float参数
+     */
+    static final byte ARG_FLOAT = 4;
+
+    /**
+     * double参数
+     */
+    static final byte ARG_DOUBLE = 5;
+
+    /**
+     * true参数
+     */
+    static final byte ARG_TRUE = 6;
+
+    /**
+     * false参数
+     */
+    static final byte ARG_FALSE = 7;
+
+    /**
+     * char参数
+     */
+    static final byte ARG_CHAR = 8;
+
+    private BinaryInfoFormat() {}
+}
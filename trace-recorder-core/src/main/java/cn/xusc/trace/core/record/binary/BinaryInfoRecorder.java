@@ -0,0 +1,403 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.core.record.binary;
+
+import static cn.xusc.trace.core.record.binary.BinaryInfoFormat.*;
+
+import cn.xusc.trace.common.annotation.CloseOrder;
+import cn.xusc.trace.common.exception.TraceException;
+import cn.xusc.trace.common.util.Runtimes;
+import cn.xusc.trace.core.record.BatchInfoRecorder;
+import cn.xusc.trace.core.record.TemplateInfoRecorder;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 二进制信息记录器
+ *
+ * <p>
+ * 记录时不做格式化，只写出时间戳、线程名、调用点、消息模板和原始参数，
+ * 线程名、调用点和消息模板进入字典后只写出编号，由{@link BinaryInfoDecoder}在读取时还原为文本
+ * </p>
+ *
+ * <p>
+ * 字典大小受{@link #MAX_DICTIONARY_SIZE}限制，超出后的新字符串内联写出，避免动态拼接的模板无限占用内存
+ * </p>
+ *
+ * @author WangCai
+ * @since 2.6
+ */
+@CloseOrder
+public class BinaryInfoRecorder implements TemplateInfoRecorder, BatchInfoRecorder, Closeable {
+
+    /**
+     * 字典最大条目数
+     */
+    private static final int MAX_DICTIONARY_SIZE = 1 << 16;
+
+    /**
+     * 缓冲大小
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * 变长整数最大字节数
+     */
+    private static final int MAX_VAR_LONG_SIZE = 10;
+
+    /**
+     * 文件通道
+     */
+    private final FileChannel CHANNEL;
+
+    /**
+     * 写出缓冲区
+     */
+    private final ByteBuffer BUFFER = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    /**
+     * 字符串字典
+     */
+    private final Map<String, Integer> STRINGS = new HashMap<>();
+
+    /**
+     * 调用点字典
+     */
+    private final Map<StackTraceElement, Integer> CALL_SITES = new HashMap<>();
+
+    /**
+     * 上一条记录的时间戳
+     */
+    private long lastTimestamp;
+
+    /**
+     * 构建一个指定{@code filePath}的二进制信息记录器
+     *
+     * @param filePath 文件路径
+     * @throws TraceException       if generate IOException
+     * @throws NullPointerException if {@code filePath} is null
+     */
+    public BinaryInfoRecorder(String filePath) {
+        this(new File(Objects.requireNonNull(filePath)));
+    }
+
+    /**
+     * 构建一个指定{@link File}的二进制信息记录器
+     *
+     * <p>已存在的文件会被覆盖</p>
+     *
+     * @param file 文件
+     * @throws TraceException       if generate IOException
+     * @throws NullPointerException if {@code file} is null
+     */
+    public BinaryInfoRecorder(File file) {
+        Objects.requireNonNull(file);
+        try {
+            CHANNEL =
+                FileChannel.open(
+                    file.toPath(),
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING
+                );
+        } catch (IOException e) {
+            throw new TraceException(e);
+        }
+        BUFFER.putInt(MAGIC).put(VERSION);
+        Runtimes.addCleanTask(this);
+    }
+
+    @Override
+    public synchronized void record(String threadName, StackTraceElement caller, String template, Object[] argArray) {
+        long timestamp = System.currentTimeMillis();
+        /*
+          字典条目必须先于记录写出
+         */
+        int threadRef = Objects.isNull(threadName) ? INLINE : intern(threadName);
+        int callSiteRef = Objects.isNull(caller) ? INLINE : internCallSite(caller);
+        int templateRef = intern(template);
+
+        ensure(2 + MAX_VAR_LONG_SIZE * 4);
+        BUFFER.put(TAG_RECORD);
+        putVarLong(zigzag(timestamp - lastTimestamp));
+        lastTimestamp = timestamp;
+        byte flags = 0;
+        if (Objects.nonNull(threadName)) {
+            flags |= FLAG_THREAD;
+        }
+        if (Objects.nonNull(caller)) {
+            flags |= FLAG_CALLER;
+        }
+        BUFFER.put(flags);
+        if (Objects.nonNull(threadName)) {
+            putStringRef(threadRef, threadName);
+        }
+        if (Objects.nonNull(caller)) {
+            putCallSiteRef(callSiteRef, caller);
+        }
+        putStringRef(templateRef, template);
+
+        int argCount = Objects.isNull(argArray) ? 0 : argArray.length;
+        ensure(MAX_VAR_LONG_SIZE);
+        putVarLong(argCount);
+        for (int i = 0; i < argCount; i++) {
+            putArg(argArray[i]);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws TraceException if generate IOException
+     */
+    @Override
+    public synchronized void flush() {
+        drain();
+    }
+
+    /**
+     * 写出缓冲区并关闭文件
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!CHANNEL.isOpen()) {
+            return;
+        }
+        drain();
+        CHANNEL.close();
+    }
+
+    /**
+     * 字符串进入字典
+     *
+     * @param value 字符串
+     * @return 字典编号，字典已满时为{@link BinaryInfoFormat#INLINE}
+     */
+    private int intern(String value) {
+        Integer id = STRINGS.get(value);
+        if (Objects.nonNull(id)) {
+            return id;
+        }
+        if (STRINGS.size() >= MAX_DICTIONARY_SIZE) {
+            return INLINE;
+        }
+        id = STRINGS.size() + 1;
+        STRINGS.put(value, id);
+        ensure(1 + MAX_VAR_LONG_SIZE);
+        BUFFER.put(TAG_STRING);
+        putVarLong(id);
+        putString(value);
+        return id;
+    }
+
+    /**
+     * 调用点进入字典
+     *
+     * @param caller 调用者堆栈元素
+     * @return 字典编号，字典已满时为{@link BinaryInfoFormat#INLINE}
+     */
+    private int internCallSite(StackTraceElement caller) {
+        Integer id = CALL_SITES.get(caller);
+        if (Objects.nonNull(id)) {
+            return id;
+        }
+        if (CALL_SITES.size() >= MAX_DICTIONARY_SIZE) {
+            return INLINE;
+        }
+        int classNameRef = intern(caller.getClassName());
+        int methodNameRef = intern(caller.getMethodName());
+        id = CALL_SITES.size() + 1;
+        CALL_SITES.put(caller, id);
+        ensure(1 + MAX_VAR_LONG_SIZE);
+        BUFFER.put(TAG_CALL_SITE);
+        putVarLong(id);
+        putCallSite(classNameRef, methodNameRef, caller);
+        return id;
+    }
+
+    /**
+     * 写出字符串引用
+     *
+     * @param ref   字典编号
+     * @param value 字符串，内联时写出
+     */
+    private void putStringRef(int ref, String value) {
+        ensure(MAX_VAR_LONG_SIZE);
+        putVarLong(ref);
+        if (ref == INLINE) {
+            putString(value);
+        }
+    }
+
+    /**
+     * 写出调用点引用
+     *
+     * @param ref    字典编号
+     * @param caller 调用者堆栈元素，内联时写出
+     */
+    private void putCallSiteRef(int ref, StackTraceElement caller) {
+        ensure(MAX_VAR_LONG_SIZE);
+        putVarLong(ref);
+        if (ref == INLINE) {
+            /*
+              记录中途不能再写出字典条目，只引用已有的字符串
+             */
+            putCallSite(
+                STRINGS.getOrDefault(caller.getClassName(), INLINE),
+                STRINGS.getOrDefault(caller.getMethodName(), INLINE),
+                caller
+            );
+        }
+    }
+
+    /**
+     * 写出调用点
+     *
+     * @param classNameRef  类名引用
+     * @param methodNameRef 方法名引用
+     * @param caller        调用者堆栈元素
+     */
+    private void putCallSite(int classNameRef, int methodNameRef, StackTraceElement caller) {
+        putStringRef(classNameRef, caller.getClassName());
+        putStringRef(methodNameRef, caller.getMethodName());
+        ensure(MAX_VAR_LONG_SIZE);
+        putVarLong(zigzag(caller.getLineNumber()));
+    }
+
+    /**
+     * 写出参数
+     *
+     * <p>基础类型保留原始值，其他类型在记录时转为字符串，避免异步读取时参数已被修改</p>
+     *
+     * @param arg 参数
+     */
+    private void putArg(Object arg) {
+        ensure(1 + MAX_VAR_LONG_SIZE);
+        if (Objects.isNull(arg)) {
+            BUFFER.put(ARG_NULL);
+        } else if (arg instanceof Integer || arg instanceof Short || arg instanceof Byte) {
+            BUFFER.put(ARG_INT);
+            putVarLong(zigzag(((Number) arg).intValue()));
+        } else if (arg instanceof Long) {
+            BUFFER.put(ARG_LONG);
+            putVarLong(zigzag((Long) arg));
+        } else if (arg instanceof Float) {
+            BUFFER.put(ARG_FLOAT).putFloat((Float) arg);
+        } else if (arg instanceof Double) {
+            BUFFER.put(ARG_DOUBLE).putDouble((Double) arg);
+        } else if (arg instanceof Boolean) {
+            BUFFER.put((Boolean) arg ? ARG_TRUE : ARG_FALSE);
+        } else if (arg instanceof Character) {
+            BUFFER.put(ARG_CHAR);
+            putVarLong((Character) arg);
+        } else {
+            BUFFER.put(ARG_STRING);
+            putString(String.valueOf(arg));
+        }
+    }
+
+    /**
+     * 写出字符串
+     *
+     * @param value 字符串
+     */
+    private void putString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensure(MAX_VAR_LONG_SIZE);
+        putVarLong(bytes.length);
+        if (bytes.length > BUFFER.capacity()) {
+            drain();
+            write(ByteBuffer.wrap(bytes));
+            return;
+        }
+        ensure(bytes.length);
+        BUFFER.put(bytes);
+    }
+
+    /**
+     * 写出变长整数
+     *
+     * @param value 非负整数
+     */
+    private void putVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            BUFFER.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        BUFFER.put((byte) value);
+    }
+
+    /**
+     * zigzag变换，使绝对值小的负数也能用较少的字节表示
+     *
+     * @param value 有符号整数
+     * @return 变换后的整数
+     */
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * 确保缓冲区剩余空间，不足时写出缓冲区
+     *
+     * @param size 需要的字节数
+     */
+    private void ensure(int size) {
+        if (BUFFER.remaining() < size) {
+            drain();
+        }
+    }
+
+    /**
+     * 写出缓冲区
+     *
+     * @throws TraceException if generate IOException
+     */
+    private void drain() {
+        BUFFER.flip();
+        try {
+            write(BUFFER);
+        } finally {
+            BUFFER.clear();
+        }
+    }
+
+    /**
+     * 写出字节到文件
+     *
+     * @param buffer 字节缓冲
+     * @throws TraceException if generate IOException
+     */
+    private void write(ByteBuffer buffer) {
+        try {
+            while (buffer.hasRemaining()) {
+                CHANNEL.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new TraceException(e);
+        }
+    }
+}
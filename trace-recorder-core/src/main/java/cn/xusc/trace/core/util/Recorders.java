@@ -30,6 +30,7 @@ import cn.xusc.trace.core.enhance.ThreadInfoEnhancer;
 import cn.xusc.trace.core.filter.InfoFilter;
 import cn.xusc.trace.core.record.FileInfoRecorder;
 import cn.xusc.trace.core.record.InfoRecorder;
+import cn.xusc.trace.core.record.RollingFileInfoRecorder;
 import java.io.File;
 import java.util.List;
 import java.util.Objects;
@@ -424,6 +425,20 @@ public final class Recorders {
         return traceRecorder.addInfoRecorder(new FileInfoRecorder(file));
     }
 
+    /**
+     * 添加滚动文件信息记录器
+     *
+     * <p>使用默认的文件名、滚动大小和持久化策略</p>
+     *
+     * @param directory 记录目录，不存在会自动创建
+     * @return 添加结果
+     * @since 2.6
+     */
+    public static boolean addRollingFileInfoRecorder(String directory) {
+        Objects.requireNonNull(directory);
+        return traceRecorder.addInfoRecorder(RollingFileInfoRecorder.builder().directory(directory).build());
+    }
+
     /**
      * 添加通用统计信息增强器
      *
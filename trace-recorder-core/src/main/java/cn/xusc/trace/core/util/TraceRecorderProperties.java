@@ -19,8 +19,12 @@ import cn.xusc.trace.common.exception.TraceException;
 import cn.xusc.trace.common.util.FastList;
 import cn.xusc.trace.common.util.Strings;
 import cn.xusc.trace.core.config.TraceRecorderConfig;
+import cn.xusc.trace.core.constant.AsyncOverflowPolicy;
+import cn.xusc.trace.core.constant.AsyncWaitStrategy;
 import cn.xusc.trace.core.enhance.InfoEnhancer;
 import cn.xusc.trace.core.filter.InfoFilter;
+import cn.xusc.trace.core.filter.RateLimitInfoFilter;
+import cn.xusc.trace.core.filter.SamplingInfoFilter;
 import cn.xusc.trace.core.record.InfoRecorder;
 import java.io.*;
 import java.lang.reflect.Constructor;
@@ -99,6 +103,14 @@ public final class TraceRecorderProperties extends Properties {
                 .enableAsync(innerEnableAsync())
                 .taskHandlerSize(innerTaskHandlerSize())
                 .additionProperties(this)
+                .bufferSize(innerBufferSize())
+                .waitStrategy(innerWaitStrategy())
+                .enableSingleProducer(innerEnableSingleProducer())
+                .overflowPolicy(innerOverflowPolicy())
+                .sampleRate(innerSampleRate())
+                .stripeSize(innerStripeSize())
+                .enableTimestampOrder(innerEnableTimestampOrder())
+                .repeatWindow(innerRepeatWindow())
                 .build();
         }
         throw new TraceException("not load TraceRecorder properties");
@@ -107,21 +119,83 @@ public final class TraceRecorderProperties extends Properties {
     /**
      * 内部获取配置消息过滤器列表
      *
+     * <p>配置了限流或采样时，追加对应的内置过滤器</p>
+     *
      * @return 消息过滤器列表
      */
     private List<InfoFilter> innerInfoFilters() {
         String infoFiltersStr = getProperty(parseConfigPropertiesName("infoFilters"));
-        if (Objects.isNull(infoFiltersStr)) {
+        InfoFilter rateLimitInfoFilter = innerRateLimitInfoFilter();
+        InfoFilter samplingInfoFilter = innerSamplingInfoFilter();
+        if (Objects.isNull(infoFiltersStr) && Objects.isNull(rateLimitInfoFilter) && Objects.isNull(samplingInfoFilter)) {
             return null;
         }
 
         List<InfoFilter> infoFilters = new FastList<>(InfoFilter.class, 8);
-        for (String infoFilterClass : Strings.split(infoFiltersStr.trim(), SEPARATOR)) {
-            infoFilters.add((InfoFilter) loadAndInstance(infoFilterClass));
+        if (Objects.nonNull(infoFiltersStr)) {
+            for (String infoFilterClass : Strings.split(infoFiltersStr.trim(), SEPARATOR)) {
+                infoFilters.add((InfoFilter) loadAndInstance(infoFilterClass));
+            }
+        }
+        if (Objects.nonNull(rateLimitInfoFilter)) {
+            infoFilters.add(rateLimitInfoFilter);
+        }
+        if (Objects.nonNull(samplingInfoFilter)) {
+            infoFilters.add(samplingInfoFilter);
         }
         return infoFilters;
     }
 
+    /**
+     * 内部获取限流信息过滤器
+     *
+     * <p>{@code rateLimit}为每个调用点每秒放行数，{@code rateLimitBurst}为突发数，未配置时与放行数相同</p>
+     *
+     * @return 限流信息过滤器，未配置时为null
+     * @throws TraceException if rate limit properties is invalid
+     * @since 2.6
+     */
+    private InfoFilter innerRateLimitInfoFilter() {
+        String rateLimitStr = getProperty(parseConfigPropertiesName("rateLimit"));
+        if (Objects.isNull(rateLimitStr) || rateLimitStr.isBlank()) {
+            return null;
+        }
+        String rateLimitBurstStr = getProperty(parseConfigPropertiesName("rateLimitBurst"));
+        try {
+            double permitsPerSecond = Double.parseDouble(rateLimitStr.trim());
+            if (Objects.isNull(rateLimitBurstStr) || rateLimitBurstStr.isBlank()) {
+                return new RateLimitInfoFilter(permitsPerSecond);
+            }
+            return new RateLimitInfoFilter(permitsPerSecond, Integer.parseInt(rateLimitBurstStr.trim()));
+        } catch (NumberFormatException e) {
+            throw new TraceException("not support rate limit: " + rateLimitStr + ", burst: " + rateLimitBurstStr, e);
+        }
+    }
+
+    /**
+     * 内部获取采样信息过滤器
+     *
+     * <p>{@code samplingRate}为采样率，{@code enableSamplingPerCallSite}启用按调用点采样</p>
+     *
+     * @return 采样信息过滤器，未配置时为null
+     * @throws TraceException if sampling properties is invalid
+     * @since 2.6
+     */
+    private InfoFilter innerSamplingInfoFilter() {
+        String samplingRateStr = getProperty(parseConfigPropertiesName("samplingRate"));
+        if (Objects.isNull(samplingRateStr) || samplingRateStr.isBlank()) {
+            return null;
+        }
+        try {
+            return new SamplingInfoFilter(
+                Double.parseDouble(samplingRateStr.trim()),
+                Boolean.valueOf(getProperty(parseConfigPropertiesName("enableSamplingPerCallSite")))
+            );
+        } catch (NumberFormatException e) {
+            throw new TraceException("not support sampling rate: " + samplingRateStr, e);
+        }
+    }
+
     /**
      * 内部获取配置消息增强器列表
      *
@@ -216,6 +290,120 @@ public final class TraceRecorderProperties extends Properties {
         }
     }
 
+    /**
+     * 内部获取异步缓冲大小
+     *
+     * @return 异步缓冲大小
+     * @since 2.6
+     */
+    private int innerBufferSize() {
+        try {
+            return Integer.valueOf(getProperty(parseConfigPropertiesName("bufferSize")));
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 内部获取异步等待策略
+     *
+     * @return 异步等待策略
+     * @throws TraceException if not support wait strategy
+     * @since 2.6
+     */
+    private AsyncWaitStrategy innerWaitStrategy() {
+        String waitStrategyStr = getProperty(parseConfigPropertiesName("waitStrategy"));
+        if (Objects.isNull(waitStrategyStr) || waitStrategyStr.isBlank()) {
+            return null;
+        }
+        try {
+            return AsyncWaitStrategy.valueOf(waitStrategyStr.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new TraceException("not support wait strategy: " + waitStrategyStr, e);
+        }
+    }
+
+    /**
+     * 内部获取启用单生产者
+     *
+     * @return 启用单生产者
+     * @since 2.6
+     */
+    private boolean innerEnableSingleProducer() {
+        return Boolean.valueOf(getProperty(parseConfigPropertiesName("enableSingleProducer")));
+    }
+
+    /**
+     * 内部获取异步溢出策略
+     *
+     * @return 异步溢出策略
+     * @throws TraceException if not support overflow policy
+     * @since 2.6
+     */
+    private AsyncOverflowPolicy innerOverflowPolicy() {
+        String overflowPolicyStr = getProperty(parseConfigPropertiesName("overflowPolicy"));
+        if (Objects.isNull(overflowPolicyStr) || overflowPolicyStr.isBlank()) {
+            return null;
+        }
+        try {
+            return AsyncOverflowPolicy.valueOf(overflowPolicyStr.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new TraceException("not support overflow policy: " + overflowPolicyStr, e);
+        }
+    }
+
+    /**
+     * 内部获取异步溢出采样率
+     *
+     * @return 异步溢出采样率
+     * @since 2.6
+     */
+    private double innerSampleRate() {
+        try {
+            return Double.valueOf(getProperty(parseConfigPropertiesName("sampleRate")));
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 内部获取异步环缓冲区分片数量
+     *
+     * @return 异步环缓冲区分片数量
+     * @since 2.6
+     */
+    private int innerStripeSize() {
+        try {
+            return Integer.valueOf(getProperty(parseConfigPropertiesName("stripeSize")));
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 内部获取启用时间戳排序
+     *
+     * @return 启用时间戳排序
+     * @since 2.6
+     */
+    private boolean innerEnableTimestampOrder() {
+        return Boolean.valueOf(getProperty(parseConfigPropertiesName("enableTimestampOrder")));
+    }
+
+    /**
+     * 内部获取重复记录聚合窗口毫秒数
+     *
+     * @return 重复记录聚合窗口毫秒数
+     * @since 2.6
+     */
+    private long innerRepeatWindow() {
+        try {
+            return Long.valueOf(getProperty(parseConfigPropertiesName("repeatWindow")));
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
     /**
      * 解析配置属性名
      *
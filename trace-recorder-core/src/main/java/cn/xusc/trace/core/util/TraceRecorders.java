@@ -15,9 +15,11 @@
  */
 package cn.xusc.trace.core.util;
 
-import cn.xusc.trace.common.util.ThreadLocals;
 import cn.xusc.trace.core.TraceRecorder;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import lombok.experimental.UtilityClass;
 
 /**
@@ -28,6 +30,12 @@ import lombok.experimental.UtilityClass;
  * 通过lombok组件{@link UtilityClass}确保工具类的使用
  * </p>
  *
+ * <p>
+ * 每个注册键在首次注册时分配一个固定槽位，线程内以数组下标直接访问，默认跟踪记录仪固定在首个槽位。
+ * 线程槽位数组只在注册时以写时复制的方式替换，因此{@link #wrap(Runnable)}等包装方法只需捕获数组引用，
+ * 即可在池化线程或虚拟线程中还原提交线程的跟踪记录仪，而无需为每个任务复制映射表。
+ * </p>
+ *
  * @author WangCai
  * @since 2.5
  */
@@ -39,27 +47,54 @@ public class TraceRecorders {
      */
     public final String TRACE_RECORDER_KEY = "TRACE_RECORDER_KEY";
 
+    /**
+     * 空槽位数组
+     */
+    private final TraceRecorder[] EMPTY_SLOTS = new TraceRecorder[0];
+
+    /**
+     * 注册键槽位表
+     */
+    private final Map<String, Integer> SLOT_INDEXES = new ConcurrentHashMap<>(Map.of(TRACE_RECORDER_KEY, 0));
+
+    /**
+     * 下一个可分配槽位
+     */
+    private final AtomicInteger NEXT_SLOT = new AtomicInteger(1);
+
+    /**
+     * 线程槽位数组
+     */
+    private final ThreadLocal<TraceRecorder[]> SLOTS = ThreadLocal.withInitial(() -> EMPTY_SLOTS);
+
     /**
      * 注册跟踪记录仪
      *
+     * <p>
+     * 等同于以{@link #TRACE_RECORDER_KEY}注册
+     * </p>
+     *
      * @param recorder 跟踪记录仪
      * @return 注册结果
      * @throws NullPointerException if {@code recorder} is null.
      */
     public boolean register(TraceRecorder recorder) {
-        Objects.requireNonNull(recorder);
-
-        ThreadLocals.put(TRACE_RECORDER_KEY, recorder);
-        return true;
+        return register(TRACE_RECORDER_KEY, recorder);
     }
 
     /**
      * 获取跟踪记录仪
      *
-     * @return 跟踪记录仪
+     * <p>
+     * 只返回当前线程注册或传播到当前线程的跟踪记录仪，不会回退到其他线程注册的跟踪记录仪。
+     * 在其他线程中构建依赖跟踪记录仪的组件时，应先在该线程注册，或通过{@link #wrap(Runnable)}等包装方法传播
+     * </p>
+     *
+     * @return 跟踪记录仪，当前线程未注册时为null
      */
     public TraceRecorder get() {
-        return (TraceRecorder) ThreadLocals.get(TRACE_RECORDER_KEY);
+        TraceRecorder[] slots = SLOTS.get();
+        return slots.length > 0 ? slots[0] : null;
     }
 
     /**
@@ -79,7 +114,7 @@ public class TraceRecorders {
         Objects.requireNonNull(registerKey);
         Objects.requireNonNull(recorder);
 
-        ThreadLocals.put(registerKey, recorder);
+        store(slot(registerKey), recorder);
         return true;
     }
 
@@ -93,6 +128,238 @@ public class TraceRecorders {
     public TraceRecorder get(String registerKey) {
         Objects.requireNonNull(registerKey);
 
-        return (TraceRecorder) ThreadLocals.get(registerKey);
+        Integer index = SLOT_INDEXES.get(registerKey);
+        if (Objects.isNull(index)) {
+            return null;
+        }
+        TraceRecorder[] slots = SLOTS.get();
+        return index < slots.length ? slots[index] : null;
+    }
+
+    /**
+     * 包装任务，使其在执行线程中携带当前线程的跟踪记录仪
+     *
+     * @param task 任务
+     * @return 包装任务
+     * @throws NullPointerException if {@code task} is null.
+     * @since 2.6
+     */
+    public Runnable wrap(Runnable task) {
+        Objects.requireNonNull(task);
+
+        TraceRecorder[] captured = SLOTS.get();
+        return () -> {
+            TraceRecorder[] previous = SLOTS.get();
+            SLOTS.set(captured);
+            try {
+                task.run();
+            } finally {
+                SLOTS.set(previous);
+            }
+        };
+    }
+
+    /**
+     * 包装任务，使其在执行线程中携带当前线程的跟踪记录仪
+     *
+     * @param task 任务
+     * @param <V> 任务结果类型
+     * @return 包装任务
+     * @throws NullPointerException if {@code task} is null.
+     * @since 2.6
+     */
+    public <V> Callable<V> wrap(Callable<V> task) {
+        Objects.requireNonNull(task);
+
+        TraceRecorder[] captured = SLOTS.get();
+        return () -> {
+            TraceRecorder[] previous = SLOTS.get();
+            SLOTS.set(captured);
+            try {
+                return task.call();
+            } finally {
+                SLOTS.set(previous);
+            }
+        };
+    }
+
+    /**
+     * 包装执行器，提交的任务均携带提交线程的跟踪记录仪
+     *
+     * @param executor 执行器
+     * @return 包装执行器
+     * @throws NullPointerException if {@code executor} is null.
+     * @since 2.6
+     */
+    public Executor wrap(Executor executor) {
+        Objects.requireNonNull(executor);
+
+        if (executor instanceof ExecutorService) {
+            return wrap((ExecutorService) executor);
+        }
+        return task -> executor.execute(wrap(task));
+    }
+
+    /**
+     * 包装执行器服务，提交的任务均携带提交线程的跟踪记录仪
+     *
+     * @param executor 执行器服务
+     * @return 包装执行器服务
+     * @throws NullPointerException if {@code executor} is null.
+     * @since 2.6
+     */
+    public ExecutorService wrap(ExecutorService executor) {
+        Objects.requireNonNull(executor);
+
+        if (executor instanceof PropagatingExecutorService) {
+            return executor;
+        }
+        return new PropagatingExecutorService(executor);
+    }
+
+    /**
+     * 异步执行任务，任务携带当前线程的跟踪记录仪
+     *
+     * @param supplier 任务
+     * @param executor 执行器
+     * @param <U> 任务结果类型
+     * @return 异步结果
+     * @throws NullPointerException if {@code supplier} is null.
+     * @throws NullPointerException if {@code executor} is null.
+     * @since 2.6
+     */
+    public <U> CompletableFuture<U> supplyAsync(Supplier<U> supplier, Executor executor) {
+        Objects.requireNonNull(supplier);
+        Objects.requireNonNull(executor);
+
+        TraceRecorder[] captured = SLOTS.get();
+        return CompletableFuture.supplyAsync(
+            () -> {
+                TraceRecorder[] previous = SLOTS.get();
+                SLOTS.set(captured);
+                try {
+                    return supplier.get();
+                } finally {
+                    SLOTS.set(previous);
+                }
+            },
+            executor
+        );
+    }
+
+    /**
+     * 异步执行任务，任务携带当前线程的跟踪记录仪
+     *
+     * @param supplier 任务
+     * @param <U> 任务结果类型
+     * @return 异步结果
+     * @throws NullPointerException if {@code supplier} is null.
+     * @since 2.6
+     */
+    public <U> CompletableFuture<U> supplyAsync(Supplier<U> supplier) {
+        return supplyAsync(supplier, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 异步执行任务，任务携带当前线程的跟踪记录仪
+     *
+     * @param task 任务
+     * @param executor 执行器
+     * @return 异步结果
+     * @throws NullPointerException if {@code task} is null.
+     * @throws NullPointerException if {@code executor} is null.
+     * @since 2.6
+     */
+    public CompletableFuture<Void> runAsync(Runnable task, Executor executor) {
+        Objects.requireNonNull(executor);
+
+        return CompletableFuture.runAsync(wrap(task), executor);
+    }
+
+    /**
+     * 异步执行任务，任务携带当前线程的跟踪记录仪
+     *
+     * @param task 任务
+     * @return 异步结果
+     * @throws NullPointerException if {@code task} is null.
+     * @since 2.6
+     */
+    public CompletableFuture<Void> runAsync(Runnable task) {
+        return runAsync(task, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 获取注册键的槽位，首次出现时分配
+     *
+     * @param registerKey 注册键
+     * @return 槽位
+     */
+    private int slot(String registerKey) {
+        return SLOT_INDEXES.computeIfAbsent(registerKey, key -> NEXT_SLOT.getAndIncrement());
+    }
+
+    /**
+     * 写时复制地存储当前线程的槽位
+     *
+     * @param index 槽位
+     * @param recorder 跟踪记录仪
+     */
+    private void store(int index, TraceRecorder recorder) {
+        TraceRecorder[] slots = SLOTS.get();
+        TraceRecorder[] updated = Arrays.copyOf(slots, Math.max(slots.length, index + 1));
+        updated[index] = recorder;
+        SLOTS.set(updated);
+    }
+
+    /**
+     * 传播跟踪记录仪的执行器服务
+     *
+     * @since 2.6
+     */
+    private class PropagatingExecutorService extends AbstractExecutorService {
+
+        /**
+         * 被包装的执行器服务
+         */
+        private final ExecutorService DELEGATE;
+
+        /**
+         * 基础构造
+         *
+         * @param delegate 被包装的执行器服务
+         */
+        PropagatingExecutorService(ExecutorService delegate) {
+            DELEGATE = delegate;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            DELEGATE.execute(wrap(command));
+        }
+
+        @Override
+        public void shutdown() {
+            DELEGATE.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return DELEGATE.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return DELEGATE.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return DELEGATE.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return DELEGATE.awaitTermination(timeout, unit);
+        }
     }
 }
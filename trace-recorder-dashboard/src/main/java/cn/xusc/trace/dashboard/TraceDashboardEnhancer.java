@@ -305,6 +305,17 @@ public class TraceDashboardEnhancer extends AbstractStatisticsInfoEnhancer {
         return eInfo;
     }
 
+    /**
+     * 仪表盘图表组件需要完整调用栈，未启动仪表盘时不需要
+     *
+     * @return {@inheritDoc}
+     * @since 2.6
+     */
+    @Override
+    public int stackDepth() {
+        return Objects.isNull(TRACE_DASHBOARD) ? 0 : Integer.MAX_VALUE;
+    }
+
     /**
      * 不做显示，仅跟踪仪表盘启动后进行等待关闭
      *
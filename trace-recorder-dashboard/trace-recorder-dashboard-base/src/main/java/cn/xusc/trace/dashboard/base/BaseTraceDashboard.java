@@ -130,21 +130,21 @@ public class BaseTraceDashboard extends AbstractTraceDashboard {
             .builder()
             .ignoreTraceDashboardComponentNames(
                 Strings.split(
-                    (String) environment
-                        .get(
-                            BaseTraceDashboardConfig.CONFIG_CLASSNAME
-                                .concat(".")
-                                .concat("ignoreTraceDashboardComponentNames")
-                        )
-                        .orElse(""),
+                    environment.getString(
+                        BaseTraceDashboardConfig.CONFIG_CLASSNAME,
+                        "ignoreTraceDashboardComponentNames",
+                        ""
+                    ),
                     ','
                 )
             )
             .generatePath(
                 Path.of(
-                    (String) environment
-                        .get(BaseTraceDashboardConfig.CONFIG_CLASSNAME.concat(".").concat("generatePath"))
-                        .orElse(Systems.getClassPaths(classPath -> Files.isDirectory(Paths.get(classPath)))[0])
+                    environment.getString(
+                        BaseTraceDashboardConfig.CONFIG_CLASSNAME,
+                        "generatePath",
+                        Systems.getClassPaths(classPath -> Files.isDirectory(Paths.get(classPath)))[0]
+                    )
                 )
             )
             .homePath(Temporary.TEMPLATE_PATH.resolve("dashboard"))
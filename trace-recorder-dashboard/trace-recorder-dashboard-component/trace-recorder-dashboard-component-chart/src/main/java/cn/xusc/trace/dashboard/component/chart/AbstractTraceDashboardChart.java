@@ -20,6 +20,7 @@ import cn.xusc.trace.common.util.Arrays;
 import cn.xusc.trace.common.util.StackTraces;
 import cn.xusc.trace.common.util.reflect.Class;
 import cn.xusc.trace.core.EnhanceInfo;
+import cn.xusc.trace.core.StackSnapshot;
 import cn.xusc.trace.dashboard.TraceDashboardComponent;
 import cn.xusc.trace.dashboard.component.chart.constant.Temporary;
 import cn.xusc.trace.dashboard.component.chart.constant.TraceDashboardChartRefreshStrategy;
@@ -116,7 +117,11 @@ public abstract class AbstractTraceDashboardChart implements TraceDashboardChart
         }
         log.debug("init TraceDashboardChart environment successful!");
 
-        this.chartDataRepository = new TraceDashboardChartDataRepository();
+        this.chartDataRepository =
+            new TraceDashboardChartDataRepository(
+                chartConfig.getChartDataCapacity(),
+                chartConfig.getChartDataOverflowPolicy()
+            );
         log.debug("creat TraceDashboardChart data repository successful!");
 
         this.chartFlow = new TraceDashboardChartFlow();
@@ -145,13 +150,16 @@ public abstract class AbstractTraceDashboardChart implements TraceDashboardChart
         }
 
         /*
-        堆栈信息获取
+        堆栈信息获取，优先复用处理器在记录线程上捕获的堆栈快照
          */
-        StackTraceElement[] stackTraceElements = StackTraces
-            .currentStackTraceElement(
-                Arrays.merge(Temporary.IGNORE_STACK_CLASS_NAMES, new Class<>(this).type().getName())
-            )
-            .get();
+        StackSnapshot stackSnapshot = eInfo.getStackSnapshot();
+        StackTraceElement[] stackTraceElements = Objects.nonNull(stackSnapshot) && stackSnapshot.size() > 0
+            ? stackSnapshot.toArray()
+            : StackTraces
+                .currentStackTraceElement(
+                    Arrays.merge(Temporary.IGNORE_STACK_CLASS_NAMES, new Class<>(this).type().getName())
+                )
+                .get();
         StackTraceElement currentStackTraceElement = stackTraceElements[0];
 
         /*
@@ -168,16 +176,10 @@ public abstract class AbstractTraceDashboardChart implements TraceDashboardChart
         log.trace("generate trace dashboard standard chart data: {}", standardChartData.basicTraceDashboardChartData());
 
         /*
-        标准图表数据填充到存储库
+        标准图表数据填充到存储库，存储库已满时按溢出策略丢弃，不阻塞记录线程
          */
-        for (;;) {
-            try {
-                chartDataRepository.put(standardChartData);
-                log.trace("put trace dashboard standard chart data to repository");
-                break;
-            } catch (InterruptedException e) {
-                // nop
-            }
+        if (chartDataRepository.put(standardChartData)) {
+            log.trace("put trace dashboard standard chart data to repository");
         }
 
         if (!alreadyShowChart) {
@@ -206,6 +208,16 @@ public abstract class AbstractTraceDashboardChart implements TraceDashboardChart
         return chartDataRepository;
     }
 
+    /**
+     * 获取存储库已满时丢弃的图表数据数
+     *
+     * @return 丢弃数
+     * @since 2.6
+     */
+    public long droppedChartDataCount() {
+        return chartDataRepository.droppedCount();
+    }
+
     @Override
     public boolean fillData(TraceDashboardChartData chartData) {
         this.chartData = chartData;
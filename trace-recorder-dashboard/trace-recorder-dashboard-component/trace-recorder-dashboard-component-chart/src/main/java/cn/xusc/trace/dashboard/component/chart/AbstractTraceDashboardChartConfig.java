@@ -15,6 +15,7 @@
  */
 package cn.xusc.trace.dashboard.component.chart;
 
+import cn.xusc.trace.dashboard.component.chart.constant.TraceDashboardChartDataOverflowPolicy;
 import cn.xusc.trace.dashboard.component.chart.constant.TraceDashboardChartRefreshStrategy;
 import cn.xusc.trace.dashboard.config.GenerableTraceDashboardConfig;
 import lombok.Builder;
@@ -38,4 +39,21 @@ public abstract class AbstractTraceDashboardChartConfig extends GenerableTraceDa
      */
     @Builder.Default
     private TraceDashboardChartRefreshStrategy chartRefreshStrategy = TraceDashboardChartRefreshStrategy.TIMELY;
+
+    /**
+     * 跟踪仪表盘图表数据存储库容量
+     *
+     * @since 2.6
+     */
+    @Builder.Default
+    private int chartDataCapacity = 1024;
+
+    /**
+     * 跟踪仪表盘图表数据溢出策略
+     *
+     * @since 2.6
+     */
+    @Builder.Default
+    private TraceDashboardChartDataOverflowPolicy chartDataOverflowPolicy =
+        TraceDashboardChartDataOverflowPolicy.DROP_OLDEST;
 }
@@ -15,12 +15,17 @@
  */
 package cn.xusc.trace.dashboard.component.chart;
 
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import cn.xusc.trace.common.util.concurrent.LossyQueue;
+import cn.xusc.trace.dashboard.component.chart.constant.TraceDashboardChartDataOverflowPolicy;
+import java.util.Objects;
 
 /**
  * 跟踪仪表盘图表数据存储库
  *
+ * <p>
+ * 记录线程与跟踪仪表盘图表数据处理者之间的有损交接，存储库已满时按溢出策略丢弃图表数据，从不阻塞记录线程
+ * </p>
+ *
  * @author WangCai
  * @since 2.5.3
  */
@@ -29,18 +34,41 @@ class TraceDashboardChartDataRepository {
     /**
      * 跟踪仪表盘标准图表数据队列
      */
-    private final BlockingQueue<TraceDashboardChartData> STANDARD_CHART_DATA_QUEUE = new ArrayBlockingQueue<>(1024);
+    private final LossyQueue<TraceDashboardChartData> STANDARD_CHART_DATA_QUEUE;
+
+    /**
+     * 默认构造
+     */
+    TraceDashboardChartDataRepository() {
+        this(1024, TraceDashboardChartDataOverflowPolicy.DROP_OLDEST);
+    }
+
+    /**
+     * 指定容量和溢出策略的构造
+     *
+     * @param capacity 容量
+     * @param overflowPolicy 溢出策略
+     * @throws NullPointerException if {@code overflowPolicy} is null.
+     * @since 2.6
+     */
+    TraceDashboardChartDataRepository(int capacity, TraceDashboardChartDataOverflowPolicy overflowPolicy) {
+        Objects.requireNonNull(overflowPolicy);
+
+        this.STANDARD_CHART_DATA_QUEUE =
+            new LossyQueue<>(capacity, overflowPolicy == TraceDashboardChartDataOverflowPolicy.DROP_OLDEST);
+    }
 
     /**
      * 填充图表数据到队列
      *
+     * <p>从不阻塞，存储库已满时按溢出策略丢弃</p>
+     *
      * @param chartData 图表数据
-     * @return 填充详情
-     * @throws InterruptedException if some property of the specified element prevents it from being added to this queue.
+     * @return 当前图表数据是否已填充
+     * @throws NullPointerException if {@code chartData} is null.
      */
-    public boolean put(TraceDashboardChartData chartData) throws InterruptedException {
-        STANDARD_CHART_DATA_QUEUE.put(chartData);
-        return true;
+    public boolean put(TraceDashboardChartData chartData) {
+        return STANDARD_CHART_DATA_QUEUE.offer(chartData);
     }
 
     /**
@@ -52,4 +80,14 @@ class TraceDashboardChartDataRepository {
     public TraceDashboardChartData take() throws InterruptedException {
         return STANDARD_CHART_DATA_QUEUE.take();
     }
+
+    /**
+     * 获取丢弃的图表数据数
+     *
+     * @return 丢弃数
+     * @since 2.6
+     */
+    public long droppedCount() {
+        return STANDARD_CHART_DATA_QUEUE.droppedCount();
+    }
 }
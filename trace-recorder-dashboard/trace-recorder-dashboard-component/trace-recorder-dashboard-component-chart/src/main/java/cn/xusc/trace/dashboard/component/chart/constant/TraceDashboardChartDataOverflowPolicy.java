@@ -0,0 +1,39 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.dashboard.component.chart.constant;
+
+/**
+ * 跟踪仪表盘图表数据溢出策略
+ *
+ * <p>
+ * 跟踪仪表盘图表数据存储库已满时，记录线程的处理方式，两种策略都不会阻塞记录线程
+ * {@link #DROP_NEWEST} 丢弃当前图表数据
+ * {@link #DROP_OLDEST} 丢弃存储库中尚未处理的旧图表数据，保留当前图表数据
+ * </p>
+ *
+ * @author WangCai
+ * @since 2.6
+ */
+public enum TraceDashboardChartDataOverflowPolicy {
+    /**
+     * 丢弃最新
+     */
+    DROP_NEWEST,
+    /**
+     * 丢弃最旧
+     */
+    DROP_OLDEST,
+}
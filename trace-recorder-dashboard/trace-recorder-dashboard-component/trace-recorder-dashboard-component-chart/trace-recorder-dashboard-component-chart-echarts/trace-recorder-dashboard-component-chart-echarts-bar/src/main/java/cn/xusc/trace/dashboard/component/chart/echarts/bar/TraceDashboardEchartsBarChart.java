@@ -21,6 +21,7 @@ import cn.xusc.trace.core.util.TraceRecorders;
 import cn.xusc.trace.dashboard.TraceDashboardComponentResource;
 import cn.xusc.trace.dashboard.annotation.TraceDashboardComponentOrder;
 import cn.xusc.trace.dashboard.component.chart.*;
+import cn.xusc.trace.dashboard.component.chart.constant.TraceDashboardChartDataOverflowPolicy;
 import cn.xusc.trace.dashboard.component.chart.constant.TraceDashboardChartRefreshStrategy;
 import cn.xusc.trace.dashboard.component.chart.echarts.bar.config.TraceDashboardEchartsBarChartConfig;
 import cn.xusc.trace.dashboard.component.chart.echarts.bar.constant.Temporary;
@@ -99,20 +100,38 @@ public class TraceDashboardEchartsBarChart extends AbstractTraceDashboardChart {
             .builder()
             .chartRefreshStrategy(
                 TraceDashboardChartRefreshStrategy.valueOf(
-                    (String) environment
-                        .get(
-                            TraceDashboardEchartsBarChartConfig.CONFIG_CLASSNAME
-                                .concat(".")
-                                .concat("chartRefreshStrategy")
-                        )
-                        .orElse("TIMELY")
+                    environment.getString(
+                        TraceDashboardEchartsBarChartConfig.CONFIG_CLASSNAME,
+                        "chartRefreshStrategy",
+                        "TIMELY"
+                    )
+                )
+            )
+            .chartDataCapacity(
+                Integer.parseInt(
+                    environment.getString(
+                        TraceDashboardEchartsBarChartConfig.CONFIG_CLASSNAME,
+                        "chartDataCapacity",
+                        "1024"
+                    )
+                )
+            )
+            .chartDataOverflowPolicy(
+                TraceDashboardChartDataOverflowPolicy.valueOf(
+                    environment.getString(
+                        TraceDashboardEchartsBarChartConfig.CONFIG_CLASSNAME,
+                        "chartDataOverflowPolicy",
+                        "DROP_OLDEST"
+                    )
                 )
             )
             .generatePath(
                 Path.of(
-                    (String) environment
-                        .get(TraceDashboardEchartsBarChartConfig.CONFIG_CLASSNAME.concat(".").concat("generatePath"))
-                        .orElse(Systems.getClassPaths(classPath -> Files.isDirectory(Paths.get(classPath)))[0])
+                    environment.getString(
+                        TraceDashboardEchartsBarChartConfig.CONFIG_CLASSNAME,
+                        "generatePath",
+                        Systems.getClassPaths(classPath -> Files.isDirectory(Paths.get(classPath)))[0]
+                    )
                 )
             )
             .homePath(cn.xusc.trace.dashboard.component.chart.constant.Temporary.TEMPLATE_PATH.resolve("echarts/bar"))
@@ -134,13 +153,11 @@ public class TraceDashboardEchartsBarChart extends AbstractTraceDashboardChart {
             .builder()
             .beautifyInterval(
                 Boolean.valueOf(
-                    (String) environment
-                        .get(
-                            TraceDashboardEchartsBarChartConfig.BarAttribute.ATTRIBUTE_CONFIG_CLASSNAME
-                                .concat(".")
-                                .concat("beautifyInterval")
-                        )
-                        .orElse("true")
+                    environment.getString(
+                        TraceDashboardEchartsBarChartConfig.BarAttribute.ATTRIBUTE_CONFIG_CLASSNAME,
+                        "beautifyInterval",
+                        "true"
+                    )
                 )
             )
             .build();
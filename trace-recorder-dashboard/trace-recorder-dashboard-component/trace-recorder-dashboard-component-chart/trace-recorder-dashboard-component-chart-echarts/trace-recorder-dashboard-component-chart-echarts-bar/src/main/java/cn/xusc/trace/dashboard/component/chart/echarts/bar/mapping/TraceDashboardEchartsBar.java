@@ -47,4 +47,11 @@ public class TraceDashboardEchartsBar {
      * Echarts柱状图美化间隔
      */
     short beautifyInterval;
+
+    /**
+     * 存储库已满时丢弃的图表数据数
+     *
+     * @since 2.6
+     */
+    long droppedCount;
 }
@@ -61,6 +61,7 @@ public class TraceDashboardEchartsBarDataChartProcessStep implements TraceDashbo
             .xAxisData(xAxisData)
             .seriesData(seriesData)
             .beautifyInterval(beautifyInterval ? deduceBeautifyInterval(xAxisData.size()) : 0)
+            .droppedCount(chart.droppedChartDataCount())
             .build();
 
         valuePipeline.setValue((T) bar);
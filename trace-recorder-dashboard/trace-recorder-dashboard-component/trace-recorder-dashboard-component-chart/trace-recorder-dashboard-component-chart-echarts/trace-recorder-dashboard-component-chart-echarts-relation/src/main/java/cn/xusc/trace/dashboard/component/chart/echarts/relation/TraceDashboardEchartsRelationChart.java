@@ -21,6 +21,7 @@ import cn.xusc.trace.core.util.TraceRecorders;
 import cn.xusc.trace.dashboard.TraceDashboardComponentResource;
 import cn.xusc.trace.dashboard.annotation.TraceDashboardComponentOrder;
 import cn.xusc.trace.dashboard.component.chart.*;
+import cn.xusc.trace.dashboard.component.chart.constant.TraceDashboardChartDataOverflowPolicy;
 import cn.xusc.trace.dashboard.component.chart.constant.TraceDashboardChartRefreshStrategy;
 import cn.xusc.trace.dashboard.component.chart.echarts.relation.config.TraceDashboardEchartsRelationChartConfig;
 import cn.xusc.trace.dashboard.component.chart.echarts.relation.constant.Temporary;
@@ -103,22 +104,38 @@ public class TraceDashboardEchartsRelationChart extends AbstractTraceDashboardCh
             .builder()
             .chartRefreshStrategy(
                 TraceDashboardChartRefreshStrategy.valueOf(
-                    (String) environment
-                        .get(
-                            TraceDashboardEchartsRelationChartConfig.CONFIG_CLASSNAME
-                                .concat(".")
-                                .concat("chartRefreshStrategy")
-                        )
-                        .orElse("TIMELY")
+                    environment.getString(
+                        TraceDashboardEchartsRelationChartConfig.CONFIG_CLASSNAME,
+                        "chartRefreshStrategy",
+                        "TIMELY"
+                    )
+                )
+            )
+            .chartDataCapacity(
+                Integer.parseInt(
+                    environment.getString(
+                        TraceDashboardEchartsRelationChartConfig.CONFIG_CLASSNAME,
+                        "chartDataCapacity",
+                        "1024"
+                    )
+                )
+            )
+            .chartDataOverflowPolicy(
+                TraceDashboardChartDataOverflowPolicy.valueOf(
+                    environment.getString(
+                        TraceDashboardEchartsRelationChartConfig.CONFIG_CLASSNAME,
+                        "chartDataOverflowPolicy",
+                        "DROP_OLDEST"
+                    )
                 )
             )
             .generatePath(
                 Path.of(
-                    (String) environment
-                        .get(
-                            TraceDashboardEchartsRelationChartConfig.CONFIG_CLASSNAME.concat(".").concat("generatePath")
-                        )
-                        .orElse(Systems.getClassPaths(classPath -> Files.isDirectory(Paths.get(classPath)))[0])
+                    environment.getString(
+                        TraceDashboardEchartsRelationChartConfig.CONFIG_CLASSNAME,
+                        "generatePath",
+                        Systems.getClassPaths(classPath -> Files.isDirectory(Paths.get(classPath)))[0]
+                    )
                 )
             )
             .homePath(
@@ -143,49 +160,39 @@ public class TraceDashboardEchartsRelationChart extends AbstractTraceDashboardCh
         return TraceDashboardEchartsRelationChartConfig.RelationAttribute
             .builder()
             .symbolSize(
-                (String) environment
-                    .get(
-                        TraceDashboardEchartsRelationChartConfig.RelationAttribute.ATTRIBUTE_CONFIG_CLASSNAME
-                            .concat(".")
-                            .concat("symbolSize")
-                    )
-                    .orElse("20")
+                environment.getString(
+                    TraceDashboardEchartsRelationChartConfig.RelationAttribute.ATTRIBUTE_CONFIG_CLASSNAME,
+                    "symbolSize",
+                    "20"
+                )
             )
             .maxXAxis(
-                (String) environment
-                    .get(
-                        TraceDashboardEchartsRelationChartConfig.RelationAttribute.ATTRIBUTE_CONFIG_CLASSNAME
-                            .concat(".")
-                            .concat("maxXAxis")
-                    )
-                    .orElse("100")
+                environment.getString(
+                    TraceDashboardEchartsRelationChartConfig.RelationAttribute.ATTRIBUTE_CONFIG_CLASSNAME,
+                    "maxXAxis",
+                    "100"
+                )
             )
             .offsetXAxis(
-                (String) environment
-                    .get(
-                        TraceDashboardEchartsRelationChartConfig.RelationAttribute.ATTRIBUTE_CONFIG_CLASSNAME
-                            .concat(".")
-                            .concat("offsetXAxis")
-                    )
-                    .orElse("4")
+                environment.getString(
+                    TraceDashboardEchartsRelationChartConfig.RelationAttribute.ATTRIBUTE_CONFIG_CLASSNAME,
+                    "offsetXAxis",
+                    "4"
+                )
             )
             .offsetYAxis(
-                (String) environment
-                    .get(
-                        TraceDashboardEchartsRelationChartConfig.RelationAttribute.ATTRIBUTE_CONFIG_CLASSNAME
-                            .concat(".")
-                            .concat("offsetYAxis")
-                    )
-                    .orElse("2")
+                environment.getString(
+                    TraceDashboardEchartsRelationChartConfig.RelationAttribute.ATTRIBUTE_CONFIG_CLASSNAME,
+                    "offsetYAxis",
+                    "2"
+                )
             )
             .minYAxis(
-                (String) environment
-                    .get(
-                        TraceDashboardEchartsRelationChartConfig.RelationAttribute.ATTRIBUTE_CONFIG_CLASSNAME
-                            .concat(".")
-                            .concat("minYAxis")
-                    )
-                    .orElse("100")
+                environment.getString(
+                    TraceDashboardEchartsRelationChartConfig.RelationAttribute.ATTRIBUTE_CONFIG_CLASSNAME,
+                    "minYAxis",
+                    "100"
+                )
             )
             .build();
     }
@@ -46,6 +46,13 @@ public class TraceDashboardEchartsRelation {
      */
     List<EchartsRelationCategory> categories;
 
+    /**
+     * 存储库已满时丢弃的图表数据数
+     *
+     * @since 2.6
+     */
+    long droppedCount;
+
     /**
      * Echarts关系图节点
      */
@@ -23,7 +23,6 @@ import cn.xusc.trace.dashboard.component.chart.TraceDashboardChartProcessStep;
 import cn.xusc.trace.dashboard.component.chart.echarts.relation.data.TraceDashboardEchartsRelationChartData;
 import cn.xusc.trace.dashboard.component.chart.echarts.relation.mapping.TraceDashboardEchartsRelation;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * 跟踪仪表盘Echarts关系图数据图表处理步骤
@@ -33,6 +32,31 @@ import java.util.stream.Collectors;
  */
 public class TraceDashboardEchartsRelationDataChartProcessStep implements TraceDashboardChartProcessStep {
 
+    /**
+     * 类名对应的分类索引
+     */
+    private final Map<String, Integer> CATEGORY_INDEXES = new HashMap<>();
+
+    /**
+     * 已生成的分类
+     */
+    private final List<TraceDashboardEchartsRelation.EchartsRelationCategory> CATEGORIES = new ArrayList<>();
+
+    /**
+     * 已生成的节点
+     */
+    private final List<TraceDashboardEchartsRelation.EchartsRelationNode> NODES = new ArrayList<>();
+
+    /**
+     * 已生成的连接
+     */
+    private final List<TraceDashboardEchartsRelation.EchartsRelationLink> LINKS = new ArrayList<>();
+
+    /**
+     * 上次渲染的最新图表数据
+     */
+    private TraceDashboardEchartsRelationChartData lastChartData;
+
     /**
      * 基础构造
      */
@@ -46,34 +70,31 @@ public class TraceDashboardEchartsRelationDataChartProcessStep implements TraceD
     ) throws Exception {
         TraceDashboardEchartsRelationChartData relationChartData = (TraceDashboardEchartsRelationChartData) valuePipeline.getValue();
 
-        Deque<TraceDashboardEchartsRelationChartData> tempChartsData = new LinkedList<>();
-        do {
-            tempChartsData.addFirst(relationChartData);
-        } while (
-            Objects.nonNull(
-                relationChartData = (TraceDashboardEchartsRelationChartData) relationChartData.nextChartData()
-            )
-        );
+        /*
+        增量渲染：仅追加上次渲染之后新到的图表数据
+         */
+        Deque<TraceDashboardEchartsRelationChartData> newChartsData = new ArrayDeque<>();
+        for (
+            TraceDashboardEchartsRelationChartData chartData = relationChartData;
+            Objects.nonNull(chartData) && chartData != lastChartData;
+            chartData = (TraceDashboardEchartsRelationChartData) chartData.nextChartData()
+        ) {
+            newChartsData.addFirst(chartData);
+        }
+        if (Objects.nonNull(relationChartData)) {
+            lastChartData = relationChartData;
+            /*
+            断开已渲染的历史数据，使其可被回收
+             */
+            relationChartData.setNextChartData(null);
+        }
 
-        int id = 0, offset = -1;
-        String className;
+        int id = NODES.size();
         Spaces.CoordinateAxis coordinateAxis;
-        List<String> classNames = new ArrayList<>();
-        List<TraceDashboardEchartsRelation.EchartsRelationNode> relationNodes = new ArrayList<>();
-        List<TraceDashboardEchartsRelation.EchartsRelationLink> relationLinks = new ArrayList<>();
-        for (TraceDashboardEchartsRelationChartData chartData : tempChartsData) {
-            className = chartData.className();
+        for (TraceDashboardEchartsRelationChartData chartData : newChartsData) {
             coordinateAxis = chartData.getCoordinateAxis();
-            if ((offset = classNames.indexOf(className)) < 0) {
-                classNames.add(className);
-            }
 
-            /*
-            偏移推断：如果最后节点段索引不存在，必定是添加到最后
-             */
-            offset = offset == -1 ? classNames.size() - 1 : offset;
-
-            relationNodes.add(
+            NODES.add(
                 TraceDashboardEchartsRelation.EchartsRelationNode
                     .builder()
                     .id(String.valueOf(id))
@@ -89,11 +110,11 @@ public class TraceDashboardEchartsRelationDataChartProcessStep implements TraceD
                     .x(coordinateAxis.getX())
                     .y(coordinateAxis.getY())
                     .value(chartData.info())
-                    .category(offset)
+                    .category(categoryIndex(chartData.className()))
                     .build()
             );
 
-            relationLinks.add(
+            LINKS.add(
                 TraceDashboardEchartsRelation.EchartsRelationLink
                     .builder()
                     .source(String.valueOf(id))
@@ -104,24 +125,37 @@ public class TraceDashboardEchartsRelationDataChartProcessStep implements TraceD
         }
         TraceDashboardEchartsRelation relation = TraceDashboardEchartsRelation
             .builder()
-            .nodes(relationNodes)
-            .links(relationLinks)
-            .categories(
-                classNames
-                    .stream()
-                    .map(categoriesClassName ->
-                        TraceDashboardEchartsRelation.EchartsRelationCategory
-                            .builder()
-                            .name(categoriesClassName)
-                            .build()
-                    )
-                    .collect(Collectors.toList())
-            )
+            .nodes(NODES)
+            .links(LINKS)
+            .categories(CATEGORIES)
+            .droppedCount(chart.droppedChartDataCount())
             .build();
 
         valuePipeline.setValue((T) relation);
     }
 
+    /**
+     * 获取类名对应的分类索引
+     *
+     * <p>
+     * 新类名追加为新分类
+     * </p>
+     *
+     * @param className 类名
+     * @return 分类索引
+     */
+    private int categoryIndex(String className) {
+        return CATEGORY_INDEXES.computeIfAbsent(
+            className,
+            newClassName -> {
+                CATEGORIES.add(
+                    TraceDashboardEchartsRelation.EchartsRelationCategory.builder().name(newClassName).build()
+                );
+                return CATEGORIES.size() - 1;
+            }
+        );
+    }
+
     /**
      * 生成关系图节点名称
      *
@@ -15,6 +15,10 @@
  */
 package cn.xusc.trace.example.common;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import cn.xusc.trace.common.util.Formats;
 import cn.xusc.trace.core.TraceRecorder;
 import cn.xusc.trace.core.config.TraceRecorderConfig;
@@ -69,4 +73,51 @@ public final class FormatsTest {
     public void multipleValueFormatOfEscapeTest() {
         recorder.log(Formats.format("\\{} {} {}", "hello", "Formats"));
     }
+
+    /**
+     * 已编译模板的格式化结果
+     */
+    @Test
+    @DisplayName("Compiled template format")
+    public void compiledTemplateFormatTest() {
+        assertEquals("a 1 b 2 c", Formats.format("a {} b {} c", 1, 2));
+        assertEquals("a 1 b 2 c", Formats.format("a {} b {} c", 1, 2));
+        assertEquals("a 1 b {} c", Formats.format("a {} b {} c", 1));
+        assertEquals("a 1 b 2 c", Formats.format("a {} b {} c", 1, 2, 3));
+        assertEquals("\\{} 1", Formats.format("\\{} {}", 1));
+        assertEquals("{1}", Formats.format("{{}}", 1));
+        assertEquals("no placeholder", Formats.format("no placeholder", 1));
+        assertEquals("{}", Formats.format("{}"));
+        assertEquals("null", Formats.format("{}", (Object) null));
+
+        assertTrue(Formats.isMoreArgs("{} {}", 1, 2, false));
+        assertFalse(Formats.isMoreArgs("{} {}", 1, 2));
+        assertFalse(Formats.isMoreArgs("{} {}", 1));
+        assertTrue(Formats.isMoreArgs("\\{}", 1));
+        assertTrue(Formats.isMoreArgs("a", 1));
+
+        assertEquals(2, Formats.placeholderCount("{} {}"));
+        assertEquals(0, Formats.placeholderCount("\\{}"));
+        assertEquals(0, Formats.placeholderCount("a"));
+    }
+
+    /**
+     * 缓存已满后热点模板仍能被缓存
+     */
+    @Test
+    @DisplayName("Hot template cached after cache full")
+    public void hotTemplateCachedAfterCacheFullTest() {
+        int dynamicCount = 1 << 12;
+        for (int i = 0; i < dynamicCount; i++) {
+            Formats.format("dynamic " + i + " {}", i);
+        }
+
+        String hotPattern = "hot {}";
+        for (int i = 0; i < dynamicCount; i++) {
+            assertEquals("hot " + i, Formats.format(hotPattern, i));
+            Formats.format("dynamic again " + i + " {}", i);
+        }
+        assertTrue(Formats.isCached(hotPattern));
+        assertFalse(Formats.isCached("dynamic 0 {}"));
+    }
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.example.common;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import cn.xusc.trace.common.exception.TraceException;
+import cn.xusc.trace.common.util.concurrent.LossyQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link LossyQueue}测试
+ *
+ * @author wangcai
+ */
+public final class LossyQueueTest {
+
+    /**
+     * 丢弃最新，已满时放入失败并计数
+     */
+    @Test
+    @DisplayName("Drop newest")
+    public void dropNewestTest() {
+        LossyQueue<Integer> queue = new LossyQueue<>(3, false);
+        assertEquals(4, queue.capacity());
+        for (int i = 0; i < 6; i++) {
+            assertEquals(i < 4, queue.offer(i));
+        }
+        assertEquals(2, queue.droppedCount());
+        assertEquals(4, queue.size());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i, queue.poll());
+        }
+        assertNull(queue.poll());
+        assertThrowsExactly(TraceException.class, () -> new LossyQueue<>(0, false));
+    }
+
+    /**
+     * 丢弃最旧，已满时保留最新的元素
+     */
+    @Test
+    @DisplayName("Drop oldest")
+    public void dropOldestTest() {
+        LossyQueue<Integer> queue = new LossyQueue<>(4, true);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(queue.offer(i));
+        }
+        assertEquals(6, queue.droppedCount());
+        for (int i = 6; i < 10; i++) {
+            assertEquals(i, queue.poll());
+        }
+        assertNull(queue.poll());
+    }
+
+    /**
+     * 多生产者不阻塞，单消费者挂起等待，取出数与丢弃数之和等于放入数
+     *
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    @Test
+    @DisplayName("Concurrent producers and blocking consumer")
+    public void concurrentTest() throws InterruptedException {
+        LossyQueue<Integer> queue = new LossyQueue<>(64, true);
+        int producerCount = 4, perProducer = 10_000;
+        AtomicLong taken = new AtomicLong();
+        Thread consumer = new Thread(() -> {
+            try {
+                for (;;) {
+                    queue.take();
+                    taken.incrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                // nop
+            }
+        });
+        consumer.start();
+
+        CountDownLatch latch = new CountDownLatch(producerCount);
+        for (int i = 0; i < producerCount; i++) {
+            new Thread(() -> {
+                for (int j = 0; j < perProducer; j++) {
+                    queue.offer(j);
+                }
+                latch.countDown();
+            })
+                .start();
+        }
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        while (queue.size() > 0) {
+            Thread.yield();
+        }
+        consumer.interrupt();
+        consumer.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(consumer.isAlive());
+        assertEquals((long) producerCount * perProducer, taken.get() + queue.droppedCount());
+    }
+}
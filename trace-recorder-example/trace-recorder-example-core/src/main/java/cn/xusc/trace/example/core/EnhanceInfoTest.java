@@ -0,0 +1,196 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.example.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import cn.xusc.trace.common.exception.TraceException;
+import cn.xusc.trace.core.CallSite;
+import cn.xusc.trace.core.EnhanceAttribute;
+import cn.xusc.trace.core.EnhanceInfo;
+import cn.xusc.trace.core.TraceRecorder;
+import cn.xusc.trace.core.constant.Temporary;
+import cn.xusc.trace.core.enhance.InfoEnhancer;
+import cn.xusc.trace.example.core.util.need.enhance.PrefixInfoEnhancerTest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 增强信息测试
+ *
+ * @author wangcai
+ */
+public class EnhanceInfoTest {
+
+    /**
+     * 延迟格式化，首次获取信息时格式化一次并缓存
+     */
+    @Test
+    @DisplayName("Deferred format")
+    public void deferredFormatTest() {
+        AtomicInteger toStringCount = new AtomicInteger();
+        Object arg = new Object() {
+            @Override
+            public String toString() {
+                toStringCount.incrementAndGet();
+                return "arg";
+            }
+        };
+        EnhanceInfo enhanceInfo = new EnhanceInfo("info {}", arg);
+        assertFalse(enhanceInfo.isFormatted());
+        assertEquals("info {}", enhanceInfo.getTemplate());
+        assertEquals(0, toStringCount.get());
+
+        assertEquals("info arg", enhanceInfo.getInfo());
+        assertEquals("info arg", enhanceInfo.getInfo());
+        assertTrue(enhanceInfo.isFormatted());
+        assertEquals(1, toStringCount.get());
+
+        EnhanceInfo cloneInfo = new EnhanceInfo("info {}", arg).clone();
+        assertFalse(cloneInfo.isFormatted());
+        assertEquals("info arg", cloneInfo.getInfo());
+    }
+
+    /**
+     * 被增强器丢弃的信息不会格式化
+     */
+    @Test
+    @DisplayName("Dropped record never formatted")
+    public void droppedNeverFormattedTest() {
+        AtomicInteger toStringCount = new AtomicInteger();
+        Object arg = new Object() {
+            @Override
+            public String toString() {
+                toStringCount.incrementAndGet();
+                return "arg";
+            }
+        };
+        TraceRecorder recorder = new TraceRecorder();
+        /*
+          移除会读取信息的测试增强器，确保丢弃信息的增强器最先执行
+         */
+        List<InfoEnhancer> infoEnhancers = new ArrayList<>();
+        for (InfoEnhancer infoEnhancer : recorder.getInfoEnhancers()) {
+            if (infoEnhancer instanceof PrefixInfoEnhancerTest) {
+                infoEnhancers.add(infoEnhancer);
+            }
+        }
+        infoEnhancers.forEach(recorder::removeInfoEnhancer);
+        recorder.addInfoEnhancer(
+            new InfoEnhancer() {
+                @Override
+                public EnhanceInfo enhance(EnhanceInfo eInfo) {
+                    return null;
+                }
+
+                @Override
+                public EnhanceInfo setWriteInfo(EnhanceInfo eInfo) {
+                    return eInfo;
+                }
+            }
+        );
+        recorder.log("{}", arg);
+        assertEquals(0, toStringCount.get());
+    }
+
+    /**
+     * 布局在获取写出信息时一次拼接，直接设置的写出信息覆盖布局
+     */
+    @Test
+    @DisplayName("Layout write info")
+    public void layoutWriteInfoTest() {
+        EnhanceInfo enhanceInfo = new EnhanceInfo("info {}", 1);
+        enhanceInfo.setClassName("Demo");
+        enhanceInfo.setMethodName("main");
+        enhanceInfo.setLineNumber(5);
+        enhanceInfo.layoutLineSeparator();
+        enhanceInfo.layoutCaller();
+        assertEquals("Demo.main()[5] - info 1" + System.lineSeparator(), enhanceInfo.getWriteInfo());
+        enhanceInfo.layoutThreadName("main");
+        assertEquals("main Demo.main()[5] - info 1" + System.lineSeparator(), enhanceInfo.getWriteInfo());
+
+        enhanceInfo.setWriteInfo("override");
+        assertEquals("override", enhanceInfo.getWriteInfo());
+    }
+
+    /**
+     * 同一调用点驻留为同一实例，短类名和布局前缀预先生成
+     */
+    @Test
+    @DisplayName("Interned call site")
+    public void callSiteTest() {
+        CallSite callSite = CallSite.of(new StackTraceElement("cn.xusc.Demo", "main", "Demo.java", 5));
+        assertSame(callSite, CallSite.of(new StackTraceElement("cn.xusc.Demo", "main", "Demo.java", 5)));
+        assertNotSame(callSite, CallSite.of(new StackTraceElement("cn.xusc.Demo", "main", "Demo.java", 6)));
+        assertTrue(callSite.getId() >= 0);
+        assertEquals("Demo", callSite.getShortClassName());
+        assertEquals("cn.xusc.Demo.main()[5] - ", callSite.getPrefix());
+        assertEquals("Demo.main()[5] - ", callSite.getShortPrefix());
+
+        EnhanceInfo enhanceInfo = new EnhanceInfo("info");
+        enhanceInfo.setCallSite(callSite);
+        enhanceInfo.layoutCaller();
+        assertEquals("cn.xusc.Demo.main()[5] - info", enhanceInfo.getWriteInfo());
+        enhanceInfo.setClassName(callSite.getShortClassName());
+        enhanceInfo.layoutCaller();
+        assertEquals("Demo.main()[5] - info", enhanceInfo.getWriteInfo());
+        enhanceInfo.setLineNumber(6);
+        enhanceInfo.layoutCaller();
+        assertEquals("Demo.main()[6] - info", enhanceInfo.getWriteInfo());
+    }
+
+    /**
+     * 类型化增强属性按槽位存取，重置后清空，克隆时复制
+     */
+    @Test
+    @DisplayName("Typed enhance attribute")
+    @SuppressWarnings("deprecation")
+    public void attributeTest() {
+        EnhanceAttribute<String> traceId = EnhanceAttribute.of("test.traceId", String.class);
+        assertSame(traceId, EnhanceAttribute.of("test.traceId", String.class));
+        assertThrowsExactly(TraceException.class, () -> EnhanceAttribute.of("test.traceId", Integer.class));
+        assertThrowsExactly(TraceException.class, () -> EnhanceAttribute.of("test.count", int.class));
+
+        EnhanceInfo enhanceInfo = new EnhanceInfo("info {}", 1);
+        assertNull(enhanceInfo.getAttribute(traceId));
+        enhanceInfo.setAttribute(traceId, "t-1");
+        enhanceInfo.setEnableStack(true);
+        assertEquals("t-1", enhanceInfo.getAttribute(traceId));
+        assertEquals("t-1", enhanceInfo.getTemporaryValue("test.traceId"));
+        assertEquals(true, enhanceInfo.getTemporaryValue(Temporary.ENABLE_STACK));
+        enhanceInfo.setTemporaryValue(Temporary.ENABLE_THREAD_NAME, true);
+        assertTrue(enhanceInfo.isEnableThreadName());
+
+        EnhanceInfo cloneInfo = enhanceInfo.clone();
+        assertEquals("t-1", cloneInfo.getAttribute(traceId));
+        assertTrue(cloneInfo.isEnableStack());
+
+        assertSame(enhanceInfo, enhanceInfo.reset("next"));
+        assertNull(enhanceInfo.getAttribute(traceId));
+        assertFalse(enhanceInfo.isEnableStack());
+        assertEquals("next", enhanceInfo.getInfo());
+        assertEquals("t-1", cloneInfo.getAttribute(traceId));
+    }
+}
@@ -16,12 +16,16 @@
 package cn.xusc.trace.example.core;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 import cn.xusc.trace.common.exception.TraceClosedException;
 import cn.xusc.trace.common.exception.TraceException;
 import cn.xusc.trace.common.util.Formats;
 import cn.xusc.trace.common.util.Strings;
+import cn.xusc.trace.core.EnhanceInfo;
+import cn.xusc.trace.core.StackSnapshot;
 import cn.xusc.trace.core.TraceRecorder;
 import cn.xusc.trace.core.TraceRecorderEnvironment;
 import cn.xusc.trace.core.TraceRecorderVersion;
@@ -29,16 +33,30 @@ import cn.xusc.trace.core.config.TraceRecorderConfig;
 import cn.xusc.trace.core.enhance.*;
 import cn.xusc.trace.core.filter.InfoFilter;
 import cn.xusc.trace.core.filter.RecordLabelInfoFilter;
+import cn.xusc.trace.core.handle.TracePipeline;
 import cn.xusc.trace.core.record.ConsoleInfoRecorder;
 import cn.xusc.trace.core.record.InfoRecorder;
+import cn.xusc.trace.core.record.TemplateInfoRecorder;
 import cn.xusc.trace.core.util.TraceRecorders;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 /**
  * 跟踪记录仪测试
@@ -119,6 +137,39 @@ public class TraceRecorderTest {
         recorder.nolog("hide {}", "record");
     }
 
+    /**
+     * 隐藏记录在记录线程上直接跳过，移除记录标签信息过滤器后仍交给过滤器处理
+     *
+     * @param recorder 跟踪记录仪
+     */
+    @ParameterizedTest
+    @MethodSource("generateSyncTraceRecorder")
+    @DisplayName("hide record fast path")
+    public void hideRecordFastPathTest(TraceRecorder recorder) {
+        LongAdder filtered = new LongAdder();
+        recorder.addInfoFilter((info, label) -> {
+            filtered.increment();
+            return true;
+        });
+        assertTrue(recorder.getPipeline().isHideDiscarded());
+
+        recorder.nolog("{}", 1);
+        recorder.log("{}", 1, false);
+        recorder.log("{}", 1, "FALSE");
+        assertEquals(0, filtered.sum());
+        recorder.log("{}", false);
+        assertEquals(1, filtered.sum());
+
+        for (InfoFilter infoFilter : recorder.getInfoFilters()) {
+            if (infoFilter instanceof RecordLabelInfoFilter) {
+                recorder.removeInfoFilter(infoFilter);
+            }
+        }
+        assertFalse(recorder.getPipeline().isHideDiscarded());
+        recorder.nolog("{}", 1);
+        assertEquals(2, filtered.sum());
+    }
+
     /**
      * 添加一个信息过滤器
      *
@@ -197,6 +248,301 @@ public class TraceRecorderTest {
         assertTrue(recorder.removeInfoRecorder(infoRecorder));
     }
 
+    /**
+     * 跟踪管道仅在组件变化后重新编译
+     *
+     * @param recorder 跟踪记录仪
+     */
+    @ParameterizedTest
+    @MethodSource("generateSyncTraceRecorder")
+    @DisplayName("recompile pipeline only on component change")
+    public void pipelineTest(TraceRecorder recorder) {
+        TracePipeline pipeline = recorder.getPipeline();
+        assertSame(pipeline, recorder.getPipeline());
+
+        InfoRecorder infoRecorder = mock(InfoRecorder.class);
+        recorder.addInfoRecorder(infoRecorder);
+        TracePipeline addedPipeline = recorder.getPipeline();
+        assertNotSame(pipeline, addedPipeline);
+        recorder.log("pipe");
+        verify(infoRecorder).record(anyString());
+
+        assertFalse(recorder.removeInfoRecorder(mock(InfoRecorder.class)));
+        assertSame(addedPipeline, recorder.getPipeline());
+        assertTrue(recorder.removeInfoRecorder(infoRecorder));
+        assertNotSame(addedPipeline, recorder.getPipeline());
+        recorder.log("pipe");
+        verify(infoRecorder).record(anyString());
+    }
+
+    /**
+     * 同一线程连续相同的记录折叠为一条汇总记录
+     *
+     * @param enableAsync 启用异步记录
+     */
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    @DisplayName("repeat aggregation")
+    public void repeatAggregationTest(boolean enableAsync) {
+        TraceRecorder recorder = new TraceRecorder(
+            TraceRecorderConfig.builder().enableAsync(enableAsync).taskHandlerSize(1).repeatWindow(60_000).build()
+        );
+        List<String> writeInfos = Collections.synchronizedList(new ArrayList<>());
+        recorder.addInfoRecorder(writeInfos::add);
+
+        for (int i = 0; i < 100; i++) {
+            recorder.log("{}", 1);
+        }
+        recorder.log("{}", 2);
+        recorder.log("{}", 2);
+        recorder.shutdown();
+
+        assertEquals(4, writeInfos.size());
+        assertEquals("prefix:1", writeInfos.get(0).strip());
+        assertTrue(writeInfos.get(1).contains("1 [repeated 99 times, "));
+        assertEquals("prefix:2", writeInfos.get(2).strip());
+        assertTrue(writeInfos.get(3).contains("2 [repeated 1 times, "));
+    }
+
+    /**
+     * 参数与占位符数量不一致时，汇总参数仍落在汇总后缀上
+     *
+     * @param enableAsync 启用异步记录
+     */
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    @DisplayName("repeat aggregation with mismatched args")
+    public void repeatAggregationMismatchedArgsTest(boolean enableAsync) {
+        TraceRecorder recorder = new TraceRecorder(
+            TraceRecorderConfig.builder().enableAsync(enableAsync).taskHandlerSize(1).repeatWindow(60_000).build()
+        );
+        List<String> writeInfos = Collections.synchronizedList(new ArrayList<>());
+        recorder.addInfoRecorder(writeInfos::add);
+
+        for (int i = 0; i < 3; i++) {
+            recorder.log("{}", 1, 7);
+        }
+        for (int i = 0; i < 2; i++) {
+            recorder.log("{}{}", 1);
+        }
+        recorder.shutdown();
+
+        String time = "\\d{2}:\\d{2}:\\d{2}\\.\\d{3}";
+        assertEquals(4, writeInfos.size());
+        assertTrue(writeInfos.get(1).strip().matches(".*1 \\[repeated 2 times, " + time + " ~ " + time + "]"));
+        assertTrue(writeInfos.get(3).strip().matches(".*1\\{} \\[repeated 1 times, " + time + " ~ " + time + "]"));
+    }
+
+    /**
+     * 重复停止后没有新的记录，超过聚合窗口时仍输出汇总记录
+     *
+     * @param config 跟踪记录仪配置
+     */
+    @ParameterizedTest
+    @MethodSource("generateRepeatTraceRecorderConfig")
+    @DisplayName("repeat aggregation expired without next record")
+    public void repeatAggregationExpireTest(TraceRecorderConfig config) {
+        TraceRecorder recorder = new TraceRecorder(config);
+        List<String> writeInfos = Collections.synchronizedList(new ArrayList<>());
+        recorder.addInfoRecorder(writeInfos::add);
+
+        for (int i = 0; i < 10; i++) {
+            recorder.log("{}", 1);
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (writeInfos.size() < 2 && System.nanoTime() - deadline < 0) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        List<String> expiredWriteInfos = new ArrayList<>(writeInfos);
+        recorder.shutdown();
+
+        assertEquals(2, expiredWriteInfos.size());
+        assertTrue(expiredWriteInfos.get(1).contains("1 [repeated 9 times, "));
+        assertEquals(2, writeInfos.size());
+    }
+
+    /**
+     * 被聚合的重复记录不经过增强器，只有首条记录和汇总记录被增强
+     *
+     * @param taskHandlerSize 任务处理器数量
+     */
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 2 })
+    @DisplayName("repeat aggregation before enhance")
+    public void repeatAggregationBeforeEnhanceTest(int taskHandlerSize) {
+        TraceRecorder recorder = new TraceRecorder(
+            TraceRecorderConfig
+                .builder()
+                .enableAsync(true)
+                .taskHandlerSize(taskHandlerSize)
+                .repeatWindow(60_000)
+                .build()
+        );
+        List<String> writeInfos = Collections.synchronizedList(new ArrayList<>());
+        recorder.addInfoRecorder(writeInfos::add);
+        LongAdder enhanced = new LongAdder();
+        recorder.addInfoEnhancer(
+            new InfoEnhancer() {
+                @Override
+                public EnhanceInfo enhance(EnhanceInfo eInfo) {
+                    enhanced.increment();
+                    return eInfo;
+                }
+
+                @Override
+                public EnhanceInfo setWriteInfo(EnhanceInfo eInfo) {
+                    return eInfo;
+                }
+            }
+        );
+
+        for (int i = 0; i < 100; i++) {
+            recorder.log("{}", 1);
+        }
+        recorder.shutdown();
+
+        assertEquals(2, enhanced.sum());
+        assertEquals(2, writeInfos.size());
+        assertTrue(writeInfos.get(1).contains("1 [repeated 99 times, "));
+    }
+
+    /**
+     * 堆栈快照在记录线程上捕获一次，由需要调用栈的增强器共享
+     *
+     * @param enableAsync 启用异步记录
+     */
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    @DisplayName("shared stack snapshot")
+    public void stackSnapshotTest(boolean enableAsync) {
+        TraceRecorder recorder = new TraceRecorder(
+            TraceRecorderConfig.builder().enableAsync(enableAsync).taskHandlerSize(1).build()
+        );
+        List<StackSnapshot> snapshots = Collections.synchronizedList(new ArrayList<>());
+        recorder.addInfoRecorder(writeInfo -> {});
+        recorder.addInfoEnhancer(
+            new InfoEnhancer() {
+                @Override
+                public EnhanceInfo enhance(EnhanceInfo eInfo) {
+                    snapshots.add(eInfo.getStackSnapshot());
+                    return eInfo;
+                }
+
+                @Override
+                public EnhanceInfo setWriteInfo(EnhanceInfo eInfo) {
+                    return eInfo;
+                }
+
+                @Override
+                public int stackDepth() {
+                    return 4;
+                }
+            }
+        );
+
+        recorder.log("{}", 1);
+        recorder.shutdown();
+
+        assertEquals(1, snapshots.size());
+        StackSnapshot snapshot = snapshots.get(0);
+        assertNotNull(snapshot);
+        assertTrue(snapshot.size() <= 4);
+        assertEquals(TraceRecorderTest.class.getName(), snapshot.caller().getClassName());
+        assertEquals("stackSnapshotTest", snapshot.caller().getMethodName());
+        assertNotSame(snapshot.toArray(), snapshot.toArray());
+    }
+
+    /**
+     * 只有模板信息记录器时仍执行增强器，增强中止的记录不提交到模板信息记录器
+     *
+     * @param enableAsync 启用异步记录
+     */
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    @DisplayName("template recorder only enhance")
+    public void templateRecorderEnhanceTest(boolean enableAsync) {
+        TraceRecorder recorder = new TraceRecorder(
+            TraceRecorderConfig.builder().enableAsync(enableAsync).taskHandlerSize(1).build()
+        );
+        List<InfoRecorder> infoRecorders = new ArrayList<>();
+        for (InfoRecorder infoRecorder : recorder.getInfoRecorders()) {
+            infoRecorders.add(infoRecorder);
+        }
+        infoRecorders.forEach(recorder::removeInfoRecorder);
+        List<String> templates = Collections.synchronizedList(new ArrayList<>());
+        recorder.addInfoRecorder((TemplateInfoRecorder) (threadName, caller, template, argArray) ->
+            templates.add(template)
+        );
+        LongAdder enhanced = new LongAdder();
+        recorder.addInfoEnhancer(
+            new InfoEnhancer() {
+                @Override
+                public EnhanceInfo enhance(EnhanceInfo eInfo) {
+                    enhanced.increment();
+                    return eInfo.getInfo().endsWith("drop") ? null : eInfo;
+                }
+
+                @Override
+                public EnhanceInfo setWriteInfo(EnhanceInfo eInfo) {
+                    return eInfo;
+                }
+            }
+        );
+
+        recorder.log("{}", 1);
+        recorder.log("drop");
+        recorder.shutdown();
+
+        assertEquals(2, enhanced.sum());
+        assertEquals(List.of("{}"), templates);
+    }
+
+    /**
+     * 异步记录时并发添加、移除组件
+     *
+     * @param recorder 跟踪记录仪
+     */
+    @ParameterizedTest
+    @MethodSource("generateAsyncTraceRecorder")
+    @DisplayName("add and remove components under async load")
+    public void concurrentComponentChangeTest(TraceRecorder recorder) throws Exception {
+        for (InfoRecorder infoRecorder : recorder.getInfoRecorders()) {
+            recorder.removeInfoRecorder(infoRecorder);
+        }
+        LongAdder counter = new LongAdder();
+        recorder.addInfoRecorder(writeInfo -> counter.increment());
+        int logSize = 20000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            futures.add(
+                executor.submit(() -> {
+                    for (int j = 0; j < logSize; j++) {
+                        recorder.log("load");
+                    }
+                })
+            );
+            futures.add(
+                executor.submit(() -> {
+                    for (int j = 0; j < logSize / 10; j++) {
+                        InfoRecorder infoRecorder = writeInfo -> {};
+                        assertTrue(recorder.addInfoRecorder(infoRecorder));
+                        assertTrue(recorder.removeInfoRecorder(infoRecorder));
+                    }
+                })
+            );
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(1, recorder.getInfoRecorders().size());
+        recorder.shutdown();
+        assertEquals(2L * logSize, counter.sum());
+    }
+
     /**
      * 获取信息过滤器列表
      *
@@ -446,6 +792,44 @@ public class TraceRecorderTest {
         assertThrowsExactly(TraceClosedException.class, () -> environment.get("version"));
     }
 
+    /**
+     * 验证环境按实例隔离及类型化获取
+     */
+    @Test
+    @DisplayName("verify environment isolation and typed access")
+    public void environmentIsolationTest() {
+        TraceRecorder syncRecorder = new TraceRecorder();
+        TraceRecorder asyncRecorder = new TraceRecorder(
+            TraceRecorderConfig.builder().enableAsync(true).taskHandlerSize(1).build()
+        );
+        try {
+            TraceRecorderEnvironment syncEnvironment = syncRecorder.environment();
+            TraceRecorderEnvironment asyncEnvironment = asyncRecorder.environment();
+            assertFalse(syncEnvironment.getBoolean("enableAsync", true));
+            assertTrue(asyncEnvironment.getBoolean("enableAsync", false));
+
+            syncEnvironment.put("scope.size", "16");
+            assertEquals(16, syncEnvironment.getInt("scope.size", 0));
+            assertEquals(16L, syncEnvironment.getLong("scope.size", 0L));
+            assertEquals("16", syncEnvironment.getString("scope", "size", "0"));
+            assertEquals(0, asyncEnvironment.getInt("scope.size", 0));
+            syncEnvironment.put("scope.size", 32);
+            assertEquals(32, syncEnvironment.getInt("scope.size", 0));
+            syncEnvironment.put("scope.size", "none");
+            assertThrowsExactly(TraceException.class, () -> syncEnvironment.getInt("scope.size", 0));
+
+            Map<String, Object> snapshot = syncEnvironment.snapshot();
+            assertEquals("none", snapshot.get("scope.size"));
+            assertThrowsExactly(UnsupportedOperationException.class, () -> snapshot.put("scope.size", "0"));
+            Map<String, Object> walked = new HashMap<>();
+            syncEnvironment.walk(walked::put);
+            assertEquals(snapshot.keySet(), walked.keySet());
+        } finally {
+            syncRecorder.shutdown();
+            asyncRecorder.shutdown();
+        }
+    }
+
     /**
      * 验证本地共享跟踪记录仪
      *
@@ -482,6 +866,19 @@ public class TraceRecorderTest {
         return Stream.of(new TraceRecorder(TraceRecorderConfig.builder().build()));
     }
 
+    /**
+     * 生成启用重复记录聚合的跟踪记录仪配置
+     */
+    @DisplayName("generate repeat TraceRecorderConfig")
+    private static Stream<TraceRecorderConfig> generateRepeatTraceRecorderConfig() {
+        return Stream.of(
+            TraceRecorderConfig.builder().enableAsync(false).repeatWindow(200).build(),
+            TraceRecorderConfig.builder().enableAsync(true).taskHandlerSize(1).repeatWindow(200).build(),
+            TraceRecorderConfig.builder().enableAsync(true).taskHandlerSize(2).repeatWindow(200).build(),
+            TraceRecorderConfig.builder().enableAsync(true).taskHandlerSize(1).stripeSize(2).repeatWindow(200).build()
+        );
+    }
+
     /**
      * 断言内部两个迭代器是否相等 -> 类比较
      *
@@ -0,0 +1,436 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.example.core.handle;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import cn.xusc.trace.core.TraceRecorder;
+import cn.xusc.trace.core.config.TraceRecorderConfig;
+import cn.xusc.trace.core.constant.AsyncOverflowPolicy;
+import cn.xusc.trace.core.record.BatchInfoRecorder;
+import cn.xusc.trace.core.record.InfoRecorder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * 异步处理器测试
+ *
+ * @author wangcai
+ */
+public class AsyncTraceHandlerTest {
+
+    /**
+     * 每个生产线程的记录数
+     */
+    private static final int RECORD_COUNT = 50_000;
+
+    /**
+     * 慢速记录器下的溢出策略，记录数与丢弃数之和等于总记录数
+     *
+     * @param overflowPolicy 溢出策略
+     */
+    @ParameterizedTest
+    @EnumSource(value = AsyncOverflowPolicy.class, names = { "DROP_NEWEST", "DROP_OLDEST", "SAMPLE" })
+    @DisplayName("Async overflow policy")
+    public void asyncOverflowPolicyTest(AsyncOverflowPolicy overflowPolicy) {
+        TraceRecorder recorder = new TraceRecorder(
+            TraceRecorderConfig
+                .builder()
+                .enableAsync(true)
+                .taskHandlerSize(1)
+                .bufferSize(2 << 4)
+                .overflowPolicy(overflowPolicy)
+                .sampleRate(0.5)
+                .build()
+        );
+        recorder.disableStackInfo();
+        LongAdder counter = new LongAdder();
+        List<InfoRecorder> infoRecorders = new ArrayList<>();
+        for (InfoRecorder infoRecorder : recorder.getInfoRecorders()) {
+            infoRecorders.add(infoRecorder);
+        }
+        infoRecorders.forEach(recorder::removeInfoRecorder);
+        recorder.addInfoRecorder(writeInfo -> {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+            counter.increment();
+        });
+
+        int total = 2000;
+        for (int i = 0; i < total; i++) {
+            recorder.log("tick");
+        }
+        recorder.shutdown();
+
+        assertTrue(recorder.getDiscardedCount() > 0);
+        assertEquals(total, counter.sum() + recorder.getDiscardedCount());
+    }
+
+    /**
+     * 记录器阻塞、环缓冲区已满时，非阻塞溢出策略下记录线程不被阻塞
+     *
+     * @param overflowPolicy 溢出策略
+     * @param stripeSize     异步环缓冲区分片数量
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    @ParameterizedTest
+    @MethodSource("generateNonBlockingOverflowArgs")
+    @DisplayName("Async overflow never blocks producer")
+    public void asyncOverflowNonBlockingTest(AsyncOverflowPolicy overflowPolicy, int stripeSize)
+        throws InterruptedException {
+        TraceRecorder recorder = new TraceRecorder(
+            TraceRecorderConfig
+                .builder()
+                .enableAsync(true)
+                .taskHandlerSize(1)
+                .bufferSize(2 << 3)
+                .stripeSize(stripeSize)
+                .overflowPolicy(overflowPolicy)
+                .sampleRate(0.5)
+                .build()
+        );
+        recorder.disableStackInfo();
+        List<InfoRecorder> infoRecorders = new ArrayList<>();
+        for (InfoRecorder infoRecorder : recorder.getInfoRecorders()) {
+            infoRecorders.add(infoRecorder);
+        }
+        infoRecorders.forEach(recorder::removeInfoRecorder);
+        CountDownLatch blocked = new CountDownLatch(1);
+        LongAdder counter = new LongAdder();
+        recorder.addInfoRecorder(writeInfo -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            counter.increment();
+        });
+
+        int total = 2000;
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < total; i++) {
+                recorder.log("tick");
+            }
+        });
+        producer.start();
+        producer.join(TimeUnit.SECONDS.toMillis(10));
+        boolean producerBlocked = producer.isAlive();
+        blocked.countDown();
+        producer.join();
+        recorder.shutdown();
+
+        assertFalse(producerBlocked);
+        assertTrue(recorder.getDiscardedCount() > 0);
+        assertEquals(total, counter.sum() + recorder.getDiscardedCount());
+    }
+
+    /**
+     * 记录器阻塞时丢弃最旧策略退化为丢弃当前记录，每次溢出只丢失一条记录
+     *
+     * @param taskHandlerSize 任务处理器数量
+     * @param stripeSize      异步环缓冲区分片数量
+     */
+    @ParameterizedTest
+    @MethodSource("generateDropOldestArgs")
+    @DisplayName("Async drop oldest loses one record per overflow")
+    public void asyncDropOldestSingleLossTest(int taskHandlerSize, int stripeSize) {
+        int bufferSize = 2 << 3;
+        TraceRecorder recorder = new TraceRecorder(
+            TraceRecorderConfig
+                .builder()
+                .enableAsync(true)
+                .taskHandlerSize(taskHandlerSize)
+                .bufferSize(bufferSize)
+                .stripeSize(stripeSize)
+                .overflowPolicy(AsyncOverflowPolicy.DROP_OLDEST)
+                .build()
+        );
+        recorder.disableStackInfo();
+        List<InfoRecorder> infoRecorders = new ArrayList<>();
+        for (InfoRecorder infoRecorder : recorder.getInfoRecorders()) {
+            infoRecorders.add(infoRecorder);
+        }
+        infoRecorders.forEach(recorder::removeInfoRecorder);
+        CountDownLatch blocked = new CountDownLatch(1);
+        LongAdder counter = new LongAdder();
+        recorder.addInfoRecorder(writeInfo -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            counter.increment();
+        });
+
+        int total = 2000;
+        for (int i = 0; i < total; i++) {
+            recorder.log("tick");
+        }
+        blocked.countDown();
+        recorder.shutdown();
+
+        /*
+          阻塞的记录占用第一个任务槽，环缓冲区只能容纳最先申领的记录，之后每次溢出只丢弃当前记录
+         */
+        assertEquals(bufferSize, counter.sum());
+        assertEquals(total - bufferSize, recorder.getDiscardedCount());
+    }
+
+    /**
+     * 批量信息记录器在批次结束时刷新，关闭后没有遗留的缓冲记录
+     *
+     * @param taskHandlerSize 任务处理器数量
+     */
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 2 })
+    @DisplayName("Async batch record")
+    public void asyncBatchRecordTest(int taskHandlerSize) {
+        TraceRecorder recorder = new TraceRecorder(
+            TraceRecorderConfig.builder().enableAsync(true).taskHandlerSize(taskHandlerSize).build()
+        );
+        recorder.disableStackInfo();
+        List<InfoRecorder> infoRecorders = new ArrayList<>();
+        for (InfoRecorder infoRecorder : recorder.getInfoRecorders()) {
+            infoRecorders.add(infoRecorder);
+        }
+        infoRecorders.forEach(recorder::removeInfoRecorder);
+        AtomicLong buffered = new AtomicLong();
+        LongAdder flushed = new LongAdder();
+        LongAdder flushCount = new LongAdder();
+        recorder.addInfoRecorder(
+            new BatchInfoRecorder() {
+                @Override
+                public void record(String writeInfo) {
+                    buffered.incrementAndGet();
+                }
+
+                @Override
+                public void flush() {
+                    flushed.add(buffered.getAndSet(0));
+                    flushCount.increment();
+                }
+            }
+        );
+
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            recorder.log("tick");
+        }
+        recorder.shutdown();
+
+        assertEquals(0, buffered.get());
+        assertEquals(RECORD_COUNT, flushed.sum());
+        assertTrue(flushCount.sum() <= RECORD_COUNT);
+    }
+
+    /**
+     * 多个任务处理者并行增强，记录器由单一线程按发布顺序提交
+     *
+     * @param taskHandlerSize 任务处理器数量
+     */
+    @ParameterizedTest
+    @ValueSource(ints = { 2, 4 })
+    @DisplayName("Async ordered commit")
+    public void asyncOrderedCommitTest(int taskHandlerSize) {
+        TraceRecorder recorder = new TraceRecorder(
+            TraceRecorderConfig.builder().enableAsync(true).taskHandlerSize(taskHandlerSize).build()
+        );
+        recorder.disableStackInfo();
+        recorder.disableThreadName();
+        List<InfoRecorder> infoRecorders = new ArrayList<>();
+        for (InfoRecorder infoRecorder : recorder.getInfoRecorders()) {
+            infoRecorders.add(infoRecorder);
+        }
+        infoRecorders.forEach(recorder::removeInfoRecorder);
+        List<Long> values = new ArrayList<>();
+        Set<Thread> committers = ConcurrentHashMap.newKeySet();
+        recorder.addInfoRecorder(writeInfo -> {
+            committers.add(Thread.currentThread());
+            values.add(Long.parseLong(writeInfo.replaceAll("\\D", "")));
+        });
+
+        for (long i = 0; i < RECORD_COUNT; i++) {
+            recorder.log("{}", i);
+        }
+        recorder.shutdown();
+
+        assertEquals(1, committers.size());
+        assertEquals(RECORD_COUNT, values.size());
+        for (int i = 0; i < values.size(); i++) {
+            assertEquals(i, values.get(i));
+        }
+    }
+
+    /**
+     * 分片异步记录，同一线程的记录顺序保持不变，所有记录由同一个线程提交
+     *
+     * @param enableTimestampOrder 启用时间戳排序
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    @DisplayName("Striped async record")
+    public void stripedRecordTest(boolean enableTimestampOrder) throws InterruptedException {
+        int producerSize = 4;
+        List<Long> values = new ArrayList<>();
+        TraceRecorder recorder = generateStripedTraceRecorder(enableTimestampOrder, values);
+        Set<Thread> committers = ConcurrentHashMap.newKeySet();
+        recorder.addInfoRecorder(writeInfo -> committers.add(Thread.currentThread()));
+
+        List<Thread> producers = new ArrayList<>(producerSize);
+        for (int i = 0; i < producerSize; i++) {
+            long base = (long) i * RECORD_COUNT;
+            producers.add(
+                new Thread(() -> {
+                    for (int j = 0; j < RECORD_COUNT; j++) {
+                        recorder.log("{}", base + j);
+                    }
+                })
+            );
+        }
+        producers.forEach(Thread::start);
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        recorder.shutdown();
+
+        assertEquals(1, committers.size());
+        assertEquals((long) RECORD_COUNT * producerSize, values.size());
+        long[] lastValues = new long[producerSize];
+        Arrays.fill(lastValues, -1);
+        for (long value : values) {
+            int producer = (int) (value / RECORD_COUNT);
+            assertTrue(value > lastValues[producer]);
+            lastValues[producer] = value;
+        }
+    }
+
+    /**
+     * 分片异步记录启用时间戳排序，跨线程的记录按时间戳全局有序
+     *
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = { 10_000 })
+    @DisplayName("Striped async record of timestamp order")
+    public void stripedTimestampOrderTest(int recordCount) throws InterruptedException {
+        int producerSize = 4;
+        List<Long> values = new ArrayList<>();
+        TraceRecorder recorder = generateStripedTraceRecorder(true, values);
+
+        Object lock = new Object();
+        AtomicLong counter = new AtomicLong();
+        List<Thread> producers = new ArrayList<>(producerSize);
+        for (int i = 0; i < producerSize; i++) {
+            producers.add(
+                new Thread(() -> {
+                    for (int j = 0; j < recordCount; j++) {
+                        synchronized (lock) {
+                            recorder.log("{}", counter.getAndIncrement());
+                        }
+                    }
+                })
+            );
+        }
+        producers.forEach(Thread::start);
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        recorder.shutdown();
+
+        assertEquals((long) recordCount * producerSize, values.size());
+        for (int i = 0; i < values.size(); i++) {
+            assertEquals(i, values.get(i));
+        }
+    }
+
+    /**
+     * 生成分片异步跟踪记录仪，记录的数值收集到{@code values}中
+     *
+     * @param enableTimestampOrder 启用时间戳排序
+     * @param values               记录的数值
+     * @return 跟踪记录仪
+     */
+    private static TraceRecorder generateStripedTraceRecorder(boolean enableTimestampOrder, List<Long> values) {
+        TraceRecorder recorder = new TraceRecorder(
+            TraceRecorderConfig
+                .builder()
+                .enableAsync(true)
+                .taskHandlerSize(1)
+                .stripeSize(4)
+                .enableTimestampOrder(enableTimestampOrder)
+                .build()
+        );
+        recorder.disableStackInfo();
+        recorder.disableThreadName();
+        List<InfoRecorder> infoRecorders = new ArrayList<>();
+        for (InfoRecorder infoRecorder : recorder.getInfoRecorders()) {
+            infoRecorders.add(infoRecorder);
+        }
+        infoRecorders.forEach(recorder::removeInfoRecorder);
+        recorder.addInfoRecorder(writeInfo -> {
+            long value = Long.parseLong(writeInfo.replaceAll("\\D", ""));
+            synchronized (values) {
+                values.add(value);
+            }
+        });
+        return recorder;
+    }
+
+    /**
+     * 生成一组非阻塞溢出参数
+     *
+     * @return 一组非阻塞溢出参数
+     */
+    @DisplayName("generate a group of non-blocking overflow args")
+    private static Stream<Arguments> generateNonBlockingOverflowArgs() {
+        List<Arguments> arguments = new ArrayList<>();
+        for (AsyncOverflowPolicy overflowPolicy : AsyncOverflowPolicy.values()) {
+            if (overflowPolicy == AsyncOverflowPolicy.BLOCK) {
+                continue;
+            }
+            for (int stripeSize : new int[] { 1, 2 }) {
+                arguments.add(Arguments.arguments(overflowPolicy, stripeSize));
+            }
+        }
+        return arguments.stream();
+    }
+
+    /**
+     * 生成一组丢弃最旧参数
+     *
+     * @return 一组丢弃最旧参数
+     */
+    @DisplayName("generate a group of drop oldest args")
+    private static Stream<Arguments> generateDropOldestArgs() {
+        return Stream.of(Arguments.arguments(1, 1), Arguments.arguments(2, 1), Arguments.arguments(1, 2));
+    }
+}
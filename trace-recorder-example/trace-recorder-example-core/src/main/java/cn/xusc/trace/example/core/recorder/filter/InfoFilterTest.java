@@ -15,16 +15,23 @@
  */
 package cn.xusc.trace.example.core.recorder.filter;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 import cn.xusc.trace.core.TraceRecorder;
 import cn.xusc.trace.core.config.TraceRecorderConfig;
+import cn.xusc.trace.core.filter.InfoFilter;
+import cn.xusc.trace.core.filter.RateLimitInfoFilter;
+import cn.xusc.trace.core.filter.SamplingInfoFilter;
 import cn.xusc.trace.core.util.TraceRecorderProperties;
 import java.io.IOException;
 import java.io.StringReader;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 /**
  * http协议信息过滤器
@@ -91,6 +98,89 @@ public class InfoFilterTest {
         recorder.log(info, argArray);
     }
 
+    /**
+     * 限流信息过滤器按调用点独立限流
+     *
+     * @param recordCount 每个调用点的记录数
+     * @throws IOException if an I/O exception occurs.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = 100)
+    @DisplayName("Rate limit infoFilter")
+    public void rateLimitInfoFilterTest(int recordCount) throws IOException {
+        TraceRecorderConfig config = new TraceRecorderProperties()
+            .easyLoad(
+                new StringReader(
+                    "cn.xusc.trace.core.config.TraceRecorderConfig.enableStack=true\n" +
+                    "cn.xusc.trace.core.config.TraceRecorderConfig.rateLimit=0.001\n" +
+                    "cn.xusc.trace.core.config.TraceRecorderConfig.rateLimitBurst=2"
+                )
+            )
+            .config();
+        TraceRecorder recorder = new TraceRecorder(config);
+        LongAdder recorded = new LongAdder();
+        recorder.addInfoRecorder(writeInfo -> recorded.increment());
+
+        for (int i = 0; i < recordCount; i++) {
+            recorder.log("{}", i);
+        }
+        for (int i = 0; i < recordCount; i++) {
+            recorder.log("{}", i);
+        }
+
+        RateLimitInfoFilter infoFilter = findInfoFilter(recorder, RateLimitInfoFilter.class);
+        assertEquals(4, recorded.sum());
+        assertEquals(2L * recordCount - 4, infoFilter.getSuppressedCount());
+    }
+
+    /**
+     * 采样信息过滤器按调用点采样
+     *
+     * @param recordCount 记录数
+     * @throws IOException if an I/O exception occurs.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = 100)
+    @DisplayName("Sampling infoFilter")
+    public void samplingInfoFilterTest(int recordCount) throws IOException {
+        TraceRecorderConfig config = new TraceRecorderProperties()
+            .easyLoad(
+                new StringReader(
+                    "cn.xusc.trace.core.config.TraceRecorderConfig.samplingRate=0.1\n" +
+                    "cn.xusc.trace.core.config.TraceRecorderConfig.enableSamplingPerCallSite=true"
+                )
+            )
+            .config();
+        TraceRecorder recorder = new TraceRecorder(config);
+        LongAdder recorded = new LongAdder();
+        recorder.addInfoRecorder(writeInfo -> recorded.increment());
+
+        for (int i = 0; i < recordCount; i++) {
+            recorder.log("{}", i);
+        }
+
+        SamplingInfoFilter infoFilter = findInfoFilter(recorder, SamplingInfoFilter.class);
+        assertEquals(recordCount / 10, recorded.sum());
+        assertEquals(recordCount - recordCount / 10, infoFilter.getSuppressedCount());
+    }
+
+    /**
+     * 查找指定类型的信息过滤器
+     *
+     * @param recorder 跟踪记录仪
+     * @param clazz    信息过滤器类型
+     * @param <T>      信息过滤器类型
+     * @return 信息过滤器
+     */
+    private static <T extends InfoFilter> T findInfoFilter(TraceRecorder recorder, Class<T> clazz) {
+        for (InfoFilter infoFilter : recorder.getInfoFilters()) {
+            if (clazz.isInstance(infoFilter)) {
+                return clazz.cast(infoFilter);
+            }
+        }
+        throw new AssertionError("not found " + clazz.getName());
+    }
+
     /**
      * 生成一组参数
      */
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.example.core.recorder.record;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import cn.xusc.trace.core.TraceRecorder;
+import cn.xusc.trace.core.enhance.InfoEnhancer;
+import cn.xusc.trace.core.filter.InfoFilter;
+import cn.xusc.trace.core.record.InfoRecorder;
+import cn.xusc.trace.core.record.binary.BinaryInfoDecoder;
+import cn.xusc.trace.core.record.binary.BinaryInfoRecorder;
+import cn.xusc.trace.example.core.util.need.enhance.PrefixInfoEnhancerTest;
+import cn.xusc.trace.example.core.util.need.filter.ShortInfoFilterTest;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * 二进制信息记录器测试
+ *
+ * @author wangcai
+ */
+public class BinaryInfoRecorderTest {
+
+    /**
+     * 解码后的文本与文本记录器收到的写出信息一致
+     *
+     * @param directory 临时目录
+     * @throws IOException if an I/O exception occurs.
+     */
+    @Test
+    @DisplayName("Binary record decode")
+    public void binaryRecordDecodeTest(@TempDir Path directory) throws IOException {
+        TraceRecorder recorder = new TraceRecorder();
+        removeTestComponents(recorder);
+        List<String> expected = new ArrayList<>();
+        recorder.addInfoRecorder(expected::add);
+        Path file = directory.resolve("trace.bin");
+        BinaryInfoRecorder binaryInfoRecorder = new BinaryInfoRecorder(file.toFile());
+        recorder.addInfoRecorder(binaryInfoRecorder);
+
+        for (int i = 0; i < 3; i++) {
+            recorder.log("loop {} of {}", i, 3L);
+        }
+        recorder.log("types {} {} {} {} {} {}", 1.5f, 2.25d, true, 'c', null, new int[0].length);
+        recorder.log("object {}", List.of("a", "b"));
+        recorder.log("中文 {}", "参数");
+        recorder.enableShortClassName();
+        recorder.log("short {}", -1);
+        recorder.disableStackInfo();
+        recorder.log("no stack");
+        binaryInfoRecorder.close();
+
+        List<String> actual = decode(file, false);
+        List<String> shortActual = decode(file, true);
+        /*
+          短类名在读取时决定，启用短类名后的记录只与按短类名解码的结果一致
+         */
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.subList(0, 6), actual.subList(0, 6));
+        assertEquals(expected.get(6), shortActual.get(6));
+        assertEquals(expected.get(7), actual.get(7));
+        assertTrue(Files.size(file) < String.join("", expected).length());
+    }
+
+    /**
+     * 解码二进制记录文件
+     *
+     * @param file                 二进制记录文件
+     * @param enableShortClassName 启用短类名
+     * @return 记录文本列表
+     * @throws IOException if an I/O exception occurs.
+     */
+    private static List<String> decode(Path file, boolean enableShortClassName) throws IOException {
+        List<String> writeInfos = new ArrayList<>();
+        try (
+            BinaryInfoDecoder decoder = new BinaryInfoDecoder(Files.newInputStream(file), enableShortClassName, false)
+        ) {
+            String writeInfo;
+            while (Objects.nonNull(writeInfo = decoder.next())) {
+                writeInfos.add(writeInfo);
+            }
+        }
+        return writeInfos;
+    }
+
+    /**
+     * 移除测试模块通过SPI注册的组件，保留默认组件
+     *
+     * @param recorder 跟踪记录仪
+     */
+    private static void removeTestComponents(TraceRecorder recorder) {
+        List<InfoFilter> infoFilters = new ArrayList<>();
+        for (InfoFilter infoFilter : recorder.getInfoFilters()) {
+            if (infoFilter instanceof ShortInfoFilterTest) {
+                infoFilters.add(infoFilter);
+            }
+        }
+        infoFilters.forEach(recorder::removeInfoFilter);
+        List<InfoEnhancer> infoEnhancers = new ArrayList<>();
+        for (InfoEnhancer infoEnhancer : recorder.getInfoEnhancers()) {
+            if (infoEnhancer instanceof PrefixInfoEnhancerTest) {
+                infoEnhancers.add(infoEnhancer);
+            }
+        }
+        infoEnhancers.forEach(recorder::removeInfoEnhancer);
+        List<InfoRecorder> infoRecorders = new ArrayList<>();
+        for (InfoRecorder infoRecorder : recorder.getInfoRecorders()) {
+            infoRecorders.add(infoRecorder);
+        }
+        infoRecorders.forEach(recorder::removeInfoRecorder);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.example.core.recorder.record;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import cn.xusc.trace.core.constant.FileDurability;
+import cn.xusc.trace.core.record.RollingFileInfoRecorder;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * 滚动文件信息记录器测试
+ *
+ * @author wangcai
+ */
+public class RollingFileInfoRecorderTest {
+
+    /**
+     * 按大小滚动，超出保留数的历史文件被删除
+     *
+     * @param directory 临时目录
+     * @throws IOException if an I/O exception occurs.
+     */
+    @Test
+    @DisplayName("Size rollover and retention")
+    public void sizeRolloverTest(@TempDir Path directory) throws IOException {
+        RollingFileInfoRecorder recorder = RollingFileInfoRecorder
+            .builder()
+            .directory(directory.toString())
+            .maxFileSize(1024)
+            .maxHistory(2)
+            .durability(FileDurability.EVERY_BATCH)
+            .bufferSize(256)
+            .build();
+        for (int i = 0; i < 200; i++) {
+            recorder.record(String.format("record-%03d\n", i));
+            recorder.flush();
+        }
+        recorder.close();
+
+        List<Path> files = listFiles(directory);
+        assertEquals(3, files.size());
+        assertTrue(files.contains(directory.resolve("trace.log")));
+        String last = Files.readString(directory.resolve("trace.log"), StandardCharsets.UTF_8);
+        assertTrue(last.endsWith("record-199\n"));
+    }
+
+    /**
+     * 不滚动时，所有记录按顺序写出且不丢失
+     *
+     * @param directory 临时目录
+     * @throws IOException if an I/O exception occurs.
+     */
+    @Test
+    @DisplayName("Buffered write")
+    public void bufferedWriteTest(@TempDir Path directory) throws IOException {
+        RollingFileInfoRecorder recorder = RollingFileInfoRecorder
+            .builder()
+            .directory(directory.toString())
+            .fileName("buffered")
+            .bufferSize(64)
+            .build();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            String writeInfo = "中文记录-" + i + "\n";
+            expected.append(writeInfo);
+            recorder.record(writeInfo);
+        }
+        recorder.close();
+
+        assertEquals(List.of(directory.resolve("buffered.log")), listFiles(directory));
+        assertEquals(expected.toString(), Files.readString(directory.resolve("buffered.log"), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 列出目录下的文件
+     *
+     * @param directory 目录
+     * @return 文件列表
+     * @throws IOException if an I/O exception occurs.
+     */
+    private static List<Path> listFiles(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.sorted().collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.example.core.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import cn.xusc.trace.core.TraceRecorder;
+import cn.xusc.trace.core.util.TraceRecorders;
+import java.util.concurrent.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 跟踪记录仪工具类测试
+ *
+ * @author wangcai
+ */
+public class TraceRecordersTest {
+
+    /**
+     * 验证注册键槽位
+     */
+    @Test
+    @DisplayName("verify register key slots")
+    public void registerKeySlotsTest() {
+        TraceRecorder recorder = new TraceRecorder();
+        assertSame(recorder, TraceRecorders.get());
+        assertNull(TraceRecorders.get("unknown"));
+        assertTrue(TraceRecorders.register("slot", recorder));
+        assertSame(recorder, TraceRecorders.get("slot"));
+        assertSame(recorder, TraceRecorders.get(TraceRecorders.TRACE_RECORDER_KEY));
+        assertThrowsExactly(NullPointerException.class, () -> TraceRecorders.register(null, recorder));
+        assertThrowsExactly(NullPointerException.class, () -> TraceRecorders.get(null));
+
+        // 以默认注册键注册等同于注册默认跟踪记录仪
+        TraceRecorder other = new TraceRecorder();
+        assertSame(other, TraceRecorders.get());
+        assertTrue(TraceRecorders.register(TraceRecorders.TRACE_RECORDER_KEY, recorder));
+        assertSame(recorder, TraceRecorders.get());
+    }
+
+    /**
+     * 验证任务传播跟踪记录仪
+     */
+    @Test
+    @DisplayName("verify propagate TraceRecorder to tasks")
+    public void propagateTest() throws Exception {
+        TraceRecorder recorder = new TraceRecorder();
+        TraceRecorders.register("propagate", recorder);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            ExecutorService wrapped = TraceRecorders.wrap(pool);
+            assertSame(wrapped, TraceRecorders.wrap(wrapped));
+            assertSame(recorder, wrapped.submit(() -> TraceRecorders.get("propagate")).get());
+            assertSame(recorder, TraceRecorders.supplyAsync(() -> TraceRecorders.get("propagate"), pool).get());
+            assertSame(recorder, pool.submit(TraceRecorders.wrap(() -> TraceRecorders.get("propagate"))).get());
+            // 包装任务结束后还原线程槽位
+            assertNull(pool.submit(() -> TraceRecorders.get("propagate")).get());
+            // 未注册线程不会回退到其他线程注册的跟踪记录仪
+            assertNull(pool.submit(() -> TraceRecorders.get()).get());
+            assertSame(recorder, wrapped.submit(() -> TraceRecorders.get()).get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
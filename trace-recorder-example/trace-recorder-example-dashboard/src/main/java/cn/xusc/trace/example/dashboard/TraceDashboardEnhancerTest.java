@@ -15,12 +15,18 @@
  */
 package cn.xusc.trace.example.dashboard;
 
+import static org.junit.jupiter.api.Assertions.*;
+
+import cn.xusc.trace.core.StackSnapshot;
 import cn.xusc.trace.core.TraceRecorder;
 import cn.xusc.trace.core.config.TraceRecorderConfig;
+import cn.xusc.trace.example.dashboard.need.StackSnapshotTraceDashboardComponentTest;
+import java.util.List;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 /**
  * 跟踪仪表盘增强器测试
@@ -41,6 +47,32 @@ public class TraceDashboardEnhancerTest {
         recorder.log("hello TraceDashboardEnhancer");
     }
 
+    /**
+     * 组件收到记录线程上捕获的堆栈快照
+     *
+     * @param enableAsync 启用异步记录
+     */
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    @DisplayName("transmit producer stack snapshot")
+    public void transmitStackSnapshotTest(boolean enableAsync) {
+        TraceRecorder recorder = new TraceRecorder(
+            TraceRecorderConfig.builder().enableAsync(enableAsync).taskHandlerSize(1).build()
+        );
+        recorder.addInfoRecorder(writeInfo -> {});
+        List<StackSnapshot> snapshots = StackSnapshotTraceDashboardComponentTest.STACK_SNAPSHOTS;
+        snapshots.clear();
+
+        recorder.log("hello {}", "dashboard");
+        recorder.shutdown();
+
+        assertEquals(1, snapshots.size());
+        StackSnapshot snapshot = snapshots.get(0);
+        assertNotNull(snapshot);
+        assertEquals(TraceDashboardEnhancerTest.class.getName(), snapshot.caller().getClassName());
+        assertEquals("transmitStackSnapshotTest", snapshot.caller().getMethodName());
+    }
+
     /**
      * 生成跟踪记录仪
      */
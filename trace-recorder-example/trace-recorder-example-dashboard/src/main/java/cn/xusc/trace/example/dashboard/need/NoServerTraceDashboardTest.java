@@ -0,0 +1,62 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.example.dashboard.need;
+
+import cn.xusc.trace.dashboard.AbstractTraceDashboard;
+import cn.xusc.trace.dashboard.AbstractTraceDashboardConfig;
+import cn.xusc.trace.dashboard.mapping.TraceDashboardData;
+import cn.xusc.trace.server.util.ServerClosedWaiter;
+import java.nio.file.Path;
+import java.util.List;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * 无服务跟踪仪表盘
+ *
+ * <p>
+ * 显示时不启动服务，视为服务已关闭，仅用于让跟踪仪表盘增强器广播增强信息
+ * </p>
+ *
+ * @author wangcai
+ */
+public class NoServerTraceDashboardTest extends AbstractTraceDashboard {
+
+    @Override
+    protected AbstractTraceDashboardConfig initTraceDashboardConfig() {
+        return NoServerTraceDashboardConfig.builder().build();
+    }
+
+    @Override
+    protected void initTraceDashboardAttribute() {}
+
+    @Override
+    protected void openServerShow(List<TraceDashboardData> traceDashboardData) {
+        ServerClosedWaiter.INSTANCE.canWait();
+        ServerClosedWaiter.INSTANCE.doNotify();
+    }
+
+    /**
+     * 无服务跟踪仪表盘配置
+     */
+    @SuperBuilder
+    private static class NoServerTraceDashboardConfig extends AbstractTraceDashboardConfig {
+
+        @Override
+        public Path componentGeneratePath() {
+            return Path.of("build", "trace-dashboard");
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2022 WangCai.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cn.xusc.trace.example.dashboard.need;
+
+import cn.xusc.trace.core.EnhanceInfo;
+import cn.xusc.trace.core.StackSnapshot;
+import cn.xusc.trace.dashboard.TraceDashboardComponent;
+import cn.xusc.trace.dashboard.TraceDashboardComponentResource;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 堆栈快照跟踪仪表盘组件
+ *
+ * <p>
+ * 记录收到的增强信息所携带的堆栈快照
+ * </p>
+ *
+ * @author wangcai
+ */
+public class StackSnapshotTraceDashboardComponentTest implements TraceDashboardComponent {
+
+    /**
+     * 收到的堆栈快照列表
+     */
+    public static final List<StackSnapshot> STACK_SNAPSHOTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String groupName() {
+        return "test";
+    }
+
+    @Override
+    public String groupChineseName() {
+        return "测试";
+    }
+
+    @Override
+    public String componentName() {
+        return "stackSnapshot";
+    }
+
+    @Override
+    public String componentChineseName() {
+        return "堆栈快照";
+    }
+
+    @Override
+    public String componentAccessPath() {
+        return "/test/stackSnapshot";
+    }
+
+    @Override
+    public List<TraceDashboardComponentResource> resources() {
+        return List.of(new TraceDashboardComponentResource() {});
+    }
+
+    @Override
+    public void enable(Path componentGeneratePath) {}
+
+    @Override
+    public void transmit(EnhanceInfo eInfo) {
+        STACK_SNAPSHOTS.add(eInfo.getStackSnapshot());
+    }
+}